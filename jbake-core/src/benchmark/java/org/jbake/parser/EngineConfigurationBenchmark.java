@@ -0,0 +1,59 @@
+package org.jbake.parser;
+
+import org.jbake.app.Parser;
+import org.jbake.app.configuration.ConfigUtil;
+import org.jbake.app.configuration.DefaultJBakeConfiguration;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Compares parsing with the engine configuration compiled once against compiling it for every document.
+ *
+ * <p>Changing a property of the configuration drops the compiled engine configuration, which is the same as
+ * the setup per document done before. Run with {@code ./gradlew :jbake-core:benchmark -Piterations=2000}.</p>
+ */
+public class EngineConfigurationBenchmark {
+
+    private static final String HEADER = "title=Benchmark\nstatus=published\ntype=post\n~~~~~~\n";
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        File fixtureDir = new File(EngineConfigurationBenchmark.class.getResource("/fixture").getFile());
+        DefaultJBakeConfiguration config = (DefaultJBakeConfiguration) new ConfigUtil().loadConfig(fixtureDir);
+        config.setMarkdownExtensions("ALL");
+        Parser parser = new Parser(config);
+
+        File folder = Files.createTempDirectory("jbake-benchmark").toFile();
+        File markdown = write(new File(folder, "document.md"), HEADER + "# Title\n\nSome *text* with a [link](http://jbake.org).\n");
+        File asciidoc = write(new File(folder, "document.adoc"), HEADER + "= Title\n\nSome *text* with a http://jbake.org[link].\n");
+
+        for (File file : new File[]{markdown, asciidoc}) {
+            // warm up the engines and the JIT
+            run(parser, config, file, iterations, true);
+            run(parser, config, file, iterations, false);
+
+            long perDocument = run(parser, config, file, iterations, true);
+            long compiled = run(parser, config, file, iterations, false);
+            System.out.printf("%s: %d us per document with setup per document, %d us with compiled setup%n",
+                file.getName(), perDocument / iterations / 1000, compiled / iterations / 1000);
+        }
+    }
+
+    private static long run(Parser parser, DefaultJBakeConfiguration config, File file, int iterations, boolean perDocument) {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            if (perDocument) {
+                config.setProperty("benchmark.iteration", i);
+            }
+            parser.processFile(file);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static File write(File file, String content) throws Exception {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
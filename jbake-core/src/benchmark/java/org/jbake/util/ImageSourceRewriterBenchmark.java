@@ -0,0 +1,60 @@
+package org.jbake.util;
+
+import org.jbake.app.configuration.ConfigUtil;
+import org.jbake.app.configuration.DefaultJBakeConfiguration;
+import org.jbake.model.DocumentModel;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.io.File;
+
+/**
+ * Compares {@link HtmlUtil#fixImageSourceUrls(DocumentModel, org.jbake.app.configuration.JBakeConfiguration)}
+ * with the Jsoup parse and serialization it replaced, on a long generated page.
+ *
+ * <p>Run with {@code ./gradlew :jbake-core:benchmark -Pbenchmark=org.jbake.util.ImageSourceRewriterBenchmark -Piterations=500}.</p>
+ */
+public class ImageSourceRewriterBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        File fixtureDir = new File(ImageSourceRewriterBenchmark.class.getResource("/fixture").getFile());
+        DefaultJBakeConfiguration config = (DefaultJBakeConfiguration) new ConfigUtil().loadConfig(fixtureDir);
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            body.append("<h2 id=\"section-").append(i).append("\">Section ").append(i).append("</h2>\n")
+                .append("<p>Some <code>code</code> and a <a href=\"#section-").append(i).append("\">link</a>.</p>\n")
+                .append("<pre><code>int answer = 42;</code></pre>\n");
+            if (i % 10 == 0) {
+                body.append("<img src=\"./images/figure-").append(i).append(".png\" alt=\"Figure\">\n");
+            }
+        }
+        String html = body.toString();
+
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                DocumentModel document = new DocumentModel();
+                document.setUri("blog/2017/05/api.html");
+                document.setBody(html);
+                HtmlUtil.fixImageSourceUrls(document, config);
+            }
+            long rewriter = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                Document document = Jsoup.parseBodyFragment(html);
+                for (Element img : document.getElementsByTag("img")) {
+                    img.attr("src", "http://www.jbake.org/blog/2017/05/" + img.attr("src").replaceFirst("\\./", ""));
+                }
+                document.body().html();
+            }
+            long jsoup = System.nanoTime() - start;
+
+            System.out.printf("%d kB page: %d us with the rewriter, %d us with Jsoup%n",
+                html.length() / 1024, rewriter / iterations / 1000, jsoup / iterations / 1000);
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package org.jbake.app;
+
+import org.jbake.app.configuration.JBakeConfiguration;
+import org.jbake.model.DocumentModel;
+import org.jbake.model.DocumentTypes;
+import org.jbake.model.LazyDocumentModel;
+import org.jbake.model.ModelAttributes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Base class for {@link ContentStore} implementations, holding the pagination state and the logic which
+ * does not depend on the storage.
+ */
+public abstract class AbstractContentStore implements ContentStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AbstractContentStore.class);
+
+    private long start = -1;
+    private long limit = -1;
+    private int batchSize = 100;
+    private final AtomicLong modificationCount = new AtomicLong();
+    private TagIndex tagIndex;
+    private long tagIndexModificationCount;
+    private DataFileIndex dataFileIndex;
+    private long dataFileIndexModificationCount;
+    private volatile LazyDocumentModel.PropertyLoader deferredBodyLoader;
+
+    @Override
+    public long getStart() {
+        return start;
+    }
+
+    @Override
+    public void setStart(int start) {
+        this.start = start;
+    }
+
+    @Override
+    public long getLimit() {
+        return limit;
+    }
+
+    @Override
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    @Override
+    public void resetPagination() {
+        this.start = -1;
+        this.limit = -1;
+    }
+
+    @Override
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    @Override
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public long getModificationCount() {
+        return modificationCount.get();
+    }
+
+    /**
+     * Record a modification of the stored documents, see {@link #getModificationCount()}.
+     */
+    protected void modified() {
+        modificationCount.incrementAndGet();
+    }
+
+    @Override
+    public void setDeferredBodyLoader(LazyDocumentModel.PropertyLoader loader) {
+        this.deferredBodyLoader = loader;
+    }
+
+    protected LazyDocumentModel.PropertyLoader getDeferredBodyLoader() {
+        return deferredBodyLoader;
+    }
+
+    /**
+     * Drop the deferred bodies converted for rendered documents, so the converted bodies are not kept for the
+     * whole bake. A document rendered in a listing afterwards has its body converted again.
+     *
+     * @param documents the rendered documents
+     */
+    protected void releaseDeferredBodies(Collection<DocumentModel> documents) {
+        LazyDocumentModel.PropertyLoader loader = deferredBodyLoader;
+        if (loader instanceof DeferredBodyLoader) {
+            for (DocumentModel document : documents) {
+                ((DeferredBodyLoader) loader).release(document);
+            }
+        }
+    }
+
+    /**
+     * @param document a stored document, not loading any properties lazily itself
+     * @return true if the document has no body and a loader for deferred bodies is set
+     */
+    protected boolean isBodyDeferred(DocumentModel document) {
+        return deferredBodyLoader != null && document.get(ModelAttributes.BODY) == null;
+    }
+
+    /**
+     * Copy a stored document for a query result. A document without body is copied into a
+     * {@link LazyDocumentModel} which loads the body with the deferred body loader on first access.
+     *
+     * @param document a stored document, not loading any properties lazily itself
+     * @return the copy
+     */
+    protected DocumentModel copyWithDeferredBody(DocumentModel document) {
+        LazyDocumentModel.PropertyLoader loader = deferredBodyLoader;
+        if (loader == null || document.get(ModelAttributes.BODY) != null) {
+            DocumentModel copy = new DocumentModel();
+            copy.putAll(document);
+            return copy;
+        }
+        DocumentModel copy = new LazyDocumentModel(loader, ModelAttributes.BODY);
+        for (Map.Entry<String, Object> entry : document.entrySet()) {
+            if (!ModelAttributes.BODY.equals(entry.getKey())) {
+                copy.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public synchronized TagIndex getTagIndex() {
+        long currentModificationCount = getModificationCount();
+        if (tagIndex == null || tagIndexModificationCount != currentModificationCount || !tagIndex.isCurrent()) {
+            tagIndex = TagIndex.build(this);
+            tagIndexModificationCount = currentModificationCount;
+        }
+        return tagIndex;
+    }
+
+    @Override
+    public synchronized DataFileIndex getDataFileIndex(String docType) {
+        long currentModificationCount = getModificationCount();
+        if (dataFileIndex == null || dataFileIndexModificationCount != currentModificationCount || !dataFileIndex.isFor(docType)) {
+            dataFileIndex = DataFileIndex.build(this, docType);
+            dataFileIndexModificationCount = currentModificationCount;
+        }
+        return dataFileIndex;
+    }
+
+    protected boolean hasStartAndLimitBoundary() {
+        return (start >= 0) && (limit > -1);
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getPublishedPosts() {
+        return getPublishedContent("post");
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getPublishedPosts(boolean applyPaging) {
+        return getPublishedContent("post", applyPaging);
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getPublishedPages() {
+        return getPublishedContent("page");
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getPublishedContent(String docType) {
+        return getPublishedContent(docType, false);
+    }
+
+    protected abstract DocumentList<DocumentModel> getPublishedContent(String docType, boolean applyPaging);
+
+    @Override
+    public DocumentList<DocumentModel> getAllContent(String docType) {
+        return getAllContent(docType, false);
+    }
+
+    @Override
+    public void addDocuments(Collection<DocumentModel> documents) {
+        for (DocumentModel document : documents) {
+            addDocument(document);
+        }
+    }
+
+    @Override
+    public void deleteDocuments(Collection<String> uris) {
+        for (String uri : uris) {
+            deleteContent(uri);
+        }
+    }
+
+    @Override
+    public void markDocumentsAsRendered(Collection<DocumentModel> documents) {
+        for (DocumentModel document : documents) {
+            markContentAsRendered(document);
+        }
+    }
+
+    @Override
+    public void updateAndClearCacheIfNeeded(boolean needed, File templateFolder) {
+        Set<String> changedTemplates = storeTemplatesSignature(TemplateDependencies.scan(templateFolder));
+
+        if (needed || !changedTemplates.isEmpty()) {
+            clearCache();
+        }
+    }
+
+    @Override
+    public void updateAndClearCacheIfNeeded(boolean needed, SourceInventory sources, JBakeConfiguration config) {
+        TemplateDependencies templates = TemplateDependencies.scan(sources, config.getTemplateFolder());
+        Set<String> changedTemplates = storeTemplatesSignature(templates);
+
+        if (needed) {
+            clearCache();
+        } else if (!changedTemplates.isEmpty()) {
+            markTemplateDependentsAsUnrendered(templates, changedTemplates, config);
+        }
+    }
+
+    private void clearCache() {
+        deleteAllDocumentTypes();
+        this.updateSchema();
+    }
+
+    /**
+     * Store the signature of the current templates.
+     *
+     * @return the templates which changed since the stored signature was computed, all templates if there was none
+     */
+    private Set<String> storeTemplatesSignature(TemplateDependencies templates) {
+        String storedSignature = getTemplatesSignature();
+        String currentTemplatesSignature = templates.getSignature();
+        if (storedSignature == null) {
+            // first computation of templates signature
+            this.insertTemplatesSignature(currentTemplatesSignature);
+        } else if (!storedSignature.equals(currentTemplatesSignature)) {
+            this.updateTemplatesSignature(currentTemplatesSignature);
+        }
+        return templates.getChangedTemplates(TemplateDependencies.parse(storedSignature));
+    }
+
+    /**
+     * Documents are rendered with the template of their type, so only the types whose template depends on a
+     * changed template are affected. A changed template none of the configured templates is known to use could
+     * still be used in a way the dependency scan does not recognize, so all documents are affected then.
+     */
+    private void markTemplateDependentsAsUnrendered(TemplateDependencies templates, Set<String> changedTemplates, JBakeConfiguration config) {
+        Set<String> usedTemplates = new HashSet<>();
+        Set<String> affectedTypes = new HashSet<>();
+        for (String docType : config.getDocumentTypes()) {
+            String template = FileUtil.asPath(config.getTemplateByDocType(docType));
+            if (template != null) {
+                usedTemplates.addAll(templates.getDependencies(template));
+                if (changedTemplates.contains(template)) {
+                    affectedTypes.add(docType);
+                }
+            }
+        }
+        boolean allAffected = !usedTemplates.containsAll(changedTemplates);
+
+        List<String> uris = new ArrayList<>();
+        for (String docType : DocumentTypes.getDocumentTypes()) {
+            if (!docType.equals(config.getDataFileDocType()) && (allAffected || affectedTypes.contains(docType))) {
+                for (DocumentModel document : getAllContent(docType)) {
+                    uris.add(document.getSourceuri());
+                }
+            }
+        }
+        if (!uris.isEmpty()) {
+            LOGGER.info("Templates changed: {}, {} document(s) will be rendered again", changedTemplates, uris.size());
+            markDocumentsAsUnrendered(uris);
+        }
+    }
+
+    /**
+     * @return the templates signature stored by a previous bake, or null if there is none
+     */
+    protected abstract String getTemplatesSignature();
+
+    protected abstract void insertTemplatesSignature(String currentTemplatesSignature);
+
+    protected abstract void updateTemplatesSignature(String currentTemplatesSignature);
+
+    private void deleteAllDocumentTypes() {
+        for (String docType : DocumentTypes.getDocumentTypes()) {
+            try {
+                this.deleteAllByDocType(docType);
+            } catch (Exception e) {
+                // maybe a non existing document type
+            }
+        }
+    }
+}
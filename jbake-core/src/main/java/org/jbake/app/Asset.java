@@ -9,22 +9,48 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileFilter;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Deals with assets (static files such as css, js or image files).
  *
+ * <p>If assets are synchronized, see {@link JBakeConfiguration#getAssetSync()}, an {@link AssetManifest} records
+ * the copied assets, so only new or changed assets are copied and the copies of removed assets are deleted.</p>
+ *
+ * <p>The files are copied by {@link JBakeConfiguration#getAssetThreads()} workers, the errors are collected in the
+ * order of the files. The workers are started once per copy of the assets of a bake and stopped when it is done.</p>
+ *
  * @author Jonathan Bullock <a href="mailto:jonbullock@gmail.com">jonbullock@gmail.com</a>
  */
 public class Asset {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(Asset.class);
+    private static final String MANIFEST_HASH_ALGORITHM = "SHA-1";
     private final List<Throwable> errors = new LinkedList<>();
     private final JBakeConfiguration config;
+    private AssetManifest manifest;
+    private ExecutorService workers;
 
     /**
      * @param source      Source file for the asset
@@ -56,6 +82,25 @@ public class Asset {
         copy(config.getAssetFolder());
     }
 
+    /**
+     * Copy the files of the asset folder and the files of the content folder which are no content files, as listed
+     * by an inventory which may be shared with the other phases of a bake.
+     *
+     * @param sources the source files of the bake
+     */
+    public void copy(SourceInventory sources) {
+        try {
+            copy(sources.getAssetFiles(), config.getAssetFolder());
+            copy(sources.getContentAssetFiles(), config.getContentFolder());
+        } finally {
+            shutdownWorkers();
+        }
+        if (config.getAssetSync()) {
+            deleteRemovedAssets();
+            saveManifest();
+        }
+    }
+
     /**
      * Copy all files from supplied path.
      *
@@ -68,7 +113,14 @@ public class Asset {
                 return (!config.getAssetIgnoreHidden() || !file.isHidden()) && (file.isFile() || FileUtil.directoryOnlyIfNotIgnored(file, config));
             }
         };
-        copy(path, config.getDestinationFolder(), filter);
+        try {
+            copy(path, config.getDestinationFolder(), filter);
+        } finally {
+            shutdownWorkers();
+        }
+        if (config.getAssetSync()) {
+            saveManifest();
+        }
     }
 
     /**
@@ -79,9 +131,12 @@ public class Asset {
     public void copySingleFile(File asset) {
         try {
             if ( !asset.isDirectory() ) {
-                String targetPath = config.getDestinationFolder().getCanonicalPath() + File.separatorChar + assetSubPath(asset);
-                LOGGER.info("Copying single asset file to [{}]", targetPath);
-                copyFile(asset, new File(targetPath));
+                File target = new File(config.getDestinationFolder(), assetSubPath(asset));
+                LOGGER.info("Copying single asset file to [{}]", target.getPath());
+                addError(copyFile(asset, target));
+                if (config.getAssetSync()) {
+                    saveManifest();
+                }
             } else {
                 LOGGER.info("Skip copying single asset file [{}]. Is a directory.", asset.getPath());
             }
@@ -119,7 +174,14 @@ public class Asset {
      * @param path of the content directory
      */
     public void copyAssetsFromContent(File path) {
-        copy(path, config.getDestinationFolder(), FileUtil.getNotContentFileFilter(config));
+        try {
+            copy(path, config.getDestinationFolder(), FileUtil.getNotContentFileFilter(config));
+        } finally {
+            shutdownWorkers();
+        }
+        if (config.getAssetSync()) {
+            saveManifest();
+        }
     }
 
     /**
@@ -139,28 +201,257 @@ public class Asset {
         return targetFolder;
     }
 
-    private void copy(File sourceFolder, File targetFolder, final FileFilter filter) {
+    private void copy(File sourceFolder, File targetFolder, FileFilter filter) {
+        Map<File, File> copies = new LinkedHashMap<>();
+        collect(sourceFolder, targetFolder, filter, copies);
+        copy(copies);
+    }
+
+    private void collect(File sourceFolder, File targetFolder, FileFilter filter, Map<File, File> copies) {
         final File[] assets = sourceFolder.listFiles(filter);
         if (assets != null) {
             Arrays.sort(assets);
             for (File asset : assets) {
                 final File target = new File(targetFolder, asset.getName());
                 if (asset.isFile()) {
-                    copyFile(asset, target);
+                    copies.put(asset, target);
                 } else if (asset.isDirectory()) {
-                    copy(asset, target, filter);
+                    collect(asset, target, filter, copies);
                 }
             }
         }
     }
 
-    private void copyFile(File asset, File targetFolder) {
+    private void copy(List<File> assets, File sourceFolder) {
+        Path root = sourceFolder.toPath();
+        Map<File, File> copies = new LinkedHashMap<>();
+        for (File asset : assets) {
+            copies.put(asset, new File(config.getDestinationFolder(), root.relativize(asset.toPath()).toString()));
+        }
+        copy(copies);
+    }
+
+    /**
+     * Copy files on a pool of {@link JBakeConfiguration#getAssetThreads()} workers. The errors are collected in the
+     * order of the files, regardless of the order in which the copies complete.
+     *
+     * @param copies the target files by source file, in the order of the walk
+     */
+    private void copy(Map<File, File> copies) {
+        int threads = Math.max(1, config.getAssetThreads());
+        if (threads <= 1 || copies.size() <= 1) {
+            for (Map.Entry<File, File> copy : copies.entrySet()) {
+                addError(copyFile(copy.getKey(), copy.getValue()));
+            }
+            return;
+        }
+
+        ExecutorService workers = getWorkers(threads);
+        try {
+            List<Future<Throwable>> results = new ArrayList<>(copies.size());
+            for (final Map.Entry<File, File> copy : copies.entrySet()) {
+                results.add(workers.submit(new Callable<Throwable>() {
+                    @Override
+                    public Throwable call() {
+                        return copyFile(copy.getKey(), copy.getValue());
+                    }
+                }));
+            }
+            for (Future<Throwable> result : results) {
+                try {
+                    addError(result.get());
+                } catch (ExecutionException e) {
+                    addError(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error("Copying assets was interrupted", e);
+            errors.add(e);
+        }
+    }
+
+    /**
+     * The workers are started by the first copy on several threads and shared by the following copies, until
+     * {@link #shutdownWorkers()}.
+     */
+    private ExecutorService getWorkers(int threads) {
+        if (workers == null) {
+            workers = Executors.newFixedThreadPool(threads, new AssetThreadFactory());
+        }
+        return workers;
+    }
+
+    private void shutdownWorkers() {
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    private void addError(Throwable error) {
+        if (error != null) {
+            errors.add(error);
+        }
+    }
+
+    /**
+     * Copy a single file. Runs on a copy worker, so it reports its error instead of adding it to the errors.
+     *
+     * @return the error, or null if the file was copied
+     */
+    private Throwable copyFile(File asset, File targetFolder) {
+        if (config.getAssetSync()) {
+            return syncFile(asset, targetFolder);
+        }
         try {
+            if (targetFolder.isFile() && Files.isSameFile(asset.toPath(), targetFolder.toPath())) {
+                // a hard link left by a synchronized bake, copying would truncate the source
+                Files.delete(targetFolder.toPath());
+            }
             FileUtils.copyFile(asset, targetFolder);
             LOGGER.info("Copying [{}]... done!", asset.getPath());
+            return null;
         } catch (IOException|IllegalArgumentException e) {
             LOGGER.error("Copying [{}]... failed!", asset.getPath(), e);
+            return e;
+        }
+    }
+
+    /**
+     * Copy an asset unless the manifest shows that its source did not change since it was copied the last time.
+     * A source with a new modification time but the same size is compared by its hash before copying it again.
+     */
+    private Throwable syncFile(File asset, File target) {
+        AssetManifest manifest = getManifest();
+        String path = destinationPath(target);
+        try {
+            long size = asset.length();
+            long lastModified = asset.lastModified();
+            AssetManifest.Entry entry = manifest.get(path);
+            if (entry != null && entry.getSize() == size && target.isFile() && target.length() == size) {
+                boolean linked = entry.getHash() == null;
+                if (linked ? config.getAssetSyncLink() && Files.isSameFile(asset.toPath(), target.toPath())
+                    : entry.getLastModified() == lastModified) {
+                    LOGGER.debug("Skipping unchanged asset [{}]", asset.getPath());
+                    return null;
+                }
+                if (!linked && entry.getHash().equals(FileUtil.hash(asset, MANIFEST_HASH_ALGORITHM))) {
+                    manifest.update(path, size, lastModified, entry.getHash());
+                    LOGGER.debug("Skipping unchanged asset [{}]", asset.getPath());
+                    return null;
+                }
+            }
+
+            File folder = target.getParentFile();
+            if (folder != null) {
+                Files.createDirectories(folder.toPath());
+            }
+            if (config.getAssetSyncLink() && link(asset, target)) {
+                manifest.update(path, size, lastModified, null);
+                LOGGER.info("Linking [{}]... done!", asset.getPath());
+            } else {
+                manifest.update(path, size, lastModified, copyAndHash(asset, target));
+                LOGGER.info("Copying [{}]... done!", asset.getPath());
+            }
+            return null;
+        } catch (Exception e) {
+            LOGGER.error("Copying [{}]... failed!", asset.getPath(), e);
+            manifest.remove(path);
+            return e;
+        }
+    }
+
+    private boolean link(File asset, File target) {
+        try {
+            Files.deleteIfExists(target.toPath());
+            Files.createLink(target.toPath(), asset.toPath());
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException e) {
+            LOGGER.debug("Unable to link [{}], copying it", asset.getPath(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Copy a file and hash its content in the same pass, keeping the modification time like
+     * {@link FileUtils#copyFile(File, File)}.
+     */
+    private String copyAndHash(File asset, File target) throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance(MANIFEST_HASH_ALGORITHM);
+        try (InputStream in = new DigestInputStream(new FileInputStream(asset), digest)) {
+            Files.copy(in, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (!target.setLastModified(asset.lastModified())) {
+            LOGGER.debug("Unable to keep the modification time of [{}]", target);
+        }
+        return FileUtil.toHex(digest.digest());
+    }
+
+    /**
+     * Delete the copies of the assets which were synchronized by a previous bake but whose source is gone.
+     */
+    private void deleteRemovedAssets() {
+        for (Map.Entry<String, AssetManifest.Entry> removed : getManifest().pruneUnused().entrySet()) {
+            File target = new File(config.getDestinationFolder(), removed.getKey());
+            try {
+                if (!isSynchronizedCopy(target, removed.getValue())) {
+                    LOGGER.debug("Keeping [{}], it was replaced since the removed asset was copied", target.getPath());
+                } else if (Files.deleteIfExists(target.toPath())) {
+                    LOGGER.info("Deleting removed asset [{}]... done!", target.getPath());
+                }
+            } catch (Exception e) {
+                LOGGER.error("Deleting removed asset [{}]... failed!", target.getPath(), e);
+                errors.add(e);
+            }
+        }
+    }
+
+    /**
+     * A file of the destination folder is still the copy of an asset if it has the size and the modification time
+     * recorded when it was synchronized, or the recorded hash. Otherwise it was replaced, e.g. by a rendered
+     * document of the same name.
+     */
+    private boolean isSynchronizedCopy(File target, AssetManifest.Entry entry) throws Exception {
+        if (!target.isFile() || target.length() != entry.getSize()) {
+            return false;
+        }
+        if (target.lastModified() == entry.getLastModified()) {
+            return true;
+        }
+        return entry.getHash() != null && entry.getHash().equals(FileUtil.hash(target, MANIFEST_HASH_ALGORITHM));
+    }
+
+    private String destinationPath(File target) {
+        String path = config.getDestinationFolder().getAbsoluteFile().toPath()
+            .relativize(target.getAbsoluteFile().toPath()).toString();
+        return path.replace(File.separatorChar, '/');
+    }
+
+    private synchronized AssetManifest getManifest() {
+        if (manifest == null) {
+            manifest = AssetManifest.load(config.getAssetManifestFile());
+        }
+        return manifest;
+    }
+
+    private void saveManifest() {
+        try {
+            getManifest().save();
+        } catch (IOException e) {
+            LOGGER.error("Failed to save the asset manifest", e);
             errors.add(e);
         }
     }
+
+    private static class AssetThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "jbake-asset-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,214 @@
+package org.jbake.app;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persisted state of the assets synchronized by the previous bakes, keyed by their path relative to the
+ * destination folder.
+ *
+ * <p>An entry records the size, the modification time and the hash of the source file at the time it was
+ * copied. A linked asset has no hash, it shares its content with the source file. The paths which were not
+ * synchronized by a bake belong to assets whose source disappeared, see {@link #pruneUnused()}.</p>
+ *
+ * <p>The manifest can be read and updated by several threads.</p>
+ */
+public class AssetManifest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AssetManifest.class);
+
+    private final File file;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+    private volatile boolean modified;
+
+    private AssetManifest(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Load a manifest. A missing or unreadable manifest file results in an empty manifest.
+     *
+     * @param file the manifest file
+     * @return the manifest
+     */
+    public static AssetManifest load(File file) {
+        AssetManifest manifest = new AssetManifest(file);
+        if (file.isFile()) {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+                for (String path : properties.stringPropertyNames()) {
+                    Entry entry = Entry.parse(properties.getProperty(path));
+                    if (entry != null) {
+                        manifest.entries.put(path, entry);
+                    }
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Ignoring unreadable asset manifest {}", file, e);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Get the entry of an asset and mark it as synchronized by the current bake.
+     *
+     * @param path the path of the asset relative to the destination folder
+     * @return the entry recorded when the asset was synchronized the last time, or null
+     */
+    public Entry get(String path) {
+        used.add(path);
+        return entries.get(path);
+    }
+
+    /**
+     * @param path         the path of the asset relative to the destination folder
+     * @param size         the size of the source file
+     * @param lastModified the modification time of the source file
+     * @param hash         the hash of the copied content, or null if the asset was linked
+     */
+    public void update(String path, long size, long lastModified, String hash) {
+        used.add(path);
+        Entry entry = new Entry(size, lastModified, hash);
+        if (!entry.equals(entries.put(path, entry))) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Forget an asset, e.g. because it could not be copied, so it is copied again by the next bake.
+     *
+     * @param path the path of the asset relative to the destination folder
+     */
+    public void remove(String path) {
+        if (entries.remove(path) != null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Drop the entries of all assets which were not synchronized since the manifest was loaded or last pruned,
+     * e.g. after synchronizing all assets.
+     *
+     * @return the dropped entries by the paths of their assets relative to the destination folder, sorted by path
+     */
+    public SortedMap<String, Entry> pruneUnused() {
+        SortedMap<String, Entry> unused = new TreeMap<>();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            if (!used.contains(entry.getKey())) {
+                unused.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String path : unused.keySet()) {
+            entries.remove(path);
+            modified = true;
+        }
+        used.clear();
+        return unused;
+    }
+
+    /**
+     * Write the manifest file, if any entry changed since it was loaded.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+        Properties properties = new Properties();
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            properties.setProperty(entry.getKey(), entry.getValue().format());
+        }
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Unable to create folder " + folder);
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Assets synchronized to the destination folder");
+        }
+        modified = false;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * The state of a source file when it was synchronized.
+     */
+    public static final class Entry {
+        private static final String SEPARATOR = "|";
+        private static final String LINKED = "-";
+
+        private final long size;
+        private final long lastModified;
+        private final String hash;
+
+        Entry(long size, long lastModified, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+
+        static Entry parse(String value) {
+            String[] fields = value.split("\\|");
+            if (fields.length != 3) {
+                return null;
+            }
+            try {
+                return new Entry(Long.parseLong(fields[0]), Long.parseLong(fields[1]), LINKED.equals(fields[2]) ? null : fields[2]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return size + SEPARATOR + lastModified + SEPARATOR + (hash != null ? hash : LINKED);
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * @return the hash of the copied content, or null if the asset was linked
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Entry)) {
+                return false;
+            }
+            Entry entry = (Entry) other;
+            return size == entry.size && lastModified == entry.lastModified
+                && (hash == null ? entry.hash == null : hash.equals(entry.hash));
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (size ^ lastModified) * 31 + (hash != null ? hash.hashCode() : 0);
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package org.jbake.app;
+
+import org.jbake.app.configuration.JBakeConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Content addressed cache of converted document bodies, kept on disk next to the database.
+ *
+ * <p>A body is stored under the hash of the markup engine, its effective options and the converted source text,
+ * so converting a byte-identical source with the same options becomes a file read, even after the documents
+ * were dropped from the content store because the templates changed. Resetting the cache clears it, see
+ * {@link #clear()}.</p>
+ *
+ * <p>The cache is bounded by {@link JBakeConfiguration#getBodyCacheSize()}. The least recently used bodies
+ * are evicted first, the modification time of an entry records its last use, so the order survives between
+ * bakes. Hits, misses and evictions are counted and saved with {@link #save()}.</p>
+ */
+public class BodyCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BodyCache.class);
+
+    private static final Map<File, BodyCache> CACHES = new ConcurrentHashMap<>();
+    private static final String STATS_FILE_NAME = "stats.properties";
+    private static final String ENTRY_EXTENSION = ".html";
+    private static final String HITS = "hits";
+    private static final String MISSES = "misses";
+    private static final String EVICTIONS = "evictions";
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private final File folder;
+    private final long maxSize;
+    private final Map<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private boolean indexed;
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private Properties savedStats;
+
+    BodyCache(File folder, long maxSize) {
+        this.folder = folder;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @param config the project configuration
+     * @return the body cache of the project, shared by all engines, or null if it is disabled
+     */
+    public static BodyCache get(JBakeConfiguration config) {
+        if (!config.getBodyCache()) {
+            return null;
+        }
+        return open(config);
+    }
+
+    /**
+     * @param config the project configuration
+     * @return the body cache of the project, even if it is disabled, e.g. to show its statistics
+     */
+    public static BodyCache open(JBakeConfiguration config) {
+        File folder = config.getBodyCacheFolder().getAbsoluteFile();
+        BodyCache cache = CACHES.get(folder);
+        if (cache == null || cache.maxSize != config.getBodyCacheSize() * MEGABYTE) {
+            cache = new BodyCache(folder, config.getBodyCacheSize() * MEGABYTE);
+            CACHES.put(folder, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Build the key of a converted body.
+     *
+     * @param engine  the markup engine, including its version
+     * @param options the effective options of the engine, see {@link #signature(Object)}
+     * @param source  the converted source text
+     * @return the key, a hex encoded SHA-1 hash
+     */
+    public static String key(String engine, String options, String source) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            digest.update(engine.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(options.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(source.getBytes(StandardCharsets.UTF_8));
+            return FileUtil.toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+
+    /**
+     * @param value engine options, possibly nested maps, collections and arrays
+     * @return a textual form of the options which does not depend on the iteration order of maps
+     */
+    public static String signature(Object value) {
+        StringBuilder sb = new StringBuilder();
+        appendSignature(sb, value);
+        return sb.toString();
+    }
+
+    /**
+     * @param key the key of a body, see {@link #key(String, String, String)}
+     * @return the cached body, or null if it is not cached
+     */
+    public String get(String key) {
+        File file = entryFile(key);
+        synchronized (this) {
+            index();
+            // a lookup marks the entry as the most recently used
+            if (entries.get(key) == null) {
+                misses++;
+                return null;
+            }
+        }
+        try {
+            String body = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            if (!file.setLastModified(System.currentTimeMillis())) {
+                LOGGER.debug("Unable to record the use of cached body {}", file);
+            }
+            synchronized (this) {
+                hits++;
+            }
+            return body;
+        } catch (IOException e) {
+            LOGGER.warn("Unable to read cached body {}", file, e);
+            synchronized (this) {
+                remove(key);
+                misses++;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Store a converted body, evicting the least recently used bodies if the cache gets too large.
+     *
+     * @param key  the key of the body, see {@link #key(String, String, String)}
+     * @param body the converted body
+     */
+    public void put(String key, String body) {
+        byte[] content = body.getBytes(StandardCharsets.UTF_8);
+        if (content.length > maxSize) {
+            return;
+        }
+        File file = entryFile(key);
+        try {
+            File parent = file.getParentFile();
+            if (!parent.isDirectory() && !parent.mkdirs() && !parent.isDirectory()) {
+                throw new IOException("Unable to create folder " + parent);
+            }
+            File temp = File.createTempFile(key, ".tmp", parent);
+            try {
+                Files.write(temp.toPath(), content);
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp.toPath());
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Unable to cache body {}", file, e);
+            return;
+        }
+
+        synchronized (this) {
+            index();
+            Long previous = entries.put(key, (long) content.length);
+            size += content.length - (previous != null ? previous : 0);
+            evict();
+        }
+    }
+
+    /**
+     * Delete all cached bodies, e.g. when the cache of the project is reset. The statistics are kept.
+     */
+    public synchronized void clear() {
+        index();
+        for (String key : entries.keySet()) {
+            File file = entryFile(key);
+            if (!file.delete() && file.exists()) {
+                LOGGER.warn("Unable to delete cached body {}", file);
+            }
+        }
+        entries.clear();
+        size = 0;
+    }
+
+    /**
+     * Add the hits, misses and evictions since the last save to the saved statistics.
+     */
+    public synchronized void save() {
+        if (hits == 0 && misses == 0 && evictions == 0) {
+            return;
+        }
+        Properties stats = loadStats();
+        stats.setProperty(HITS, String.valueOf(Long.parseLong(stats.getProperty(HITS, "0")) + hits));
+        stats.setProperty(MISSES, String.valueOf(Long.parseLong(stats.getProperty(MISSES, "0")) + misses));
+        stats.setProperty(EVICTIONS, String.valueOf(Long.parseLong(stats.getProperty(EVICTIONS, "0")) + evictions));
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            LOGGER.warn("Unable to create folder {}", folder);
+            return;
+        }
+        try (OutputStream out = new FileOutputStream(new File(folder, STATS_FILE_NAME))) {
+            stats.store(out, "Statistics of the body cache");
+            savedStats = stats;
+            hits = 0;
+            misses = 0;
+            evictions = 0;
+        } catch (IOException e) {
+            LOGGER.warn("Unable to save the statistics of the body cache", e);
+        }
+    }
+
+    /**
+     * @return the statistics of the cache, including the unsaved counts
+     */
+    public synchronized Stats getStats() {
+        index();
+        Properties stats = loadStats();
+        return new Stats(folder, entries.size(), size, maxSize,
+            Long.parseLong(stats.getProperty(HITS, "0")) + hits,
+            Long.parseLong(stats.getProperty(MISSES, "0")) + misses,
+            Long.parseLong(stats.getProperty(EVICTIONS, "0")) + evictions);
+    }
+
+    private File entryFile(String key) {
+        return new File(new File(folder, key.substring(0, 2)), key + ENTRY_EXTENSION);
+    }
+
+    /**
+     * Read the entries on first use, ordered by their last use.
+     */
+    private void index() {
+        if (indexed) {
+            return;
+        }
+        indexed = true;
+        List<File> files = new ArrayList<>();
+        File[] buckets = folder.listFiles();
+        if (buckets != null) {
+            for (File bucket : buckets) {
+                File[] bucketFiles = bucket.isDirectory() ? bucket.listFiles() : null;
+                if (bucketFiles != null) {
+                    for (File file : bucketFiles) {
+                        if (file.getName().endsWith(ENTRY_EXTENSION)) {
+                            files.add(file);
+                        }
+                    }
+                }
+            }
+        }
+        final Map<File, Long> lastUse = new LinkedHashMap<>();
+        for (File file : files) {
+            lastUse.put(file, file.lastModified());
+        }
+        Collections.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File first, File second) {
+                return Long.compare(lastUse.get(first), lastUse.get(second));
+            }
+        });
+        for (File file : files) {
+            String name = file.getName();
+            long length = file.length();
+            entries.put(name.substring(0, name.length() - ENTRY_EXTENSION.length()), length);
+            size += length;
+        }
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            File file = entryFile(entry.getKey());
+            if (!file.delete() && file.exists()) {
+                LOGGER.warn("Unable to evict cached body {}", file);
+            }
+            size -= entry.getValue();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(String key) {
+        Long length = entries.remove(key);
+        if (length != null) {
+            size -= length;
+        }
+    }
+
+    private Properties loadStats() {
+        if (savedStats == null) {
+            savedStats = new Properties();
+            File file = new File(folder, STATS_FILE_NAME);
+            if (file.isFile()) {
+                try (InputStream in = new FileInputStream(file)) {
+                    savedStats.load(in);
+                } catch (IOException | IllegalArgumentException e) {
+                    LOGGER.warn("Ignoring unreadable statistics of the body cache {}", file, e);
+                }
+            }
+        }
+        Properties copy = new Properties();
+        copy.putAll(savedStats);
+        return copy;
+    }
+
+    private static void appendSignature(StringBuilder sb, Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                sorted.put(String.valueOf(entry.getKey()), entry.getValue());
+            }
+            sb.append('{');
+            for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+                sb.append(entry.getKey()).append('=');
+                appendSignature(sb, entry.getValue());
+                sb.append(';');
+            }
+            sb.append('}');
+        } else if (value instanceof Collection) {
+            sb.append('[');
+            for (Object element : (Collection<?>) value) {
+                appendSignature(sb, element);
+                sb.append(',');
+            }
+            sb.append(']');
+        } else if (value != null && value.getClass().isArray()) {
+            sb.append('[');
+            for (int i = 0; i < Array.getLength(value); i++) {
+                appendSignature(sb, Array.get(value, i));
+                sb.append(',');
+            }
+            sb.append(']');
+        } else {
+            sb.append(value);
+        }
+    }
+
+    /**
+     * Size and usage of the cache.
+     */
+    public static final class Stats {
+        private final File folder;
+        private final int entries;
+        private final long size;
+        private final long maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        Stats(File folder, int entries, long size, long maxSize, long hits, long misses, long evictions) {
+            this.folder = folder;
+            this.entries = entries;
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public File getFolder() {
+            return folder;
+        }
+
+        public int getEntries() {
+            return entries;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getMaxSize() {
+            return maxSize;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+    }
+}
@@ -1,25 +1,40 @@
 package org.jbake.app;
 
-import com.orientechnologies.orient.core.record.impl.ODocument;
 import org.apache.commons.configuration2.CompositeConfiguration;
 import org.apache.commons.io.FilenameUtils;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.app.configuration.JBakeConfigurationFactory;
+import org.jbake.launcher.SystemExit;
 import org.jbake.model.DocumentModel;
 import org.jbake.model.DocumentStatus;
 import org.jbake.model.DocumentTypes;
 import org.jbake.model.ModelAttributes;
-import org.jbake.util.HtmlUtil;
+import org.jbake.parser.Engines;
+import org.jbake.processor.DocumentProcessors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
-import java.util.Arrays;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Crawls a file system looking for content.
@@ -29,9 +44,16 @@ import java.util.Map;
 public class Crawler {
 
     private static final Logger logger = LoggerFactory.getLogger(Crawler.class);
+    private static final int QUEUE_CAPACITY_PER_WORKER = 4;
+    private static final Future<CrawlResult> END_OF_WALK = CompletableFuture.completedFuture(null);
+
     private final ContentStore db;
     private final JBakeConfiguration config;
     private final Parser parser;
+    private final DocumentProcessors processors = DocumentProcessors.load();
+    private FingerprintManifest fingerprints;
+    private boolean contentCrawled;
+    private boolean dataCrawled;
 
     /**
      * @param db     Database instance for content
@@ -61,7 +83,17 @@ public class Crawler {
     }
 
     public void crawl() {
-        crawl(config.getContentFolder());
+        crawl(new SourceInventory(config));
+    }
+
+    /**
+     * Crawl the content files of an inventory, which may be shared with the other phases of a bake.
+     *
+     * @param sources the source files of the bake
+     */
+    public void crawl(SourceInventory sources) {
+        crawlContent(sources);
+        contentCrawled = true;
 
         logger.info("Content detected:");
         for (String docType : DocumentTypes.getDocumentTypes()) {
@@ -73,7 +105,17 @@ public class Crawler {
     }
 
     public void crawlDataFiles() {
-        crawlDataFiles(config.getDataFolder());
+        crawlDataFiles(new SourceInventory(config));
+    }
+
+    /**
+     * Crawl the data files of an inventory, which may be shared with the other phases of a bake.
+     *
+     * @param sources the source files of the bake
+     */
+    public void crawlDataFiles(SourceInventory sources) {
+        crawlDataFiles(sources.getDataFiles());
+        dataCrawled = true;
 
         logger.info("Data files detected:");
         String docType = config.getDataFileDocType();
@@ -84,95 +126,241 @@ public class Crawler {
     }
 
     /**
-     * Crawl all files and folders looking for content.
+     * Crawl a single content file, e.g. after it changed while watching the source folder, and update its
+     * document in the store. The document of a content file which no longer exists is removed from the store.
      *
-     * @param path Folder to start from
+     * @param sourceFile a content file, see {@link #isContentFile(File)}
+     */
+    public void crawlSingleFile(File sourceFile) {
+        String uri = buildURI(sourceFile);
+        if (!sourceFile.isFile()) {
+            logger.info("Removing [{}]... : deleted", sourceFile.getPath());
+            db.deleteContent(uri);
+            FingerprintManifest manifest = getFingerprintManifest();
+            if (manifest != null) {
+                manifest.remove(sourceFile);
+            }
+            return;
+        }
+
+        Map<String, DocumentModel> statuses = new HashMap<>();
+        DocumentList<DocumentModel> match = db.getDocumentStatus(uri);
+        if (!match.isEmpty()) {
+            statuses.put(uri, match.get(0));
+        }
+        StoreBatch batch = new StoreBatch();
+        write(crawlFile(sourceFile, statuses), batch);
+        batch.flush();
+    }
+
+    /**
+     * @param file a file which exists or existed before it was deleted
+     * @return true if the file is a content file the crawler would pick up: a file of a registered markup
+     * engine which is located in the content folder and not in an ignored folder
      */
-    private void crawl(File path) {
-        File[] contents = path.listFiles(FileUtil.getFileFilter(config));
-        if (contents != null) {
-            Arrays.sort(contents);
-            for (File sourceFile : contents) {
-                if (sourceFile.isFile()) {
-                    crawlFile(sourceFile);
-                } else if (sourceFile.isDirectory()) {
-                    crawl(sourceFile);
+    public boolean isContentFile(File file) {
+        if (file.isHidden() || file.isDirectory() || !Engines.getRecognizedExtensions().contains(FileUtil.fileExt(file))) {
+            return false;
+        }
+        try {
+            File contentFolder = config.getContentFolder().getCanonicalFile();
+            File parent = file.getCanonicalFile().getParentFile();
+            while (parent != null && !parent.equals(contentFolder)) {
+                if (!FileUtil.directoryOnlyIfNotIgnored(parent, config)) {
+                    return false;
                 }
+                parent = parent.getParentFile();
             }
+            return parent != null;
+        } catch (IOException e) {
+            logger.warn("Unable to determine whether {} is a content file", file.getPath(), e);
+            return false;
         }
     }
 
-    private void crawlFile(File sourceFile) {
+    /**
+     * @param sourceFile a content file
+     * @return the source uri the document of the file is stored with
+     */
+    public String getSourceUri(File sourceFile) {
+        return buildURI(sourceFile);
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("Processing [").append(sourceFile.getPath()).append("]... ");
-        String sha1 = buildHash(sourceFile);
-        String uri = buildURI(sourceFile);
-        DocumentStatus status = findDocumentStatus(uri, sha1);
-        if (status == DocumentStatus.UPDATED) {
-            sb.append(" : modified ");
-            db.deleteContent(uri);
-        } else if (status == DocumentStatus.IDENTICAL) {
-            sb.append(" : same ");
-        } else if (DocumentStatus.NEW == status) {
-            sb.append(" : new ");
+    /**
+     * Write the fingerprints of the hashed source files, if enabled. Fingerprints of files which were not
+     * crawled are dropped if both the content and the data files were crawled since the previous save.
+     *
+     * @throws IOException if the fingerprint manifest cannot be written
+     */
+    public void saveFingerprints() throws IOException {
+        FingerprintManifest manifest = getFingerprintManifest();
+        if (manifest != null) {
+            if (contentCrawled && dataCrawled) {
+                manifest.pruneUnused();
+            }
+            manifest.save();
+        }
+        contentCrawled = false;
+        dataCrawled = false;
+    }
+
+    private synchronized FingerprintManifest getFingerprintManifest() {
+        if (fingerprints == null && config.getCrawlFingerprints()) {
+            fingerprints = FingerprintManifest.load(config.getFingerprintManifestFile());
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Crawl all content files.
+     * <p>
+     * The crawl runs as a pipeline: a walker thread goes through the content files in sorted order and submits
+     * every file to a pool of parser workers, handing the pending results over through a bounded queue. The calling
+     * thread is the only store writer. It consumes the results in walk order, so logging, error reporting and the
+     * store contents are the same regardless of the number of workers.
+     *
+     * @param sources the source files, the content folder is scanned by the walker thread if it was not yet
+     */
+    private void crawlContent(SourceInventory sources) {
+        final Map<String, DocumentModel> statuses = loadDocumentStatuses();
+        final int workers = Math.max(1, config.getCrawlThreads());
+        final ExecutorService parsers = Executors.newFixedThreadPool(workers, new CrawlerThreadFactory());
+        final BlockingQueue<Future<CrawlResult>> results = new ArrayBlockingQueue<>(workers * QUEUE_CAPACITY_PER_WORKER);
+        final Thread walker = new Thread(new Walker(sources, parsers, results, statuses), "jbake-crawl-walker");
+        walker.setDaemon(true);
+        walker.start();
+        try {
+            writeResults(results);
+        } finally {
+            walker.interrupt();
+            parsers.shutdownNow();
+        }
+    }
+
+    private Map<String, DocumentModel> loadDocumentStatuses() {
+        Map<String, DocumentModel> statuses = new HashMap<>();
+        for (DocumentModel document : db.getDocumentStatuses()) {
+            statuses.put(document.getSourceuri(), document);
+        }
+        return statuses;
+    }
+
+    private void writeResults(BlockingQueue<Future<CrawlResult>> results) {
+        StoreBatch batch = new StoreBatch();
+        try {
+            Future<CrawlResult> next;
+            while ((next = results.take()) != END_OF_WALK) {
+                write(getResult(next), batch);
+                if (batch.isFull()) {
+                    batch.flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JBakeException(SystemExit.ERROR, "Crawling was interrupted", e);
+        } finally {
+            batch.flush();
+        }
+    }
+
+    private void write(CrawlResult result, StoreBatch batch) {
+        if (result.status == DocumentStatus.UPDATED) {
+            batch.delete(result.uri);
+        }
+        logger.info("{}", result.describe());
+
+        if (result.document != null) {
+            batch.add(result.document);
+        } else if (result.warning != null) {
+            logger.warn(result.warning, result.file, result.documentType);
+        }
+    }
+
+    private CrawlResult getResult(Future<CrawlResult> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new JBakeException(SystemExit.ERROR, "Failed crawling content: " + cause.getMessage(), cause);
         }
+    }
 
-        logger.info("{}", sb);
+    /**
+     * Hashes, classifies and (if needed) parses a single content file. Runs on a parser worker, so it must not
+     * touch the content store.
+     */
+    private CrawlResult crawlFile(File sourceFile, Map<String, DocumentModel> statuses) {
+        CrawlResult result = new CrawlResult(sourceFile);
+        String sha1 = buildHash(sourceFile);
+        result.uri = buildURI(sourceFile);
+        result.status = findDocumentStatus(statuses.get(result.uri), sha1);
 
-        if (status != DocumentStatus.IDENTICAL) {
-            processSourceFile(sourceFile, sha1, uri);
+        if (result.status != DocumentStatus.IDENTICAL) {
+            processSourceFile(result, sha1);
         }
+        return result;
     }
 
     /**
-     * Crawl all files and folders looking for data files.
+     * Crawl data files.
+     * <p>
+     * The data files are hashed and, if they changed, parsed by a pool of parser workers. The calling thread
+     * writes the results to the store in the order of the files.
      *
-     * @param path Folder to start from
+     * @param dataFiles the data files in sorted order
      */
-    private void crawlDataFiles(File path) {
-        File[] contents = path.listFiles(FileUtil.getDataFileFilter());
-        if (contents != null) {
-            Arrays.sort(contents);
-            for (File sourceFile : contents) {
-                if (sourceFile.isFile()) {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append("Processing [").append(sourceFile.getPath()).append("]... ");
-                    String sha1 = buildHash(sourceFile);
-                    String uri = buildDataFileURI(sourceFile);
-                    boolean process = true;
-                    DocumentStatus status = DocumentStatus.NEW;
-                    String docType = config.getDataFileDocType();
-                    status = findDocumentStatus(uri, sha1);
-                    if (status == DocumentStatus.UPDATED) {
-                        sb.append(" : modified ");
-                        db.deleteContent(uri);
-                    } else if (status == DocumentStatus.IDENTICAL) {
-                        sb.append(" : same ");
-                        process = false;
-                    }
-                    if (!process) {
-                        break;
-                    }
-                    if (DocumentStatus.NEW == status) {
-                        sb.append(" : new ");
-                    }
-                    if (process) { // new or updated
-                        crawlDataFile(sourceFile, sha1, uri, docType);
+    private void crawlDataFiles(List<File> dataFiles) {
+        final Map<String, DocumentModel> statuses = loadDocumentStatuses();
+        final String docType = config.getDataFileDocType();
+        final int workers = Math.max(1, config.getCrawlThreads());
+        final ExecutorService parsers = Executors.newFixedThreadPool(workers, new CrawlerThreadFactory());
+        try {
+            List<Future<CrawlResult>> results = new ArrayList<>();
+            for (final File sourceFile : dataFiles) {
+                results.add(parsers.submit(new Callable<CrawlResult>() {
+                    @Override
+                    public CrawlResult call() {
+                        return crawlDataFile(sourceFile, statuses, docType);
                     }
-                    logger.info("{}", sb);
+                }));
+            }
+            for (Future<CrawlResult> next : results) {
+                CrawlResult result = getResult(next);
+                if (result.status == DocumentStatus.IDENTICAL) {
+                    logger.debug("{}", result.describe());
+                    continue;
                 }
-                if (sourceFile.isDirectory()) {
-                    crawlDataFiles(sourceFile);
+                if (result.status == DocumentStatus.UPDATED) {
+                    db.deleteContent(result.uri);
                 }
+                if (result.document != null) {
+                    db.addDocument(result.document);
+                } else {
+                    logger.warn("{} couldn't be parsed so it has been ignored!", result.file);
+                }
+                logger.info("{}", result.describe());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JBakeException(SystemExit.ERROR, "Crawling data files was interrupted", e);
+        } finally {
+            parsers.shutdownNow();
         }
     }
 
     private String buildHash(final File sourceFile) {
         String sha1;
+        String algorithm = config.getCrawlHashAlgorithm();
         try {
-            sha1 = FileUtil.sha1(sourceFile);
+            FingerprintManifest manifest = getFingerprintManifest();
+            sha1 = manifest != null ? manifest.getHash(sourceFile, algorithm) : FileUtil.hash(sourceFile, algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new JBakeException(SystemExit.CONFIGURATION_ERROR, "Unsupported hash algorithm: " + algorithm, e);
         } catch (Exception e) {
             logger.error("unable to build sha1 hash for source file '{}'", sourceFile);
             sha1 = "";
@@ -243,43 +431,55 @@ public class Crawler {
             && uri.startsWith(noExtensionUriPrefix);
     }
 
-    private void crawlDataFile(final File sourceFile, final String sha1, final String uri, final String documentType) {
+    /**
+     * Hashes and, if needed, parses a single data file. Runs on a parser worker, so it must not touch the content
+     * store.
+     */
+    private CrawlResult crawlDataFile(final File sourceFile, Map<String, DocumentModel> statuses, final String documentType) {
+        CrawlResult result = new CrawlResult(sourceFile);
+        String sha1 = buildHash(sourceFile);
+        result.uri = buildDataFileURI(sourceFile);
+        result.status = findDocumentStatus(statuses.get(result.uri), sha1);
+        if (result.status == DocumentStatus.IDENTICAL) {
+            return result;
+        }
         try {
             DocumentModel document = parser.processFile(sourceFile);
             if (document != null) {
                 document.setSha1(sha1);
                 document.setRendered(true);
                 document.setFile(sourceFile.getPath());
-                document.setSourceUri(uri);
+                document.setSourceUri(result.uri);
                 document.setType(documentType);
-
-                db.addDocument(document);
-            } else {
-                logger.warn("{} couldn't be parsed so it has been ignored!", sourceFile);
+                result.document = document;
             }
         } catch (Exception ex) {
             throw new RuntimeException("Failed crawling file: " + sourceFile.getPath() + " " + ex.getMessage(), ex);
         }
+        return result;
     }
 
-    private void processSourceFile(final File sourceFile, final String sha1, final String uri) {
-        DocumentModel document = parser.processFile(sourceFile);
+    private void processSourceFile(final CrawlResult result, final String sha1) {
+        final File sourceFile = result.file;
+        final boolean deferBody = config.getCrawlDeferBody();
+        // a deferred body is converted and fixed by the DeferredBodyLoader of the content store
+        DocumentModel document = deferBody ? parser.processHeader(sourceFile) : parser.processFile(sourceFile);
 
         if (document != null) {
             if (DocumentTypes.contains(document.getType())) {
-                addAdditionalDocumentAttributes(document, sourceFile, sha1, uri);
+                addAdditionalDocumentAttributes(document, sourceFile, sha1, result.uri);
 
-                if (config.getImgPathUpdate()) {
-                    // Prevent image source url's from breaking
-                    HtmlUtil.fixImageSourceUrls(document, config);
+                if (!deferBody) {
+                    processors.process(document, config);
                 }
 
-                db.addDocument(document);
+                result.document = document;
             } else {
-                logger.warn("{} has an unknown document type '{}' and has been ignored!", sourceFile, document.getType());
+                result.warning = "{} has an unknown document type '{}' and has been ignored!";
+                result.documentType = document.getType();
             }
         } else {
-            logger.warn("{} has an invalid header, it has been ignored!", sourceFile);
+            result.warning = "{} has an invalid header, it has been ignored!";
         }
     }
 
@@ -307,12 +507,14 @@ public class Crawler {
         return FileUtil.getUriPathToContentRoot(config, sourceFile);
     }
 
-    private DocumentStatus findDocumentStatus(String uri, String sha1) {
-        DocumentList<DocumentModel> match = db.getDocumentStatus(uri);
-        if (!match.isEmpty()) {
-            DocumentModel document = match.get(0);
+    /**
+     * A document whose source file did not change is identical, even if it is not rendered yet, e.g. because
+     * one of its templates changed. It stays in the store as it is and is rendered again without being parsed.
+     */
+    private DocumentStatus findDocumentStatus(DocumentModel document, String sha1) {
+        if (document != null) {
             String oldHash = document.getSha1();
-            if (!oldHash.equals(sha1) || !document.getRendered()) {
+            if (!oldHash.equals(sha1)) {
                 return DocumentStatus.UPDATED;
             } else {
                 return DocumentStatus.IDENTICAL;
@@ -322,4 +524,125 @@ public class Crawler {
         }
     }
 
+    /**
+     * Goes through the content files in sorted order and submits every file to the parser workers.
+     * The pending results are queued in walk order; the bounded queue throttles the walk if the store writer
+     * falls behind.
+     */
+    private class Walker implements Runnable {
+        private final SourceInventory sources;
+        private final ExecutorService parsers;
+        private final BlockingQueue<Future<CrawlResult>> results;
+        private final Map<String, DocumentModel> statuses;
+
+        Walker(SourceInventory sources, ExecutorService parsers, BlockingQueue<Future<CrawlResult>> results, Map<String, DocumentModel> statuses) {
+            this.sources = sources;
+            this.parsers = parsers;
+            this.results = results;
+            this.statuses = statuses;
+        }
+
+        @Override
+        public void run() {
+            try {
+                try {
+                    walk();
+                } catch (RuntimeException e) {
+                    CompletableFuture<CrawlResult> failure = new CompletableFuture<>();
+                    failure.completeExceptionally(e);
+                    results.put(failure);
+                }
+                results.put(END_OF_WALK);
+            } catch (InterruptedException e) {
+                // the store writer gave up, nothing left to hand over
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void walk() throws InterruptedException {
+            for (final File sourceFile : sources.getContentFiles()) {
+                results.put(parsers.submit(new Callable<CrawlResult>() {
+                    @Override
+                    public CrawlResult call() {
+                        return crawlFile(sourceFile, statuses);
+                    }
+                }));
+            }
+        }
+    }
+
+    /**
+     * Outcome of crawling a single content file, handed from a parser worker to the store writer.
+     */
+    private static class CrawlResult {
+        private final File file;
+        private String uri;
+        private DocumentStatus status;
+        private DocumentModel document;
+        private String warning;
+        private String documentType;
+
+        CrawlResult(File file) {
+            this.file = file;
+        }
+
+        String describe() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Processing [").append(file.getPath()).append("]... ");
+            if (status == DocumentStatus.UPDATED) {
+                sb.append(" : modified ");
+            } else if (status == DocumentStatus.IDENTICAL) {
+                sb.append(" : same ");
+            } else if (DocumentStatus.NEW == status) {
+                sb.append(" : new ");
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Collects the store modifications of the crawl, so they can be written in batches of
+     * {@link ContentStore#getBatchSize()} documents. Outdated documents are deleted before the new versions
+     * are added.
+     */
+    private class StoreBatch {
+        private final int size = db.getBatchSize();
+        private final List<String> deletes = new ArrayList<>();
+        private final List<DocumentModel> inserts = new ArrayList<>();
+
+        void delete(String uri) {
+            deletes.add(uri);
+        }
+
+        void add(DocumentModel document) {
+            inserts.add(document);
+        }
+
+        boolean isFull() {
+            return deletes.size() + inserts.size() >= size;
+        }
+
+        void flush() {
+            if (!deletes.isEmpty()) {
+                db.deleteDocuments(deletes);
+                deletes.clear();
+            }
+            if (!inserts.isEmpty()) {
+                db.addDocuments(inserts);
+                inserts.clear();
+            }
+        }
+    }
+
+    private static class CrawlerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "jbake-crawler-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
 }
@@ -1,12 +1,10 @@
 package org.jbake.app;
 
-import com.orientechnologies.orient.core.db.record.OTrackedList;
-import com.orientechnologies.orient.core.record.OElement;
 import com.orientechnologies.orient.core.sql.executor.OResult;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.model.DocumentModel;
 
-import java.util.ArrayList;
+import java.util.Collection;
 
 public class DBUtil {
     private static ContentStore contentStore;
@@ -14,7 +12,7 @@ public class DBUtil {
     @Deprecated
     public static ContentStore createDataStore(final String type, String name) {
         if (contentStore == null) {
-            contentStore = new ContentStore(type, name);
+            contentStore = newContentStore(type, name);
         }
         return contentStore;
     }
@@ -26,27 +24,41 @@ public class DBUtil {
 
     public static ContentStore createDataStore(JBakeConfiguration configuration) {
         if (contentStore == null) {
-            contentStore = new ContentStore(configuration.getDatabaseStore(), configuration.getDatabasePath());
+            contentStore = newContentStore(configuration.getDatabaseStore(), configuration.getDatabasePath());
+            contentStore.setBatchSize(configuration.getDatabaseBatchSize());
         }
 
         return contentStore;
     }
 
+    /**
+     * The {@code memory} store is kept in plain Java collections, every other store type is handled by OrientDB.
+     */
+    private static ContentStore newContentStore(final String type, String name) {
+        if (InMemoryContentStore.TYPE.equalsIgnoreCase(type)) {
+            return new InMemoryContentStore();
+        }
+        return new OrientContentStore(type, name);
+    }
+
     public static void closeDataStore() {
         contentStore = null;
     }
 
+    /**
+     * @param doc an OrientDB query result
+     * @return the document of the result
+     * @deprecated OrientDB specific, only the OrientDB content store converts its results. OrientDB is only
+     * resolved when this method is called, so the in-memory store runs without it.
+     */
+    @Deprecated
     public static DocumentModel documentToModel(OResult doc) {
-        DocumentModel result = new DocumentModel();
-
-        for (String key : doc.getPropertyNames()) {
-            result.put(key, doc.getProperty(key));
-        }
-        return result;
+        return OrientContentStore.documentToModel(doc);
     }
 
     /**
-     * Converts a DB list into a String array
+     * Converts a DB list into a String array. Lists of the OrientDB store are plain collections, so OrientDB
+     * does not need to be on the class path.
      *
      * @param entry Entry input to be converted
      * @return input entry as String[]
@@ -55,11 +67,8 @@ public class DBUtil {
     public static String[] toStringArray(Object entry) {
         if (entry instanceof String[]) {
             return (String[]) entry;
-        } else if (entry instanceof OTrackedList) {
-            OTrackedList<String> list = (OTrackedList<String>) entry;
-            return list.toArray(new String[list.size()]);
-        } else if (entry instanceof ArrayList) {
-            ArrayList<String> list = (ArrayList<String>) entry;
+        } else if (entry instanceof Collection) {
+            Collection<String> list = (Collection<String>) entry;
             return list.toArray(new String[list.size()]);
         }
         return new String[0];
@@ -0,0 +1,72 @@
+package org.jbake.app;
+
+import org.jbake.model.DocumentModel;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only index of the data files by their source uri, built with a single query.
+ *
+ * <p>Templates look up the same data files for every page they render, the index answers these lookups from
+ * memory instead of querying the store every time. A uri which is stored more than once is left out, so its
+ * lookup falls back to the store. The index can be shared between rendering threads, the data files it returns
+ * are shared as well, so they are read-only views.</p>
+ *
+ * @see ContentStore#getDataFileIndex(String)
+ */
+public final class DataFileIndex {
+
+    private final String docType;
+    private final Map<String, Map<String, Object>> documents;
+
+    private DataFileIndex(String docType, Map<String, Map<String, Object>> documents) {
+        this.docType = docType;
+        this.documents = Collections.unmodifiableMap(documents);
+    }
+
+    /**
+     * Index the data files of the store.
+     *
+     * @param db      the content store to query
+     * @param docType the document type of data files
+     * @return the data file index
+     */
+    public static DataFileIndex build(ContentStore db, String docType) {
+        Map<String, Map<String, Object>> documents = new HashMap<>();
+        Set<String> duplicates = new HashSet<>();
+        for (DocumentModel document : db.getAllContent(docType)) {
+            if (documents.put(document.getSourceuri(), Collections.unmodifiableMap(document)) != null) {
+                duplicates.add(document.getSourceuri());
+            }
+        }
+        documents.keySet().removeAll(duplicates);
+        return new DataFileIndex(docType, documents);
+    }
+
+    /**
+     * @param docType the document type of data files
+     * @return true if the index was built for the document type
+     */
+    public boolean isFor(String docType) {
+        return this.docType.equals(docType);
+    }
+
+    /**
+     * @param uri the source uri of a data file, relative to the data folder
+     * @return a read-only view of the data file, or null if it is not indexed
+     */
+    public Map<String, Object> get(String uri) {
+        return documents.get(uri);
+    }
+
+    /**
+     * @return the number of indexed data files
+     */
+    public int size() {
+        return documents.size();
+    }
+}
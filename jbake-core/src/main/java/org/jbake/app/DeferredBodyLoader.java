@@ -0,0 +1,138 @@
+package org.jbake.app;
+
+import org.jbake.app.configuration.JBakeConfiguration;
+import org.jbake.model.DocumentModel;
+import org.jbake.model.LazyDocumentModel;
+import org.jbake.model.ModelAttributes;
+import org.jbake.processor.DocumentProcessors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Converts the body of a document which was crawled without body, see
+ * {@link org.jbake.app.configuration.JBakeConfiguration#getCrawlDeferBody()}.
+ *
+ * <p>The body is converted from the source file of the document the first time it is accessed, usually on the
+ * rendering thread of the document, so the bodies of several documents are converted in parallel. The converted
+ * body is kept per source uri and hash until the document is rendered, see {@link #release(DocumentModel)}, so a
+ * document is converted only once, even if several threads access it at the same time.</p>
+ */
+public class DeferredBodyLoader implements LazyDocumentModel.PropertyLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeferredBodyLoader.class);
+
+    private final JBakeConfiguration config;
+    private final Parser parser;
+    private final DocumentProcessors processors;
+    private final Map<String, Conversion> conversions = new ConcurrentHashMap<>();
+
+    public DeferredBodyLoader(JBakeConfiguration config) {
+        this.config = config;
+        this.parser = new Parser(config);
+        this.processors = DocumentProcessors.load();
+    }
+
+    @Override
+    public Map<String, Object> load(DocumentModel document) {
+        String sourceUri = document.getSourceuri();
+        if (sourceUri == null || document.getFile() == null || config.getDataFileDocType().equals(document.getType())) {
+            return Collections.emptyMap();
+        }
+
+        Conversion conversion = new Conversion(document);
+        Conversion existing = conversions.putIfAbsent(sourceUri, conversion);
+        while (existing != null && !existing.isFor(document)) {
+            // the source file changed since the body was converted
+            if (conversions.replace(sourceUri, existing, conversion)) {
+                existing = null;
+            } else {
+                existing = conversions.putIfAbsent(sourceUri, conversion);
+            }
+        }
+        if (existing != null) {
+            conversion = existing;
+        }
+        conversion.task.run();
+
+        String body;
+        try {
+            body = conversion.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            body = null;
+        } catch (ExecutionException e) {
+            LOGGER.error("Failed converting the body of {}", document.getFile(), e.getCause());
+            conversions.remove(sourceUri, conversion);
+            body = null;
+        }
+        return body != null ? Collections.<String, Object>singletonMap(ModelAttributes.BODY, body) : Collections.<String, Object>emptyMap();
+    }
+
+    /**
+     * Drop the converted body of a document once it is rendered. A listing rendered afterwards converts it again.
+     *
+     * @param document the rendered document
+     */
+    public void release(DocumentModel document) {
+        String sourceUri = document.getSourceuri();
+        if (sourceUri == null) {
+            return;
+        }
+        Conversion conversion = conversions.get(sourceUri);
+        if (conversion != null && conversion.isFor(document)) {
+            conversions.remove(sourceUri, conversion);
+        }
+    }
+
+    /**
+     * Drop the converted bodies, e.g. when the stored documents are dropped or all documents are rendered.
+     */
+    public void clear() {
+        conversions.clear();
+    }
+
+    private String convert(String file, String uri, String noExtensionUri) {
+        DocumentModel parsed = parser.processFile(new File(file));
+        if (parsed == null || parsed.getBody() == null) {
+            LOGGER.warn("{} couldn't be parsed, it has no body", file);
+            return null;
+        }
+        parsed.setUri(uri);
+        parsed.setNoExtensionUri(noExtensionUri);
+        processors.process(parsed, config);
+        return parsed.getBody();
+    }
+
+    /**
+     * The conversion of the body of a document version, run by the first thread accessing it.
+     */
+    private final class Conversion {
+        private final String sha1;
+        private final FutureTask<String> task;
+
+        Conversion(DocumentModel document) {
+            final String file = document.getFile();
+            final String uri = document.getUri();
+            final String noExtensionUri = document.getNoExtensionUri();
+            this.sha1 = document.getSha1();
+            this.task = new FutureTask<>(new Callable<String>() {
+                @Override
+                public String call() {
+                    return convert(file, uri, noExtensionUri);
+                }
+            });
+        }
+
+        boolean isFor(DocumentModel document) {
+            return sha1 != null && sha1.equals(document.getSha1());
+        }
+    }
+}
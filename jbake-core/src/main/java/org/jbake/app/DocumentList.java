@@ -1,27 +1,209 @@
 package org.jbake.app;
 
-import com.orientechnologies.orient.core.sql.executor.OResult;
-import com.orientechnologies.orient.core.sql.executor.OResultSet;
-import org.jbake.model.DocumentModel;
-
-import java.util.LinkedList;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 
 /**
- * Wraps an OrientDB document iterator into a model usable by
- * template engines.
+ * The documents of a query, in a model usable by template engines. The list does not depend on the content
+ * store, the OrientDB store builds it with {@link OrientContentStore#wrap}.
+ *
+ * <p>The list supports constant time random access, as templates often address documents by index.
+ * Large query results are returned as a {@link PagedDocumentList} which fetches its documents on demand.</p>
+ *
+ * <p>The list used to extend {@link java.util.LinkedList}. It still implements the {@link List} and {@link Deque}
+ * methods of a linked list, e.g. {@code getFirst()}, {@code peek()} or {@code push(e)}, so templates and plugins
+ * calling them keep working. Only code which assigns a document list to a {@code LinkedList} has to use
+ * {@code List}, {@code Deque} or {@code DocumentList} instead.</p>
  *
  * @author Cédric Champeau
  */
-public class DocumentList<T> extends LinkedList<T> {
+public class DocumentList<T> extends AbstractList<T> implements Deque<T>, RandomAccess {
+
+    private final List<T> elements = new ArrayList<>();
+
+    /**
+     * @return a shallow copy of the list, which can be modified without affecting this list
+     */
+    public DocumentList<T> copy() {
+        DocumentList<T> copy = new DocumentList<>();
+        copy.elements.addAll(this);
+        return copy;
+    }
+
+    @Override
+    public T get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public T set(int index, T element) {
+        return elements.set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        modCount++;
+        elements.add(index, element);
+    }
+
+    @Override
+    public T remove(int index) {
+        modCount++;
+        return elements.remove(index);
+    }
 
-    public static DocumentList<DocumentModel> wrap(OResultSet docs) {
-        DocumentList<DocumentModel> list = new DocumentList<>();
-        while (docs.hasNext()) {
-            OResult next = docs.next();
-            list.add(DBUtil.documentToModel(next));
+    @Override
+    public void addFirst(T element) {
+        add(0, element);
+    }
+
+    @Override
+    public void addLast(T element) {
+        add(element);
+    }
+
+    @Override
+    public boolean offerFirst(T element) {
+        addFirst(element);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(T element) {
+        return add(element);
+    }
+
+    @Override
+    public T removeFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
         }
-        docs.close();
-        return list;
+        return remove(0);
     }
 
+    @Override
+    public T removeLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return remove(size() - 1);
+    }
+
+    @Override
+    public T pollFirst() {
+        return isEmpty() ? null : remove(0);
+    }
+
+    @Override
+    public T pollLast() {
+        return isEmpty() ? null : remove(size() - 1);
+    }
+
+    @Override
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(0);
+    }
+
+    @Override
+    public T getLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return get(size() - 1);
+    }
+
+    @Override
+    public T peekFirst() {
+        return isEmpty() ? null : get(0);
+    }
+
+    @Override
+    public T peekLast() {
+        return isEmpty() ? null : get(size() - 1);
+    }
+
+    @Override
+    public boolean removeFirstOccurrence(Object element) {
+        return remove(element);
+    }
+
+    @Override
+    public boolean removeLastOccurrence(Object element) {
+        int index = lastIndexOf(element);
+        if (index < 0) {
+            return false;
+        }
+        remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean offer(T element) {
+        return add(element);
+    }
+
+    @Override
+    public T remove() {
+        return removeFirst();
+    }
+
+    @Override
+    public T poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public T element() {
+        return getFirst();
+    }
+
+    @Override
+    public T peek() {
+        return peekFirst();
+    }
+
+    @Override
+    public void push(T element) {
+        addFirst(element);
+    }
+
+    @Override
+    public T pop() {
+        return removeFirst();
+    }
+
+    @Override
+    public Iterator<T> descendingIterator() {
+        final ListIterator<T> iterator = listIterator(size());
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasPrevious();
+            }
+
+            @Override
+            public T next() {
+                return iterator.previous();
+            }
+
+            @Override
+            public void remove() {
+                iterator.remove();
+            }
+        };
+    }
 }
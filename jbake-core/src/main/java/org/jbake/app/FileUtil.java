@@ -13,6 +13,7 @@ import java.net.URLDecoder;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 /**
  * Provides File related functions
@@ -23,6 +24,14 @@ public class FileUtil {
 
     public static final String URI_SEPARATOR_CHAR = "/";
 
+    /**
+     * Name of the fast, non-cryptographic checksum accepted by {@link #hash(File, String)}.
+     */
+    public static final String CRC32 = "CRC32";
+
+    private static final int HASH_BUFFER_SIZE = 8192;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     /**
      * Filters files based on their file extension.
      *
@@ -213,15 +222,35 @@ public class FileUtil {
      * @throws Exception if any IOException of SecurityException occured
      */
     public static String sha1(File sourceFile) throws Exception {
-        byte[] buffer = new byte[1024];
-        MessageDigest complete = MessageDigest.getInstance("SHA-1");
-        updateDigest(complete, sourceFile, buffer);
-        byte[] bytes = complete.digest();
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
+        return hash(sourceFile, "SHA-1");
+    }
+
+    /**
+     * Computes the hash of a file or directory with the given algorithm.
+     *
+     * @param sourceFile the original file or directory
+     * @param algorithm  a {@link MessageDigest} algorithm like SHA-1 or MD5, or {@link #CRC32}
+     * @return an hex string representing the hash of the file or directory.
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     * @throws Exception                if any IOException of SecurityException occured
+     */
+    public static String hash(File sourceFile, String algorithm) throws Exception {
+        MessageDigest digest = CRC32.equalsIgnoreCase(algorithm) ? new Crc32Digest() : MessageDigest.getInstance(algorithm);
+        updateDigest(digest, sourceFile, new byte[HASH_BUFFER_SIZE]);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @param bytes bytes to format, e.g. a digest
+     * @return the bytes as a lower case hexadecimal string
+     */
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xf];
         }
-        return sb.toString();
+        return new String(chars);
     }
 
     private static void updateDigest(final MessageDigest digest, final File sourceFile, final byte[] buffer) throws IOException {
@@ -330,4 +359,37 @@ public class FileUtil {
              && directory.isDirectory()
              && file.getCanonicalPath().startsWith(directory.getCanonicalPath()));
     }
+
+    /**
+     * Exposes {@link java.util.zip.CRC32} as a message digest, so files are hashed the same way with any algorithm.
+     */
+    private static final class Crc32Digest extends MessageDigest {
+        private final java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+
+        Crc32Digest() {
+            super(CRC32);
+        }
+
+        @Override
+        protected void engineUpdate(byte input) {
+            crc.update(input);
+        }
+
+        @Override
+        protected void engineUpdate(byte[] input, int offset, int len) {
+            crc.update(input, offset, len);
+        }
+
+        @Override
+        protected byte[] engineDigest() {
+            long value = crc.getValue();
+            crc.reset();
+            return new byte[]{(byte) (value >> 24), (byte) (value >> 16), (byte) (value >> 8), (byte) value};
+        }
+
+        @Override
+        protected void engineReset() {
+            crc.reset();
+        }
+    }
 }
@@ -0,0 +1,183 @@
+package org.jbake.app;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persisted fingerprints of the source files hashed by the previous bakes, keyed by their absolute path.
+ *
+ * <p>A fingerprint combines the size, the modification time and the file key (e.g. the inode) of a file with
+ * the algorithm and the resulting hash. As long as the cheap file attributes do not change, the stored hash
+ * is reused instead of reading the whole file again.</p>
+ *
+ * <p>The manifest can be read and updated by several crawler threads.</p>
+ */
+public class FingerprintManifest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FingerprintManifest.class);
+
+    private final File file;
+    private final Map<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final Set<String> used = ConcurrentHashMap.newKeySet();
+    private volatile boolean modified;
+
+    private FingerprintManifest(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Load a manifest. A missing or unreadable manifest file results in an empty manifest.
+     *
+     * @param file the manifest file
+     * @return the manifest
+     */
+    public static FingerprintManifest load(File file) {
+        FingerprintManifest manifest = new FingerprintManifest(file);
+        if (file.isFile()) {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+                for (String path : properties.stringPropertyNames()) {
+                    Fingerprint fingerprint = Fingerprint.parse(properties.getProperty(path));
+                    if (fingerprint != null) {
+                        manifest.fingerprints.put(path, fingerprint);
+                    }
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Ignoring unreadable fingerprint manifest {}", file, e);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * Get the hash of a file, computing it only if the file changed since it was hashed the last time.
+     *
+     * @param sourceFile the file to hash
+     * @param algorithm  the hash algorithm, see {@link FileUtil#hash(File, String)}
+     * @return the hash of the file
+     * @throws Exception if the file cannot be read or the algorithm is not supported
+     */
+    public String getHash(File sourceFile, String algorithm) throws Exception {
+        String path = sourceFile.getAbsolutePath();
+        BasicFileAttributes attributes = Files.readAttributes(sourceFile.toPath(), BasicFileAttributes.class);
+        Fingerprint current = new Fingerprint(attributes.size(), attributes.lastModifiedTime().toMillis(),
+            attributes.fileKey() != null ? attributes.fileKey().toString() : "", algorithm, null);
+        used.add(path);
+
+        Fingerprint stored = fingerprints.get(path);
+        if (stored != null && stored.matches(current)) {
+            return stored.hash;
+        }
+        String hash = FileUtil.hash(sourceFile, algorithm);
+        fingerprints.put(path, current.withHash(hash));
+        modified = true;
+        return hash;
+    }
+
+    /**
+     * @param sourceFile a file which was deleted
+     */
+    public void remove(File sourceFile) {
+        if (fingerprints.remove(sourceFile.getAbsolutePath()) != null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Drop the fingerprints of all files which were not hashed since the manifest was loaded or last pruned,
+     * e.g. after crawling all source files.
+     */
+    public void pruneUnused() {
+        if (fingerprints.keySet().retainAll(used)) {
+            modified = true;
+        }
+        used.clear();
+    }
+
+    /**
+     * Write the manifest file, if any fingerprint changed since it was loaded.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+        Properties properties = new Properties();
+        for (Map.Entry<String, Fingerprint> entry : fingerprints.entrySet()) {
+            properties.setProperty(entry.getKey(), entry.getValue().format());
+        }
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Unable to create folder " + folder);
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Fingerprints of the source files");
+        }
+        modified = false;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    private static final class Fingerprint {
+        private static final String SEPARATOR = "|";
+
+        private final long size;
+        private final long lastModified;
+        private final String fileKey;
+        private final String algorithm;
+        private final String hash;
+
+        Fingerprint(long size, long lastModified, String fileKey, String algorithm, String hash) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.fileKey = fileKey;
+            this.algorithm = algorithm;
+            this.hash = hash;
+        }
+
+        static Fingerprint parse(String value) {
+            // the file key is last, it is platform specific and may contain the separator
+            String[] fields = value.split("\\|", 5);
+            if (fields.length != 5) {
+                return null;
+            }
+            try {
+                return new Fingerprint(Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[4], fields[2], fields[3]);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        String format() {
+            return size + SEPARATOR + lastModified + SEPARATOR + algorithm + SEPARATOR + hash + SEPARATOR + fileKey;
+        }
+
+        boolean matches(Fingerprint other) {
+            return size == other.size
+                && lastModified == other.lastModified
+                && fileKey.equals(other.fileKey)
+                && algorithm.equalsIgnoreCase(other.algorithm);
+        }
+
+        Fingerprint withHash(String hash) {
+            return new Fingerprint(size, lastModified, fileKey, algorithm, hash);
+        }
+    }
+}
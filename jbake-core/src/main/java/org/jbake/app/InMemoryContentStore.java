@@ -0,0 +1,623 @@
+package org.jbake.app;
+
+import org.jbake.model.DocumentModel;
+import org.jbake.model.DocumentTypes;
+import org.jbake.model.ModelAttributes;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link ContentStore} keeping all documents in plain Java collections. Used for the {@code memory} store,
+ * which starts instantly and does not keep any documents between bakes.
+ *
+ * <p>Documents are indexed by source uri, type, status and tag. The documents of every type are kept in a
+ * list ordered by date with the newest document first, which is re-sorted lazily after modifications.
+ * Queries run concurrently, modifications are exclusive. Query results are snapshots of the matching documents,
+ * which are copied page by page when they are accessed.</p>
+ */
+public class InMemoryContentStore extends AbstractContentStore {
+
+    public static final String TYPE = "memory";
+
+    private static final Comparator<StoredDocument> NEWEST_FIRST = new Comparator<StoredDocument>() {
+        @Override
+        public int compare(StoredDocument first, StoredDocument second) {
+            Date firstDate = first.document.getDate();
+            Date secondDate = second.document.getDate();
+            if (firstDate != null && secondDate != null) {
+                int result = secondDate.compareTo(firstDate);
+                if (result != 0) {
+                    return result;
+                }
+            } else if (firstDate != null || secondDate != null) {
+                // undated documents go last
+                return firstDate == null ? 1 : -1;
+            }
+            // keep the insertion order for documents with the same date
+            return Long.compare(first.sequence, second.sequence);
+        }
+    };
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, StoredDocument> documentsBySourceUri = new HashMap<>();
+    private final Map<String, List<StoredDocument>> documentsByType = new HashMap<>();
+    private final Map<String, Set<StoredDocument>> documentsByStatus = new HashMap<>();
+    private final Map<String, Set<StoredDocument>> documentsByTag = new HashMap<>();
+    private volatile boolean sorted = true;
+    private long sequence;
+    private String templatesSignature;
+    private boolean active;
+
+    @Override
+    public void startup() {
+        active = true;
+    }
+
+    @Override
+    public void updateSchema() {
+        // schemaless, nothing to do
+    }
+
+    @Override
+    public void close() {
+        drop();
+        active = false;
+        DBUtil.closeDataStore();
+    }
+
+    @Override
+    public void shutdown() {
+        // nothing to release
+    }
+
+    @Override
+    public void drop() {
+        lock.writeLock().lock();
+        try {
+            documentsBySourceUri.clear();
+            documentsByType.clear();
+            documentsByStatus.clear();
+            documentsByTag.clear();
+            templatesSignature = null;
+            sorted = true;
+            modified();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isActive() {
+        return active;
+    }
+
+    @Override
+    public long getDocumentCount(String docType) {
+        Lock readLock = lockForReading();
+        try {
+            return typed(docType).size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public long getPublishedCount(String docType) {
+        Lock readLock = lockForReading();
+        try {
+            long count = 0;
+            for (StoredDocument stored : typed(docType)) {
+                if (stored.isPublished()) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getDocumentByUri(String uri) {
+        Lock readLock = lockForReading();
+        try {
+            DocumentList<DocumentModel> result = new DocumentList<>();
+            StoredDocument stored = documentsBySourceUri.get(uri);
+            if (stored != null) {
+                result.add(copyWithDeferredBody(stored.document));
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getDocumentStatus(String uri) {
+        Lock readLock = lockForReading();
+        try {
+            DocumentList<DocumentModel> result = new DocumentList<>();
+            StoredDocument stored = documentsBySourceUri.get(uri);
+            if (stored != null) {
+                result.add(status(stored.document, false));
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getDocumentStatuses() {
+        Lock readLock = lockForReading();
+        try {
+            DocumentList<DocumentModel> result = new DocumentList<>();
+            for (StoredDocument stored : documentsBySourceUri.values()) {
+                result.add(status(stored.document, true));
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getPublishedPostsByTag(String tag) {
+        Lock readLock = lockForReading();
+        try {
+            List<StoredDocument> matches = new ArrayList<>();
+            for (StoredDocument stored : tagged(tag)) {
+                if (stored.isPublished() && "post".equals(stored.document.getType())) {
+                    matches.add(stored);
+                }
+            }
+            return sortedCopies(matches);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getPublishedDocumentsByTag(String tag) {
+        Lock readLock = lockForReading();
+        try {
+            Map<String, List<StoredDocument>> matchesByType = new HashMap<>();
+            for (StoredDocument stored : tagged(tag)) {
+                if (stored.isPublished()) {
+                    String docType = stored.document.getType();
+                    List<StoredDocument> matches = matchesByType.get(docType);
+                    if (matches == null) {
+                        matches = new ArrayList<>();
+                        matchesByType.put(docType, matches);
+                    }
+                    matches.add(stored);
+                }
+            }
+
+            final DocumentList<DocumentModel> documents = new DocumentList<>();
+            for (final String docType : DocumentTypes.getDocumentTypes()) {
+                List<StoredDocument> matches = matchesByType.get(docType);
+                if (matches != null) {
+                    documents.addAll(sortedCopies(matches));
+                }
+            }
+            return documents;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    protected DocumentList<DocumentModel> getPublishedContent(String docType, boolean applyPaging) {
+        Lock readLock = lockForReading();
+        try {
+            List<StoredDocument> published = new ArrayList<>();
+            for (StoredDocument stored : typed(docType)) {
+                if (stored.isPublished()) {
+                    published.add(stored);
+                }
+            }
+            return copies(published, applyPaging);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getAllContent(String docType, boolean applyPaging) {
+        Lock readLock = lockForReading();
+        try {
+            return copies(typed(docType), applyPaging);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getUnrenderedContent() {
+        Lock readLock = lockForReading();
+        try {
+            List<StoredDocument> unrendered = new ArrayList<>();
+            for (StoredDocument stored : documentsBySourceUri.values()) {
+                if (!stored.document.getRendered()) {
+                    unrendered.add(stored);
+                }
+            }
+            return sortedCopies(unrendered);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<String> getTags() {
+        Lock readLock = lockForReading();
+        try {
+            Set<String> result = new HashSet<>();
+            for (StoredDocument stored : published()) {
+                if ("post".equals(stored.document.getType())) {
+                    Collections.addAll(result, stored.document.getTags());
+                }
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public Set<String> getAllTags() {
+        Lock readLock = lockForReading();
+        try {
+            Set<String> result = new HashSet<>();
+            for (StoredDocument stored : published()) {
+                if (DocumentTypes.contains(stored.document.getType())) {
+                    Collections.addAll(result, stored.document.getTags());
+                }
+            }
+            return result;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Stores a copy of the document. A document with the same source uri is replaced.
+     */
+    @Override
+    public void addDocument(DocumentModel document) {
+        lock.writeLock().lock();
+        try {
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void addDocuments(Collection<DocumentModel> documents) {
+        Iterator<DocumentModel> pending = documents.iterator();
+        while (pending.hasNext()) {
+            List<DocumentModel> batch = nextBatch(pending);
+            lock.writeLock().lock();
+            try {
+                for (DocumentModel document : batch) {
+                    add(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void deleteContent(String uri) {
+        lock.writeLock().lock();
+        try {
+            delete(uri);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void deleteDocuments(Collection<String> uris) {
+        Iterator<String> pending = uris.iterator();
+        while (pending.hasNext()) {
+            List<String> batch = nextBatch(pending);
+            lock.writeLock().lock();
+            try {
+                for (String uri : batch) {
+                    delete(uri);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    public void deleteAllByDocType(String docType) {
+        lock.writeLock().lock();
+        try {
+            for (StoredDocument stored : new ArrayList<>(typed(docType))) {
+                remove(stored);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void markContentAsRendered(DocumentModel document) {
+        lock.writeLock().lock();
+        try {
+            markAsRendered(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        releaseDeferredBodies(Collections.singletonList(document));
+    }
+
+    @Override
+    public void markDocumentsAsRendered(Collection<DocumentModel> documents) {
+        Iterator<DocumentModel> pending = documents.iterator();
+        while (pending.hasNext()) {
+            List<DocumentModel> batch = nextBatch(pending);
+            lock.writeLock().lock();
+            try {
+                for (DocumentModel document : batch) {
+                    markAsRendered(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        releaseDeferredBodies(documents);
+    }
+
+    @Override
+    public void markDocumentsAsUnrendered(Collection<String> uris) {
+        Iterator<String> pending = uris.iterator();
+        while (pending.hasNext()) {
+            List<String> batch = nextBatch(pending);
+            lock.writeLock().lock();
+            try {
+                for (String uri : batch) {
+                    markAsUnrendered(uri);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @Override
+    protected String getTemplatesSignature() {
+        return templatesSignature;
+    }
+
+    @Override
+    protected void insertTemplatesSignature(String currentTemplatesSignature) {
+        templatesSignature = currentTemplatesSignature;
+    }
+
+    @Override
+    protected void updateTemplatesSignature(String currentTemplatesSignature) {
+        templatesSignature = currentTemplatesSignature;
+    }
+
+    /**
+     * Take the read lock, after sorting the per-type lists if they were modified.
+     */
+    private Lock lockForReading() {
+        while (true) {
+            if (!sorted) {
+                lock.writeLock().lock();
+                try {
+                    if (!sorted) {
+                        for (List<StoredDocument> documents : documentsByType.values()) {
+                            Collections.sort(documents, NEWEST_FIRST);
+                        }
+                        sorted = true;
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+            Lock readLock = lock.readLock();
+            readLock.lock();
+            if (sorted) {
+                return readLock;
+            }
+            readLock.unlock();
+        }
+    }
+
+    private void add(DocumentModel document) {
+        StoredDocument existing = documentsBySourceUri.get(document.getSourceuri());
+        if (existing != null) {
+            remove(existing);
+        }
+
+        StoredDocument stored = new StoredDocument(copy(document), sequence++);
+        documentsBySourceUri.put(document.getSourceuri(), stored);
+        listIndex(documentsByType, stored.document.getType()).add(stored);
+        setIndex(documentsByStatus, stored.document.getStatus()).add(stored);
+        for (String tag : stored.document.getTags()) {
+            setIndex(documentsByTag, tag).add(stored);
+        }
+        sorted = false;
+        modified();
+    }
+
+    private void delete(String uri) {
+        StoredDocument stored = documentsBySourceUri.get(uri);
+        if (stored != null) {
+            remove(stored);
+        }
+    }
+
+    private void markAsRendered(DocumentModel document) {
+        StoredDocument stored = documentsBySourceUri.get(document.getSourceuri());
+        if (stored != null
+            && Objects.equals(stored.document.getType(), document.getType())
+            && !stored.document.getRendered()
+            && Boolean.TRUE.equals(stored.document.getCached())) {
+            stored.document.setRendered(true);
+            modified();
+        }
+    }
+
+    private void markAsUnrendered(String uri) {
+        StoredDocument stored = documentsBySourceUri.get(uri);
+        if (stored != null && Boolean.TRUE.equals(stored.document.getRendered())) {
+            stored.document.setRendered(false);
+            modified();
+        }
+    }
+
+    private void remove(StoredDocument stored) {
+        documentsBySourceUri.remove(stored.document.getSourceuri());
+        removeFromIndex(documentsByType, stored.document.getType(), stored);
+        removeFromIndex(documentsByStatus, stored.document.getStatus(), stored);
+        for (String tag : stored.document.getTags()) {
+            removeFromIndex(documentsByTag, tag, stored);
+        }
+        modified();
+    }
+
+    /**
+     * Take the items of the next batch before locking, so a batch whose items cannot be read is not stored
+     * in part, like a rolled back transaction of the OrientDB store.
+     */
+    private <T> List<T> nextBatch(Iterator<T> pending) {
+        List<T> batch = new ArrayList<>(getBatchSize());
+        while (batch.size() < getBatchSize() && pending.hasNext()) {
+            batch.add(pending.next());
+        }
+        return batch;
+    }
+
+    private static List<StoredDocument> listIndex(Map<String, List<StoredDocument>> index, String key) {
+        List<StoredDocument> documents = index.get(key);
+        if (documents == null) {
+            documents = new ArrayList<>();
+            index.put(key, documents);
+        }
+        return documents;
+    }
+
+    private static Set<StoredDocument> setIndex(Map<String, Set<StoredDocument>> index, String key) {
+        Set<StoredDocument> documents = index.get(key);
+        if (documents == null) {
+            documents = new LinkedHashSet<>();
+            index.put(key, documents);
+        }
+        return documents;
+    }
+
+    private static void removeFromIndex(Map<String, ? extends Collection<StoredDocument>> index, String key, StoredDocument stored) {
+        Collection<StoredDocument> documents = index.get(key);
+        if (documents != null) {
+            documents.remove(stored);
+            if (documents.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private List<StoredDocument> typed(String docType) {
+        List<StoredDocument> documents = documentsByType.get(docType);
+        return documents != null ? documents : Collections.<StoredDocument>emptyList();
+    }
+
+    private Set<StoredDocument> published() {
+        Set<StoredDocument> documents = documentsByStatus.get(ModelAttributes.Status.PUBLISHED);
+        return documents != null ? documents : Collections.<StoredDocument>emptySet();
+    }
+
+    private Set<StoredDocument> tagged(String tag) {
+        Set<StoredDocument> documents = documentsByTag.get(tag);
+        return documents != null ? documents : Collections.<StoredDocument>emptySet();
+    }
+
+    private DocumentList<DocumentModel> copies(List<StoredDocument> documents, boolean applyPaging) {
+        int from = 0;
+        int to = documents.size();
+        if (applyPaging && hasStartAndLimitBoundary()) {
+            from = (int) Math.min(getStart(), to);
+            to = (int) Math.min(from + getLimit(), to);
+        }
+        final List<StoredDocument> snapshot = new ArrayList<>(documents.subList(from, to));
+        return new PagedDocumentList<>(snapshot.size(), new PagedDocumentList.PageLoader<DocumentModel>() {
+            @Override
+            public List<DocumentModel> load(int offset, int limit) {
+                List<DocumentModel> page = new ArrayList<>(limit);
+                lock.readLock().lock();
+                try {
+                    for (StoredDocument stored : snapshot.subList(offset, Math.min(offset + limit, snapshot.size()))) {
+                        page.add(copyWithDeferredBody(stored.document));
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                return page;
+            }
+        });
+    }
+
+    private DocumentList<DocumentModel> sortedCopies(List<StoredDocument> documents) {
+        Collections.sort(documents, NEWEST_FIRST);
+        return copies(documents, false);
+    }
+
+    /**
+     * Callers may modify their documents, so the store keeps copies and queries hand out copies just like a
+     * database would, see {@link #copyWithDeferredBody(DocumentModel)}. The copies of a query result are only made
+     * when the documents are accessed.
+     */
+    private static DocumentModel copy(DocumentModel document) {
+        DocumentModel copy = new DocumentModel();
+        copy.putAll(document);
+        return copy;
+    }
+
+    private static DocumentModel status(DocumentModel document, boolean withSourceUri) {
+        DocumentModel status = new DocumentModel();
+        if (withSourceUri) {
+            status.setSourceUri(document.getSourceuri());
+        }
+        status.setSha1(document.getSha1());
+        status.setRendered(document.getRendered());
+        return status;
+    }
+
+    private static final class StoredDocument {
+        private final DocumentModel document;
+        private final long sequence;
+
+        StoredDocument(DocumentModel document, long sequence) {
+            this.document = document;
+            this.sequence = sequence;
+        }
+
+        boolean isPublished() {
+            return ModelAttributes.Status.PUBLISHED.equals(document.getStatus());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.jbake.app;
+
+import org.jbake.model.DocumentModel;
+import org.jbake.model.ModelAttributes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Compact, read-only index of all documents of one type, ordered by date with the newest document first.
+ *
+ * <p>Only the attributes needed for navigation are kept (uri, title, status and date), stored in parallel
+ * arrays. The nearest published neighbours of every position are computed once while building the index,
+ * so looking up the previous or next document is a constant time operation. The index can be shared
+ * between rendering threads.</p>
+ *
+ * <p>The position of a document is the same as in a date ordered listing of its type, so the index can
+ * also be used to walk all documents or the published documents of a type, e.g. for an archive or a feed.</p>
+ */
+public final class NavigationIndex {
+
+    private static final int NONE = -1;
+
+    private static final Comparator<DocumentModel> NEWEST_FIRST = new Comparator<DocumentModel>() {
+        @Override
+        public int compare(DocumentModel first, DocumentModel second) {
+            Date firstDate = first.getDate();
+            Date secondDate = second.getDate();
+            if (firstDate == null || secondDate == null) {
+                // undated documents go last
+                return firstDate == null ? (secondDate == null ? 0 : 1) : -1;
+            }
+            return secondDate.compareTo(firstDate);
+        }
+    };
+
+    private final String[] keys;
+    private final String[] uris;
+    private final String[] noExtensionUris;
+    private final String[] titles;
+    private final String[] statuses;
+    private final Date[] dates;
+    private final int[] previous;
+    private final int[] next;
+    private final Map<String, Integer> positions;
+
+    private NavigationIndex(List<DocumentModel> documents) {
+        int size = documents.size();
+        keys = new String[size];
+        uris = new String[size];
+        noExtensionUris = new String[size];
+        titles = new String[size];
+        statuses = new String[size];
+        dates = new Date[size];
+        previous = new int[size];
+        next = new int[size];
+        positions = new HashMap<>(size * 4 / 3 + 1);
+
+        for (int i = 0; i < size; i++) {
+            DocumentModel document = documents.get(i);
+            keys[i] = keyOf(document);
+            uris[i] = document.getUri();
+            noExtensionUris[i] = document.getNoExtensionUri();
+            titles[i] = document.getTitle();
+            statuses[i] = document.getStatus();
+            dates[i] = document.getDate();
+            positions.put(keys[i], i);
+        }
+
+        // next points to the newer, previous to the older published document
+        int newer = NONE;
+        for (int i = 0; i < size; i++) {
+            next[i] = newer;
+            if (isPublished(i)) {
+                newer = i;
+            }
+        }
+        int older = NONE;
+        for (int i = size - 1; i >= 0; i--) {
+            previous[i] = older;
+            if (isPublished(i)) {
+                older = i;
+            }
+        }
+    }
+
+    /**
+     * Build the index for the documents of a single type.
+     *
+     * @param documents all documents of one type, usually already ordered by date
+     * @return the navigation index, ordered by date with the newest document first
+     */
+    public static NavigationIndex build(List<DocumentModel> documents) {
+        List<DocumentModel> ordered = new ArrayList<>(documents);
+        // stable sort, so documents with the same date keep the order of the store
+        Collections.sort(ordered, NEWEST_FIRST);
+        return new NavigationIndex(ordered);
+    }
+
+    private static String keyOf(DocumentModel document) {
+        String sourceUri = document.getSourceuri();
+        return sourceUri != null ? sourceUri : document.getUri();
+    }
+
+    public int size() {
+        return uris.length;
+    }
+
+    /**
+     * @param document a document of the indexed type
+     * @return the position of the document in the index or -1 if it is not indexed
+     */
+    public int indexOf(DocumentModel document) {
+        Integer position = positions.get(keyOf(document));
+        return position != null ? position : NONE;
+    }
+
+    public String getUri(int index) {
+        return uris[index];
+    }
+
+    public String getNoExtensionUri(int index) {
+        return noExtensionUris[index];
+    }
+
+    public String getTitle(int index) {
+        return titles[index];
+    }
+
+    public String getStatus(int index) {
+        return statuses[index];
+    }
+
+    public Date getDate(int index) {
+        return dates[index];
+    }
+
+    public boolean isPublished(int index) {
+        // Attributes.Status.PUBLISHED_DATE cannot occur here
+        // because it's converted TO either PUBLISHED or DRAFT in the Crawler.
+        return ModelAttributes.Status.PUBLISHED.equals(statuses[index]);
+    }
+
+    /**
+     * @param document a document of the indexed type
+     * @return navigation model of the nearest older published document, or null if there is none
+     */
+    public DocumentModel getPrevious(DocumentModel document) {
+        int index = indexOf(document);
+        return index != NONE ? getContentForNav(previous[index]) : null;
+    }
+
+    /**
+     * @param document a document of the indexed type
+     * @return navigation model of the nearest newer published document, or null if there is none
+     */
+    public DocumentModel getNext(DocumentModel document) {
+        int index = indexOf(document);
+        return index != NONE ? getContentForNav(next[index]) : null;
+    }
+
+    /**
+     * Compare the navigation with an index of the same type built before some documents changed, to find the
+     * documents which have to be rendered again, e.g. after a single document was edited while watching the source.
+     *
+     * @param before the index built before the documents changed
+     * @return the source uris of the documents which are new or whose previous or next document differs
+     */
+    public List<String> getChangedNavigation(NavigationIndex before) {
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < keys.length; i++) {
+            Integer position = before.positions.get(keys[i]);
+            if (position == null
+                || !isSameTarget(previous[i], before, before.previous[position])
+                || !isSameTarget(next[i], before, before.next[position])) {
+                changed.add(keys[i]);
+            }
+        }
+        return changed;
+    }
+
+    private boolean isSameTarget(int index, NavigationIndex other, int otherIndex) {
+        if (index == NONE || otherIndex == NONE) {
+            return index == otherIndex;
+        }
+        return Objects.equals(uris[index], other.uris[otherIndex])
+            && Objects.equals(noExtensionUris[index], other.noExtensionUris[otherIndex])
+            && Objects.equals(titles[index], other.titles[otherIndex]);
+    }
+
+    /**
+     * Creates a simple content model to use in individual post navigations.
+     *
+     * @param index position of the document in the index
+     * @return navigation model for the document at 'index'
+     */
+    private DocumentModel getContentForNav(int index) {
+        if (index == NONE) {
+            return null;
+        }
+        DocumentModel navDocument = new DocumentModel();
+        navDocument.setNoExtensionUri(noExtensionUris[index]);
+        navDocument.setUri(uris[index]);
+        navDocument.setTitle(titles[index]);
+        return navDocument;
+    }
+}
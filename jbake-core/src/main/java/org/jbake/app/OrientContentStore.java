@@ -0,0 +1,588 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2015 jdlee.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.jbake.app;
+
+import com.orientechnologies.common.log.OLogManager;
+import com.orientechnologies.orient.core.Orient;
+import com.orientechnologies.orient.core.db.ODatabaseSession;
+import com.orientechnologies.orient.core.db.ODatabaseType;
+import com.orientechnologies.orient.core.db.OrientDB;
+import com.orientechnologies.orient.core.db.OrientDBConfig;
+import com.orientechnologies.orient.core.metadata.schema.OClass;
+import com.orientechnologies.orient.core.metadata.schema.OSchema;
+import com.orientechnologies.orient.core.metadata.schema.OType;
+import com.orientechnologies.orient.core.record.OElement;
+import com.orientechnologies.orient.core.sql.executor.OResult;
+import com.orientechnologies.orient.core.sql.executor.OResultSet;
+import org.jbake.model.DocumentModel;
+import org.jbake.model.DocumentTypes;
+import org.jbake.model.LazyDocumentModel;
+import org.jbake.model.ModelAttributes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ContentStore} backed by OrientDB. Used for the persistent {@code plocal} store, which keeps the
+ * crawled documents between bakes.
+ *
+ * @author jdlee
+ */
+public class OrientContentStore extends AbstractContentStore {
+
+    private static final String STATEMENT_GET_PUBLISHED_POST_BY_TYPE_AND_TAG = "select * from Documents where status='published' and type=? and ? in tags order by date desc, sourceuri";
+    private static final String STATEMENT_GET_DOCUMENT_STATUS_BY_DOCTYPE_AND_URI = "select sha1,rendered from Documents where sourceuri=?";
+    private static final String STATEMENT_GET_ALL_DOCUMENT_STATUSES = "select sourceuri,sha1,rendered from Documents";
+    private static final String STATEMENT_GET_PUBLISHED_COUNT = "select count(*) as count from Documents where status='published' and type=?";
+    private static final String STATEMENT_MARK_CONTENT_AS_RENDERD = "update Documents set rendered=true where rendered=false and type=? and sourceuri=? and cached=true";
+    private static final String STATEMENT_MARK_CONTENT_AS_UNRENDERED = "update Documents set rendered=false where rendered=true and sourceuri=?";
+    private static final String STATEMENT_DELETE_DOCTYPE_BY_SOURCEURI = "delete from Documents where sourceuri=?";
+    private static final String STATEMENT_GET_UNDRENDERED_CONTENT = "select * from Documents where rendered=false order by date desc, sourceuri";
+    private static final String STATEMENT_GET_SIGNATURE_FOR_TEMPLATES = "select sha1 from Signatures where key='templates'";
+    private static final String STATEMENT_GET_TAGS_FROM_PUBLISHED_POSTS = "select tags from Documents where status='published' and type='post'";
+    private static final String STATEMENT_GET_ALL_CONTENT_BY_DOCTYPE = "select * from Documents where type=?";
+    private static final String STATEMENT_GET_PUBLISHED_CONTENT_BY_DOCTYPE = "select * from Documents where status='published' and type=?";
+    private static final String STATEMENT_GET_PUBLISHED_POSTS_BY_TAG = "select * from Documents where status='published' and type='post' and ? in tags order by date desc, sourceuri";
+    private static final String STATEMENT_GET_TAGS_BY_DOCTYPE = "select tags from Documents where status='published' and type=?";
+    private static final String STATEMENT_INSERT_TEMPLATES_SIGNATURE = "insert into Signatures(key,sha1) values('templates',?)";
+    private static final String STATEMENT_DELETE_ALL = "delete from Documents where type=?";
+    private static final String STATEMENT_UPDATE_TEMPLATE_SIGNATURE = "update Signatures set sha1=? where key='templates'";
+    private static final String STATEMENT_PAGING = " SKIP ? LIMIT ?";
+    private static final String STATEMENT_LIMIT = " LIMIT ?";
+    private static final String STATEMENT_ORDER_BY_DATE = " order by date desc, sourceuri";
+    // OrientDB sorts undated documents last when ordering by date descending
+    private static final String STATEMENT_AFTER_DATED = " and (date < ? or (date = ? and sourceuri > ?) or date is null)";
+    private static final String STATEMENT_AFTER_UNDATED = " and date is null and sourceuri > ?";
+    private static final String STATEMENT_GET_DOCUMENT_COUNT_BY_TYPE = "select count(*) as count from Documents where type=?";
+    private static final String STATEMENT_GET_BODY_BY_SOURCEURI = "select body from Documents where sourceuri=?";
+
+    private final Logger logger = LoggerFactory.getLogger(OrientContentStore.class);
+    private final String type;
+    private final String name;
+
+    private ODatabaseSession db;
+    private Thread owner;
+    private final Map<Thread, ODatabaseSession> threadSessions = new ConcurrentHashMap<>();
+
+    private OrientDB orient;
+
+    private final LazyDocumentModel.PropertyLoader bodyLoader = new LazyDocumentModel.PropertyLoader() {
+        @Override
+        public Map<String, Object> load(DocumentModel document) {
+            DocumentList<DocumentModel> bodies = query(STATEMENT_GET_BODY_BY_SOURCEURI, document.getSourceuri());
+            LazyDocumentModel.PropertyLoader deferredBodyLoader = getDeferredBodyLoader();
+            if (deferredBodyLoader != null && (bodies.isEmpty() || bodies.get(0).getBody() == null)) {
+                // stored without body, the body is converted on first access
+                return deferredBodyLoader.load(document);
+            }
+            return bodies.isEmpty() ? Collections.<String, Object>emptyMap() : bodies.get(0);
+        }
+    };
+
+    public OrientContentStore(final String type, String name) {
+        this.type = type;
+        this.name = name;
+    }
+
+    @Override
+    public void startup() {
+        startupIfEnginesAreMissing();
+
+        if (type.equalsIgnoreCase(ODatabaseType.PLOCAL.name())) {
+            orient = new OrientDB(type + ":" + name, OrientDBConfig.defaultConfig());
+        } else {
+            orient = new OrientDB(type + ":", OrientDBConfig.defaultConfig());
+        }
+
+        orient.createIfNotExists(name, ODatabaseType.valueOf(type.toUpperCase()));
+
+        db = orient.open(name, "admin", "admin");
+        owner = Thread.currentThread();
+
+        activateOnCurrentThread();
+
+        updateSchema();
+    }
+
+    @Override
+    public final void updateSchema() {
+
+        OSchema schema = activateOnCurrentThread().getMetadata().getSchema();
+
+        if (!schema.existsClass(Schema.DOCUMENTS)) {
+            createDocType(schema);
+        }
+        if (!schema.existsClass(Schema.SIGNATURES)) {
+            createSignatureType(schema);
+        }
+    }
+
+    @Override
+    public void close() {
+        closeThreadSessions(false);
+
+        if (db != null) {
+            db.activateOnCurrentThread();
+            db.close();
+        }
+
+        if (orient != null) {
+            orient.close();
+        }
+        DBUtil.closeDataStore();
+    }
+
+    @Override
+    public void shutdown() {
+
+//        Orient.instance().shutdown();
+    }
+
+    private void startupIfEnginesAreMissing() {
+        // Using a jdk which doesn't bundle a javascript engine
+        // throws a NoClassDefFoundError while logging the warning
+        // see https://github.com/orientechnologies/orientdb/issues/5855
+        OLogManager.instance().setWarnEnabled(false);
+
+        // If an instance of Orient was previously shutdown all engines are removed.
+        // We need to startup Orient again.
+        if (Orient.instance().getEngines().isEmpty()) {
+            Orient.instance().startup();
+        }
+        OLogManager.instance().setWarnEnabled(true);
+    }
+
+    @Override
+    public void drop() {
+        closeThreadSessions(false);
+        db.activateOnCurrentThread();
+//        db.drop();
+
+        orient.drop(name);
+        modified();
+    }
+
+    private ODatabaseSession activateOnCurrentThread() {
+        ODatabaseSession session = getSession();
+        if (session != null) {
+            session.activateOnCurrentThread();
+        } else {
+            System.out.println("db is null on activate");
+        }
+        return session;
+    }
+
+    /**
+     * A database session must not be used by several threads at the same time. The thread which started the store
+     * uses the main session, every other thread (e.g. a rendering worker) gets a session of its own.
+     */
+    private ODatabaseSession getSession() {
+        Thread current = Thread.currentThread();
+        if (db == null || current == owner) {
+            return db;
+        }
+        ODatabaseSession session = threadSessions.get(current);
+        if (session == null) {
+            session = openThreadSession(current);
+        }
+        return session;
+    }
+
+    private synchronized ODatabaseSession openThreadSession(Thread thread) {
+        closeThreadSessions(true);
+        ODatabaseSession session = orient.open(name, "admin", "admin");
+        threadSessions.put(thread, session);
+        return session;
+    }
+
+    private synchronized void closeThreadSessions(boolean terminatedOnly) {
+        Iterator<Map.Entry<Thread, ODatabaseSession>> sessions = threadSessions.entrySet().iterator();
+        while (sessions.hasNext()) {
+            Map.Entry<Thread, ODatabaseSession> entry = sessions.next();
+            if (!terminatedOnly || !entry.getKey().isAlive()) {
+                ODatabaseSession session = entry.getValue();
+                session.activateOnCurrentThread();
+                session.close();
+                sessions.remove();
+            }
+        }
+    }
+
+    @Override
+    public long getDocumentCount(String docType) {
+        return (long) query(STATEMENT_GET_DOCUMENT_COUNT_BY_TYPE, docType).get(0).get("count");
+    }
+
+    @Override
+    public long getPublishedCount(String docType) {
+        return (long) query(STATEMENT_GET_PUBLISHED_COUNT, docType).get(0).get("count");
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getDocumentByUri(String uri) {
+        return withDeferredBodies(query("select * from Documents where sourceuri=?", uri));
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getDocumentStatus(String uri) {
+        return query(STATEMENT_GET_DOCUMENT_STATUS_BY_DOCTYPE_AND_URI, uri);
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getDocumentStatuses() {
+        return query(STATEMENT_GET_ALL_DOCUMENT_STATUSES);
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getPublishedPostsByTag(String tag) {
+        return queryWithoutBody(STATEMENT_GET_PUBLISHED_POSTS_BY_TAG, tag);
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getPublishedDocumentsByTag(String tag) {
+        final DocumentList<DocumentModel> documents = new DocumentList<>();
+
+        for (final String docType : DocumentTypes.getDocumentTypes()) {
+            DocumentList<DocumentModel> documentsByTag = queryWithoutBody(STATEMENT_GET_PUBLISHED_POST_BY_TYPE_AND_TAG, docType, tag);
+            documents.addAll(documentsByTag);
+        }
+        return documents;
+    }
+
+    @Override
+    protected DocumentList<DocumentModel> getPublishedContent(String docType, boolean applyPaging) {
+        String query = STATEMENT_GET_PUBLISHED_CONTENT_BY_DOCTYPE;
+        if (applyPaging && hasStartAndLimitBoundary()) {
+            return queryWithoutBody(query + STATEMENT_ORDER_BY_DATE + STATEMENT_PAGING, docType, getStart(), getLimit());
+        }
+        return pagedQuery(getPublishedCount(docType), query, docType);
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getAllContent(String docType, boolean applyPaging) {
+        String query = STATEMENT_GET_ALL_CONTENT_BY_DOCTYPE;
+        if (applyPaging && hasStartAndLimitBoundary()) {
+            return queryWithoutBody(query + STATEMENT_ORDER_BY_DATE + STATEMENT_PAGING, docType, getStart(), getLimit());
+        }
+        return pagedQuery(getDocumentCount(docType), query, docType);
+    }
+
+    private DocumentList<DocumentModel> getAllTagsFromPublishedPosts() {
+        return query(STATEMENT_GET_TAGS_FROM_PUBLISHED_POSTS);
+    }
+
+    @Override
+    protected String getTemplatesSignature() {
+        DocumentList<DocumentModel> docs = query(STATEMENT_GET_SIGNATURE_FOR_TEMPLATES);
+        return docs.isEmpty() ? null : docs.get(0).getSha1();
+    }
+
+    @Override
+    public DocumentList<DocumentModel> getUnrenderedContent() {
+        return withDeferredBodies(query(STATEMENT_GET_UNDRENDERED_CONTENT));
+    }
+
+    private DocumentList<DocumentModel> withDeferredBodies(DocumentList<DocumentModel> documents) {
+        for (int i = 0; i < documents.size(); i++) {
+            if (isBodyDeferred(documents.get(i))) {
+                documents.set(i, copyWithDeferredBody(documents.get(i)));
+            }
+        }
+        return documents;
+    }
+
+    @Override
+    public void deleteContent(String uri) {
+        executeCommand(STATEMENT_DELETE_DOCTYPE_BY_SOURCEURI, uri);
+    }
+
+    @Override
+    public void deleteDocuments(Collection<String> uris) {
+        inTransactions(uris, new BatchOperation<String>() {
+            @Override
+            public void apply(ODatabaseSession session, String uri) {
+                session.command(STATEMENT_DELETE_DOCTYPE_BY_SOURCEURI, uri).close();
+            }
+        });
+    }
+
+    @Override
+    public void markContentAsRendered(DocumentModel document) {
+        executeCommand(STATEMENT_MARK_CONTENT_AS_RENDERD, document.getType(), document.getSourceuri());
+        releaseDeferredBodies(Collections.singletonList(document));
+    }
+
+    @Override
+    public void markDocumentsAsRendered(Collection<DocumentModel> documents) {
+        inTransactions(documents, new BatchOperation<DocumentModel>() {
+            @Override
+            public void apply(ODatabaseSession session, DocumentModel document) {
+                session.command(STATEMENT_MARK_CONTENT_AS_RENDERD, document.getType(), document.getSourceuri()).close();
+            }
+        });
+        releaseDeferredBodies(documents);
+    }
+
+    @Override
+    public void markDocumentsAsUnrendered(Collection<String> uris) {
+        inTransactions(uris, new BatchOperation<String>() {
+            @Override
+            public void apply(ODatabaseSession session, String uri) {
+                session.command(STATEMENT_MARK_CONTENT_AS_UNRENDERED, uri).close();
+            }
+        });
+    }
+
+    @Override
+    protected void updateTemplatesSignature(String currentTemplatesSignature) {
+        executeCommand(STATEMENT_UPDATE_TEMPLATE_SIGNATURE, currentTemplatesSignature);
+    }
+
+    @Override
+    public void deleteAllByDocType(String docType) {
+        executeCommand(STATEMENT_DELETE_ALL, docType);
+    }
+
+    @Override
+    protected void insertTemplatesSignature(String currentTemplatesSignature) {
+        executeCommand(STATEMENT_INSERT_TEMPLATES_SIGNATURE, currentTemplatesSignature);
+    }
+
+    /**
+     * All statements are constants with positional parameters, so OrientDB parses each of them only once and
+     * serves further executions from its statement cache.
+     */
+    private DocumentList<DocumentModel> query(String sql, Object... args) {
+        OResultSet results = activateOnCurrentThread().query(sql, args);
+        return wrap(results);
+    }
+
+    /**
+     * @param docs an OrientDB result set, closed after reading it
+     * @return the documents of the result set
+     */
+    public static DocumentList<DocumentModel> wrap(OResultSet docs) {
+        DocumentList<DocumentModel> list = new DocumentList<>();
+        while (docs.hasNext()) {
+            list.add(documentToModel(docs.next()));
+        }
+        docs.close();
+        return list;
+    }
+
+    static DocumentModel documentToModel(OResult doc) {
+        DocumentModel result = new DocumentModel();
+
+        for (String key : doc.getPropertyNames()) {
+            result.put(key, doc.getProperty(key));
+        }
+        return result;
+    }
+
+    /**
+     * Query documents without reading their body, which is only loaded when a template accesses it.
+     */
+    private DocumentList<DocumentModel> queryWithoutBody(String sql, Object... args) {
+        DocumentList<DocumentModel> documents = new DocumentList<>();
+        try (OResultSet results = activateOnCurrentThread().query(sql, args)) {
+            while (results.hasNext()) {
+                OResult result = results.next();
+                DocumentModel document = new LazyDocumentModel(bodyLoader, ModelAttributes.BODY);
+                for (String key : result.getPropertyNames()) {
+                    // record fields are deserialized on access, so skipping the body never decodes it
+                    if (!ModelAttributes.BODY.equals(key)) {
+                        document.put(key, result.getProperty(key));
+                    }
+                }
+                documents.add(document);
+            }
+        }
+        return documents;
+    }
+
+    /**
+     * Query documents page by page while they are accessed, see {@link #queryWithoutBody(String, Object...)}.
+     * A page following a loaded page starts after the last document of that page by date and source uri, so
+     * the query neither skips over all previous documents nor shifts when documents are added or removed.
+     *
+     * @param where a query with a where clause and without ordering
+     */
+    private DocumentList<DocumentModel> pagedQuery(long size, final String where, final Object... args) {
+        // the date and source uri of the last document of each loaded page, by the offset of the next page
+        final Map<Integer, Object[]> pageEnds = new ConcurrentHashMap<>();
+        return new PagedDocumentList<>((int) size, new PagedDocumentList.PageLoader<DocumentModel>() {
+            @Override
+            public List<DocumentModel> load(int offset, int limit) {
+                Object[] end = pageEnds.get(offset);
+                List<DocumentModel> page;
+                if (offset == 0) {
+                    page = queryWithoutBody(where + STATEMENT_ORDER_BY_DATE + STATEMENT_LIMIT, append(args, limit));
+                } else if (end == null) {
+                    // the previous page was not loaded
+                    page = queryWithoutBody(where + STATEMENT_ORDER_BY_DATE + STATEMENT_PAGING, append(args, offset, limit));
+                } else if (end[0] == null) {
+                    page = queryWithoutBody(where + STATEMENT_AFTER_UNDATED + STATEMENT_ORDER_BY_DATE + STATEMENT_LIMIT,
+                        append(args, end[1], limit));
+                } else {
+                    page = queryWithoutBody(where + STATEMENT_AFTER_DATED + STATEMENT_ORDER_BY_DATE + STATEMENT_LIMIT,
+                        append(args, end[0], end[0], end[1], limit));
+                }
+                if (!page.isEmpty()) {
+                    DocumentModel last = page.get(page.size() - 1);
+                    pageEnds.put(offset + page.size(), new Object[]{last.getDate(), last.getSourceuri()});
+                }
+                return page;
+            }
+        });
+    }
+
+    private static Object[] append(Object[] args, Object... more) {
+        Object[] all = Arrays.copyOf(args, args.length + more.length);
+        System.arraycopy(more, 0, all, args.length, more.length);
+        return all;
+    }
+
+    private void executeCommand(String query, Object... args) {
+        activateOnCurrentThread().command(query, args).close();
+        modified();
+    }
+
+    /**
+     * Apply an operation to all items, committing a transaction after every {@link #getBatchSize()} items.
+     */
+    private <T> void inTransactions(Collection<T> items, BatchOperation<T> operation) {
+        ODatabaseSession session = activateOnCurrentThread();
+        Iterator<T> pending = items.iterator();
+        while (pending.hasNext()) {
+            session.begin();
+            try {
+                for (int i = 0; i < getBatchSize() && pending.hasNext(); i++) {
+                    operation.apply(session, pending.next());
+                }
+                session.commit();
+                modified();
+            } catch (RuntimeException e) {
+                session.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public Set<String> getTags() {
+        DocumentList<DocumentModel> docs = this.getAllTagsFromPublishedPosts();
+        Set<String> result = new HashSet<>();
+        for (DocumentModel document : docs) {
+            String[] tags = document.getTags();
+            Collections.addAll(result, tags);
+        }
+        return result;
+    }
+
+    @Override
+    public Set<String> getAllTags() {
+        Set<String> result = new HashSet<>();
+        for (String docType : DocumentTypes.getDocumentTypes()) {
+            DocumentList<DocumentModel> docs = query(STATEMENT_GET_TAGS_BY_DOCTYPE, docType);
+            for (DocumentModel document : docs) {
+                String[] tags = document.getTags();
+                Collections.addAll(result, tags);
+            }
+        }
+        return result;
+    }
+
+    private void createDocType(final OSchema schema) {
+        logger.debug("Create document class");
+
+        OClass page = schema.createClass(Schema.DOCUMENTS);
+        page.createProperty(ModelAttributes.SHA1, OType.STRING).setNotNull(true);
+        page.createIndex(Schema.DOCUMENTS + "sha1Index", OClass.INDEX_TYPE.NOTUNIQUE, ModelAttributes.SHA1);
+        page.createProperty(ModelAttributes.SOURCE_URI, OType.STRING).setNotNull(true);
+        page.createIndex(Schema.DOCUMENTS + "sourceUriIndex", OClass.INDEX_TYPE.UNIQUE, ModelAttributes.SOURCE_URI);
+        page.createProperty(ModelAttributes.CACHED, OType.BOOLEAN).setNotNull(true);
+        page.createIndex(Schema.DOCUMENTS + "cachedIndex", OClass.INDEX_TYPE.NOTUNIQUE, ModelAttributes.CACHED);
+        page.createProperty(ModelAttributes.RENDERED, OType.BOOLEAN).setNotNull(true);
+        page.createIndex(Schema.DOCUMENTS + "renderedIndex", OClass.INDEX_TYPE.NOTUNIQUE, ModelAttributes.RENDERED);
+        page.createProperty(ModelAttributes.STATUS, OType.STRING).setNotNull(true);
+        page.createIndex(Schema.DOCUMENTS + "statusIndex", OClass.INDEX_TYPE.NOTUNIQUE, ModelAttributes.STATUS);
+        page.createProperty(ModelAttributes.TYPE, OType.STRING).setNotNull(true);
+        page.createIndex(Schema.DOCUMENTS + "typeIndex", OClass.INDEX_TYPE.NOTUNIQUE, ModelAttributes.TYPE);
+
+    }
+
+    private void createSignatureType(OSchema schema) {
+        OClass signatures = schema.createClass(Schema.SIGNATURES);
+        signatures.createProperty(ModelAttributes.SHA1, OType.STRING).setNotNull(true);
+        signatures.createIndex("sha1Idx", OClass.INDEX_TYPE.UNIQUE, ModelAttributes.SHA1);
+    }
+
+    @Override
+    public boolean isActive() {
+        return getSession().isActiveOnCurrentThread();
+    }
+
+    @Override
+    public void addDocument(DocumentModel document) {
+        saveDocument(activateOnCurrentThread(), document);
+        modified();
+    }
+
+    @Override
+    public void addDocuments(Collection<DocumentModel> documents) {
+        inTransactions(documents, new BatchOperation<DocumentModel>() {
+            @Override
+            public void apply(ODatabaseSession session, DocumentModel document) {
+                saveDocument(session, document);
+            }
+        });
+    }
+
+    private void saveDocument(ODatabaseSession session, DocumentModel document) {
+        // replace like the in-memory store instead of failing on the unique source uri index
+        session.command(STATEMENT_DELETE_DOCTYPE_BY_SOURCEURI, document.getSourceuri()).close();
+        OElement element = session.newElement(Schema.DOCUMENTS);
+        document.forEach((k, v) -> element.setProperty(k, v, OType.ANY));
+        element.save();
+    }
+
+    private interface BatchOperation<T> {
+        void apply(ODatabaseSession session, T item);
+    }
+
+    protected abstract class Schema {
+        static final String DOCUMENTS = "Documents";
+        static final String SIGNATURES = "Signatures";
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.jbake.app;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persisted hashes of the files written by the previous bakes, keyed by their path relative to the destination
+ * folder. Used to leave rendered files untouched when their content did not change.
+ *
+ * <p>The manifest can be read and updated by several rendering threads.</p>
+ */
+public class OutputManifest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutputManifest.class);
+
+    private final File file;
+    private final Map<String, String> hashes = new ConcurrentHashMap<>();
+    private volatile boolean modified;
+
+    private OutputManifest(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Load a manifest. A missing or unreadable manifest file results in an empty manifest.
+     *
+     * @param file the manifest file
+     * @return the manifest
+     */
+    public static OutputManifest load(File file) {
+        OutputManifest manifest = new OutputManifest(file);
+        if (file.isFile()) {
+            Properties properties = new Properties();
+            try (InputStream in = new FileInputStream(file)) {
+                properties.load(in);
+                for (String path : properties.stringPropertyNames()) {
+                    manifest.hashes.put(path, properties.getProperty(path));
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.warn("Ignoring unreadable output manifest {}", file, e);
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * @param path the path of the output file relative to the destination folder
+     * @param hash the hash of the new content
+     * @return true if the previous content of the file had the same hash
+     */
+    public boolean isUnchanged(String path, String hash) {
+        return hash.equals(hashes.get(path));
+    }
+
+    /**
+     * @param path the path of the output file relative to the destination folder
+     * @param hash the hash of the written content
+     */
+    public void update(String path, String hash) {
+        if (!hash.equals(hashes.put(path, hash))) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Write the manifest file, if any hash changed since it was loaded.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    public void save() throws IOException {
+        if (!modified) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.putAll(hashes);
+        File folder = file.getParentFile();
+        if (folder != null && !folder.exists() && !folder.mkdirs()) {
+            throw new IOException("Unable to create folder " + folder);
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Hashes of the rendered files");
+        }
+        modified = false;
+    }
+
+    public File getFile() {
+        return file;
+    }
+}
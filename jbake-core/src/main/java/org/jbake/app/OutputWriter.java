@@ -0,0 +1,259 @@
+package org.jbake.app;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the files rendered by a {@link Renderer}.
+ *
+ * <p>A template renders into a pooled buffer, which is written to its file with a single write once the template
+ * completed. Folders are remembered once they exist, so a file in a known folder costs no extra file system
+ * calls. With write threads, see {@link org.jbake.app.configuration.JBakeConfiguration#getRenderWriteThreads()},
+ * the files are written behind on a dedicated executor and the rendering thread continues with the next template.
+ * {@link #flush()} waits for the pending writes and reports their failures.</p>
+ */
+class OutputWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutputWriter.class);
+    private static final int MAX_POOLED_BUFFERS = 32;
+    private static final int MAX_PENDING_WRITES_PER_THREAD = 16;
+
+    private final int threads;
+    private final Semaphore pendingWrites;
+    private final Queue<OutputBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+    private final Set<File> folders = Collections.newSetFromMap(new ConcurrentHashMap<File, Boolean>());
+    private final List<IOException> failures = new ArrayList<>();
+    private final AtomicLong tempFiles = new AtomicLong();
+    private ExecutorService executor;
+
+    /**
+     * @param threads the number of threads writing files in the background, 0 to write on the rendering thread
+     */
+    OutputWriter(int threads) {
+        this.threads = threads;
+        // bounds the memory held by rendered files waiting for the disk
+        this.pendingWrites = new Semaphore(Math.max(1, threads * MAX_PENDING_WRITES_PER_THREAD));
+    }
+
+    /**
+     * @return an empty buffer to render a file into, to be passed to {@link #write(File, OutputBuffer, Runnable)}
+     * or {@link #release(OutputBuffer)}
+     */
+    OutputBuffer acquire() {
+        OutputBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return new OutputBuffer();
+        }
+        pooledBuffers.decrementAndGet();
+        return buffer;
+    }
+
+    /**
+     * Return a buffer which is not written to the pool.
+     *
+     * @param buffer the buffer
+     */
+    void release(OutputBuffer buffer) {
+        buffer.recycle();
+        if (pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+            buffers.offer(buffer);
+        } else {
+            pooledBuffers.decrementAndGet();
+        }
+    }
+
+    /**
+     * Write a buffer to a file, now or in the background, and release the buffer afterwards.
+     *
+     * @param file    the file
+     * @param buffer  the content of the file
+     * @param written run once the file was written, on the writing thread
+     * @throws IOException if the file is written now and cannot be written
+     */
+    void write(final File file, final OutputBuffer buffer, final Runnable written) throws IOException {
+        if (threads <= 0) {
+            try {
+                writeFile(file, buffer);
+            } finally {
+                release(buffer);
+            }
+            written.run();
+            return;
+        }
+
+        try {
+            pendingWrites.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(buffer);
+            throw new InterruptedIOException("Interrupted while waiting to write " + file);
+        }
+        executor().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    writeFile(file, buffer);
+                    written.run();
+                } catch (IOException e) {
+                    LOGGER.error("Writing [{}]... failed!", file, e);
+                    synchronized (failures) {
+                        failures.add(new IOException("Failed to write file " + file.getAbsolutePath() + ". Cause: " + e.getMessage(), e));
+                    }
+                } finally {
+                    release(buffer);
+                    pendingWrites.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * Wait until all files are written. The folders are checked again by the next writes.
+     *
+     * @throws IOException if a file written in the background could not be written, further failures are suppressed
+     */
+    void flush() throws IOException {
+        ExecutorService running;
+        synchronized (this) {
+            running = executor;
+            executor = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                while (!running.awaitTermination(10, TimeUnit.SECONDS)) {
+                    LOGGER.debug("Waiting for the rendered files to be written");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the rendered files to be written");
+            }
+        }
+        folders.clear();
+
+        synchronized (failures) {
+            if (failures.isEmpty()) {
+                return;
+            }
+            IOException failure = failures.get(0);
+            for (IOException suppressed : failures.subList(1, failures.size())) {
+                failure.addSuppressed(suppressed);
+            }
+            failures.clear();
+            throw failure;
+        }
+    }
+
+    private synchronized ExecutorService executor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(threads, new WriterThreadFactory());
+        }
+        return executor;
+    }
+
+    /**
+     * Write to a temporary file next to the file and move it in place. The file is replaced instead of overwritten,
+     * so a hard link to an asset left by linked assets, see
+     * {@link org.jbake.app.configuration.JBakeConfiguration#getAssetSyncLink()}, never changes the asset, and
+     * the file is never seen half written.
+     */
+    private void writeFile(File file, OutputBuffer buffer) throws IOException {
+        File folder = file.getAbsoluteFile().getParentFile();
+        if (folder != null && !folders.contains(folder)) {
+            Files.createDirectories(folder.toPath());
+            folders.add(folder);
+        }
+        Path target = file.getAbsoluteFile().toPath();
+        Path temp = target.resolveSibling("." + file.getName() + "." + tempFiles.incrementAndGet() + ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                buffer.writeTo(out);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Growable buffer for the output of a template, reused for many files.
+     */
+    static final class OutputBuffer extends ByteArrayOutputStream {
+        private static final int INITIAL_SIZE = 64 * 1024;
+        private static final int MAX_RETAINED_SIZE = 4 * 1024 * 1024;
+
+        private MessageDigest digest;
+
+        OutputBuffer() {
+            super(INITIAL_SIZE);
+        }
+
+        /**
+         * @return the hex encoded SHA-1 hash of the content
+         */
+        String hash() {
+            if (digest == null) {
+                try {
+                    digest = MessageDigest.getInstance("SHA-1");
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalStateException("SHA-1 is not available", e);
+                }
+            }
+            digest.update(buf, 0, count);
+            return FileUtil.toHex(digest.digest());
+        }
+
+        /**
+         * Empty the buffer for the next file, releasing it if an unusually large file grew it.
+         */
+        void recycle() {
+            reset();
+            if (buf.length > MAX_RETAINED_SIZE) {
+                buf = new byte[INITIAL_SIZE];
+            }
+        }
+    }
+
+    private static class WriterThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "jbake-writer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -6,8 +6,14 @@ import org.jbake.app.configuration.DefaultJBakeConfiguration;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.app.configuration.JBakeConfigurationFactory;
 import org.jbake.app.configuration.JBakeConfigurationInspector;
+import org.jbake.model.DocumentModel;
 import org.jbake.model.DocumentTypes;
+import org.jbake.parser.Engines;
+import org.jbake.parser.MarkupEngine;
+import org.jbake.parser.ParserEngine;
 import org.jbake.render.RenderingTool;
+import org.jbake.render.TagsRenderer;
+import org.jbake.template.ModelExtractorCache;
 import org.jbake.template.ModelExtractors;
 import org.jbake.template.ModelExtractorsDocumentTypeListener;
 import org.jbake.template.RenderingException;
@@ -15,12 +21,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * All the baking happens in the Oven!
@@ -34,6 +46,9 @@ public class Oven {
     private final Utensils utensils;
     private final List<Throwable> errors = new LinkedList<>();
     private int renderedCount = 0;
+    private boolean keepContentStoreOpen;
+    private boolean contentStoreStarted;
+    private DeferredBodyLoader deferredBodyLoader;
 
     /**
      * @param source       Project source directory
@@ -126,8 +141,35 @@ public class Oven {
         Locale.setDefault(locale);
     }
 
+    /**
+     * Keep the content store open after baking, so a following {@link #bake(File)} can update the documents of
+     * the previous bake instead of baking everything again, e.g. while watching the source folder for changes.
+     * Call {@link #close()} to release the content store.
+     *
+     * @param keepContentStoreOpen true to keep the content store open between bakes
+     */
+    public void setKeepContentStoreOpen(boolean keepContentStoreOpen) {
+        this.keepContentStoreOpen = keepContentStoreOpen;
+    }
+
+    /**
+     * Close the content store if it was kept open after the last bake.
+     */
+    public void close() {
+        if (contentStoreStarted) {
+            ContentStore contentStore = utensils.getContentStore();
+            contentStoreStarted = false;
+            contentStore.close();
+            contentStore.shutdown();
+        }
+    }
+
     /**
      * Responsible for incremental baking, typically a single file at a time.
+     * <p>
+     * A changed asset is copied. A changed content file is baked incrementally if the documents of a previous
+     * bake were kept, see {@link #setKeepContentStoreOpen(boolean)}: only the file itself is parsed again, and
+     * only the pages depending on it are rendered again. Any other change runs a full bake.
      *
      * @param fileToBake The file to bake
      */
@@ -136,6 +178,8 @@ public class Oven {
         if(asset.isAssetFile(fileToBake)) {
             LOGGER.info("Baking a change to an asset [" + fileToBake.getPath() + "]");
             asset.copySingleFile(fileToBake);
+        } else if (contentStoreStarted && utensils.getCrawler().isContentFile(fileToBake)) {
+            bakeContentFile(fileToBake);
         } else {
             LOGGER.info("Playing it safe and running a full bake...");
             bake();
@@ -147,45 +191,191 @@ public class Oven {
      */
     public void bake() {
 
-        ContentStore contentStore = utensils.getContentStore();
         JBakeConfiguration config = utensils.getConfiguration();
         Crawler crawler = utensils.getCrawler();
         Asset asset = utensils.getAsset();
         setLocale();
+        errors.clear();
+        renderedCount = 0;
 
         try {
 
             final long start = new Date().getTime();
             LOGGER.info("Baking has started...");
-            contentStore.startup();
-            updateDocTypesFromConfiguration();
-            contentStore.updateSchema();
-            contentStore.updateAndClearCacheIfNeeded(config.getClearCache(), config.getTemplateFolder());
+            // every source folder is scanned once and shared by all phases
+            SourceInventory sources = new SourceInventory(config);
+            warmUpEngines(config, sources);
+            prepareContentStore(config.getClearCache(), sources);
 
             // process source content
-            crawler.crawl();
+            crawler.crawl(sources);
 
             // process data files
-            crawler.crawlDataFiles();
+            crawler.crawlDataFiles(sources);
+            saveFingerprints();
 
             // render content
-            renderContent();
+            renderContent(null);
 
             // copy assets
-            asset.copy();
-            asset.copyAssetsFromContent(config.getContentFolder());
+            asset.copy(sources);
 
             errors.addAll(asset.getErrors());
 
-            LOGGER.info("Baking finished!");
-            long end = new Date().getTime();
-            LOGGER.info("Baked {} items in {}ms", renderedCount, end - start);
-            if (!errors.isEmpty()) {
-                LOGGER.error("Failed to bake {} item(s)!", errors.size());
+            finish(start);
+        } finally {
+            if (!keepContentStoreOpen) {
+                close();
             }
+        }
+    }
+
+    /**
+     * Bake a single changed content file on top of the documents of the previous bake.
+     * <p>
+     * The file is crawled again, or removed from the store if it was deleted. Rendered again are the document
+     * itself, the documents of the same type whose previous or next document changed, the tags of the document
+     * before and after the change, and the pages listing documents like the index, feed, archive and sitemap.
+     */
+    private void bakeContentFile(File sourceFile) {
+        ContentStore contentStore = utensils.getContentStore();
+        JBakeConfiguration config = utensils.getConfiguration();
+        Crawler crawler = utensils.getCrawler();
+        setLocale();
+        errors.clear();
+        renderedCount = 0;
+
+        try {
+            final long start = new Date().getTime();
+            LOGGER.info("Baking a change to content [{}]", sourceFile.getPath());
+            prepareContentStore(false, new SourceInventory(config));
+            if (!hasDocuments()) {
+                // e.g. a persistent store which was cleared
+                LOGGER.info("No documents of a previous bake left, running a full bake...");
+                bake();
+                return;
+            }
+
+            Map<String, NavigationIndex> navigation = new HashMap<>();
+            for (String docType : DocumentTypes.getDocumentTypes()) {
+                if (!docType.equals(config.getDataFileDocType())) {
+                    navigation.put(docType, NavigationIndex.build(contentStore.getAllContent(docType)));
+                }
+            }
+            String sourceUri = crawler.getSourceUri(sourceFile);
+            DocumentModel before = firstOf(contentStore.getDocumentByUri(sourceUri));
+
+            crawler.crawlSingleFile(sourceFile);
+            saveFingerprints();
+
+            DocumentModel after = firstOf(contentStore.getDocumentByUri(sourceUri));
+            Set<String> neighbours = new LinkedHashSet<>();
+            for (Map.Entry<String, NavigationIndex> entry : navigation.entrySet()) {
+                NavigationIndex current = NavigationIndex.build(contentStore.getAllContent(entry.getKey()));
+                neighbours.addAll(current.getChangedNavigation(entry.getValue()));
+            }
+            // the crawled document itself is only rendered again if it changed
+            neighbours.remove(sourceUri);
+            contentStore.markDocumentsAsUnrendered(neighbours);
+
+            Set<String> tags = new TreeSet<>();
+            addTags(tags, before);
+            addTags(tags, after);
+            renderContent(tags);
+
+            finish(start);
         } finally {
-            contentStore.close();
-            contentStore.shutdown();
+            if (!keepContentStoreOpen) {
+                close();
+            }
+        }
+    }
+
+    /**
+     * Start the markup engines of the content on a background thread, while the content store starts.
+     */
+    private void warmUpEngines(final JBakeConfiguration config, final SourceInventory sources) {
+        Thread warmUp = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Set<MarkupEngine> engines = new LinkedHashSet<>();
+                    for (File file : sources.getContentFiles()) {
+                        ParserEngine engine = Engines.get(FileUtil.fileExt(file));
+                        if (engine instanceof MarkupEngine && engines.add((MarkupEngine) engine)) {
+                            ((MarkupEngine) engine).warmUp(config);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Unable to warm up the markup engines", e);
+                }
+            }
+        }, "jbake-warm-up");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    private void prepareContentStore(boolean clearCache, SourceInventory sources) {
+        ContentStore contentStore = utensils.getContentStore();
+        if (!contentStoreStarted) {
+            contentStore.startup();
+            contentStoreStarted = true;
+            // also set without deferred bodies, documents stored by a previous bake may lack their body
+            deferredBodyLoader = new DeferredBodyLoader(utensils.getConfiguration());
+            contentStore.setDeferredBodyLoader(deferredBodyLoader);
+        } else if (clearCache) {
+            deferredBodyLoader.clear();
+        }
+        if (clearCache) {
+            BodyCache.open(utensils.getConfiguration()).clear();
+        }
+        updateDocTypesFromConfiguration();
+        contentStore.updateSchema();
+        contentStore.updateAndClearCacheIfNeeded(clearCache, sources, utensils.getConfiguration());
+    }
+
+    private void saveFingerprints() {
+        try {
+            utensils.getCrawler().saveFingerprints();
+        } catch (IOException e) {
+            errors.add(e);
+        }
+    }
+
+    private boolean hasDocuments() {
+        ContentStore contentStore = utensils.getContentStore();
+        for (String docType : DocumentTypes.getDocumentTypes()) {
+            if (contentStore.getDocumentCount(docType) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static DocumentModel firstOf(DocumentList<DocumentModel> documents) {
+        return documents.isEmpty() ? null : documents.get(0);
+    }
+
+    private static void addTags(Set<String> tags, DocumentModel document) {
+        if (document != null) {
+            for (String tag : document.getTags()) {
+                if (tag != null) {
+                    tags.add(tag);
+                }
+            }
+        }
+    }
+
+    private void finish(long start) {
+        BodyCache bodyCache = BodyCache.get(utensils.getConfiguration());
+        if (bodyCache != null) {
+            bodyCache.save();
+        }
+        LOGGER.info("Baking finished!");
+        long end = new Date().getTime();
+        LOGGER.info("Baked {} items in {}ms", renderedCount, end - start);
+        if (!errors.isEmpty()) {
+            LOGGER.error("Failed to bake {} item(s)!", errors.size());
         }
     }
 
@@ -215,18 +405,52 @@ public class Oven {
 
     /**
      * Load {@link RenderingTool} instances and delegate rendering of documents to them
+     *
+     * @param tags the tags to render, or null to render all tags
      */
-    private void renderContent() {
+    private void renderContent(Set<String> tags) {
         JBakeConfiguration config = utensils.getConfiguration();
         Renderer renderer = utensils.getRenderer();
         ContentStore contentStore = utensils.getContentStore();
+        ModelExtractorCache modelCache = ModelExtractors.getInstance().getCache();
+        modelCache.reset(config.getRenderModelCacheSize());
+        renderer.resetFileCounts();
+
+        try {
+            for (RenderingTool tool : ServiceLoader.load(RenderingTool.class)) {
+                try {
+                    if (tags != null && tool instanceof TagsRenderer) {
+                        renderedCount += ((TagsRenderer) tool).render(renderer, config, tags);
+                    } else {
+                        renderedCount += tool.render(renderer, contentStore, config);
+                    }
+                } catch (RenderingException e) {
+                    errors.add(e);
+                }
+            }
+        } finally {
+            try {
+                renderer.flush();
+            } catch (IOException e) {
+                errors.add(e);
+            }
+            if (config.getRenderModelCacheSize() > 0) {
+                LOGGER.info("Template model cache: {} hits, {} misses", modelCache.getHits(), modelCache.getMisses());
+            }
+            modelCache.clear();
+            if (deferredBodyLoader != null) {
+                // the bodies converted again for the listings
+                deferredBodyLoader.clear();
+            }
+        }
 
-        for (RenderingTool tool : ServiceLoader.load(RenderingTool.class)) {
+        if (config.getRenderSkipUnchanged()) {
             try {
-                renderedCount += tool.render(renderer, contentStore, config);
-            } catch (RenderingException e) {
+                renderer.saveOutputManifest();
+            } catch (IOException e) {
                 errors.add(e);
             }
+            LOGGER.info("Rendered files: {} written, {} unchanged and skipped", renderer.getWrittenFileCount(), renderer.getSkippedFileCount());
         }
     }
 
@@ -0,0 +1,202 @@
+package org.jbake.app;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A {@link DocumentList} of a known size which fetches its documents page by page when they are accessed,
+ * instead of materializing the whole query result up front.
+ *
+ * <p>Only the most recently used pages are kept, so iterating over a large result holds a bounded number of
+ * documents in memory. Modifying the list, e.g. sorting it from a template, first loads all documents and
+ * turns it into a plain {@link DocumentList}.</p>
+ *
+ * <p>If a page holds fewer documents than expected, because documents were removed after the size was counted,
+ * the list ends with that page.</p>
+ *
+ * @param <T> the element type
+ */
+public class PagedDocumentList<T> extends DocumentList<T> {
+
+    public static final int DEFAULT_PAGE_SIZE = 100;
+
+    private static final int CACHED_PAGES = 4;
+
+    /**
+     * Fetches a page of a query result.
+     *
+     * @param <T> the element type
+     */
+    public interface PageLoader<T> {
+
+        /**
+         * @param offset the index of the first element to load
+         * @param limit  the maximum number of elements to load
+         * @return the elements of the page, in list order
+         */
+        List<T> load(int offset, int limit);
+    }
+
+    private int size;
+    private final int pageSize;
+    private final Map<Integer, List<T>> pages;
+    private PageLoader<T> loader;
+
+    public PagedDocumentList(int size, PageLoader<T> loader) {
+        this(size, DEFAULT_PAGE_SIZE, loader);
+    }
+
+    public PagedDocumentList(int size, int pageSize, PageLoader<T> loader) {
+        this.size = size;
+        this.pageSize = Math.max(1, pageSize);
+        this.loader = loader;
+        this.pages = new LinkedHashMap<Integer, List<T>>(CACHED_PAGES + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+                return size() > CACHED_PAGES;
+            }
+        };
+    }
+
+    @Override
+    public synchronized T get(int index) {
+        if (isMaterialized()) {
+            return super.get(index);
+        }
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        List<T> page = page(index / pageSize);
+        int offset = index % pageSize;
+        if (offset >= page.size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return page.get(offset);
+    }
+
+    /**
+     * @return an iterator which ends early if a page turns out to be short
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int cursor;
+            private int lastReturned = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return exists(cursor);
+            }
+
+            @Override
+            public T next() {
+                checkForComodification();
+                if (!exists(cursor)) {
+                    throw new NoSuchElementException();
+                }
+                lastReturned = cursor;
+                return get(cursor++);
+            }
+
+            @Override
+            public void remove() {
+                if (lastReturned < 0) {
+                    throw new IllegalStateException();
+                }
+                checkForComodification();
+                PagedDocumentList.this.remove(lastReturned);
+                cursor = lastReturned;
+                lastReturned = -1;
+                expectedModCount = modCount;
+            }
+
+            private void checkForComodification() {
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        };
+    }
+
+    @Override
+    public synchronized int size() {
+        return isMaterialized() ? super.size() : size;
+    }
+
+    /**
+     * @return a copy which shares the pages loaded so far and loads further pages on its own
+     */
+    @Override
+    public synchronized DocumentList<T> copy() {
+        if (isMaterialized()) {
+            return super.copy();
+        }
+        PagedDocumentList<T> copy = new PagedDocumentList<>(size, pageSize, loader);
+        // the loaded pages are never modified, a modified list copies them first
+        copy.pages.putAll(pages);
+        return copy;
+    }
+
+    @Override
+    public synchronized T set(int index, T element) {
+        materialize();
+        return super.set(index, element);
+    }
+
+    @Override
+    public synchronized void add(int index, T element) {
+        materialize();
+        super.add(index, element);
+    }
+
+    @Override
+    public synchronized T remove(int index) {
+        materialize();
+        return super.remove(index);
+    }
+
+    private synchronized boolean exists(int index) {
+        if (isMaterialized() || index >= size) {
+            return index < size();
+        }
+        // loading the page may shorten the list
+        page(index / pageSize);
+        return index < size;
+    }
+
+    private boolean isMaterialized() {
+        return loader == null;
+    }
+
+    private List<T> page(int number) {
+        List<T> page = pages.get(number);
+        if (page == null) {
+            int offset = number * pageSize;
+            page = loader.load(offset, pageSize);
+            pages.put(number, page);
+            if (page.size() < Math.min(pageSize, size - offset)) {
+                size = offset + page.size();
+            }
+        }
+        return page;
+    }
+
+    private void materialize() {
+        if (isMaterialized()) {
+            return;
+        }
+        List<T> all = new ArrayList<>(size);
+        for (int number = 0; number * pageSize < size; number++) {
+            all.addAll(page(number));
+        }
+        loader = null;
+        pages.clear();
+        super.addAll(all);
+    }
+}
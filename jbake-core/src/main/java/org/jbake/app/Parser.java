@@ -3,6 +3,7 @@ package org.jbake.app;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.model.DocumentModel;
 import org.jbake.parser.Engines;
+import org.jbake.parser.MarkupEngine;
 import org.jbake.parser.ParserEngine;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -43,4 +44,22 @@ public class Parser {
 
         return engine.parse(config, file);
     }
+
+    /**
+     * Process only the header of the file, without converting the body of a markup file.
+     *
+     * @param file File input for parsing
+     * @return The contents of the file, without body if it is a markup file
+     */
+    public DocumentModel processHeader(File file) {
+        ParserEngine engine = Engines.get(FileUtil.fileExt(file));
+        if (engine == null) {
+            LOGGER.error("Unable to find suitable markup engine for {}", file);
+            return null;
+        }
+        if (engine instanceof MarkupEngine) {
+            return ((MarkupEngine) engine).parse(config, file, false);
+        }
+        return engine.parse(config, file);
+    }
 }
@@ -13,14 +13,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.nio.file.Files;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Render output to a file.
@@ -38,6 +40,10 @@ public class Renderer {
     private final JBakeConfiguration config;
     private final DelegatingTemplateEngine renderingEngine;
     private final ContentStore db;
+    private final OutputWriter output;
+    private final AtomicInteger writtenFileCount = new AtomicInteger();
+    private final AtomicInteger skippedFileCount = new AtomicInteger();
+    private OutputManifest outputManifest;
 
     /**
      * @param db            The database holding the content
@@ -84,6 +90,7 @@ public class Renderer {
         this.config = config;
         this.renderingEngine = new DelegatingTemplateEngine(db, config);
         this.db = db;
+        this.output = new OutputWriter(config.getRenderWriteThreads());
     }
 
     /**
@@ -97,6 +104,7 @@ public class Renderer {
         this.config = config;
         this.renderingEngine = renderingEngine;
         this.db = db;
+        this.output = new OutputWriter(config.getRenderWriteThreads());
     }
 
     private String findTemplateName(String docType) {
@@ -116,31 +124,26 @@ public class Renderer {
             outputFilename = outputFilename.substring(0, outputFilename.lastIndexOf('.'));
         }
 
-        // delete existing versions if they exist in case status has changed either way
         String outputExtension = config.getOutputExtensionByDocType(docType);
         File draftFile = new File(outputFilename, config.getDraftSuffix() + outputExtension);
-        if (draftFile.exists()) {
-            Files.delete(draftFile.toPath());
-        }
-
         File publishedFile = new File(outputFilename + outputExtension);
-        if (publishedFile.exists()) {
-            Files.delete(publishedFile.toPath());
-        }
 
         if (content.getStatus().equals(ModelAttributes.Status.DRAFT)) {
             outputFilename = outputFilename + config.getDraftSuffix();
         }
 
         File outputFile = new File(outputFilename + outputExtension);
+
+        // delete existing versions if they exist in case status has changed either way
+        deleteStaleOutput(draftFile, outputFile);
+        deleteStaleOutput(publishedFile, outputFile);
+
         TemplateModel model = new TemplateModel();
         model.setContent(content);
         model.setRenderer(renderingEngine);
 
         try {
-            try (Writer out = createWriter(outputFile)) {
-                renderingEngine.renderDocument(model, findTemplateName(docType), out);
-            }
+            write(outputFile, model, findTemplateName(docType));
             logger.info("Rendering [{}]... done!", outputFile);
         } catch (Exception e) {
             logger.error("Rendering [{}]... failed!", outputFile, e);
@@ -148,21 +151,122 @@ public class Renderer {
         }
     }
 
-    private Writer createWriter(File file) throws IOException {
-        if (!file.exists()) {
-            file.getParentFile().mkdirs();
-            file.createNewFile();
+    /**
+     * A file which is about to be rendered again is only kept when unchanged files are skipped, as its content
+     * is compared to the new one before writing.
+     */
+    private void deleteStaleOutput(File file, File outputFile) throws IOException {
+        if (!(config.getRenderSkipUnchanged() && file.equals(outputFile))) {
+            Files.deleteIfExists(file.toPath());
+        }
+    }
+
+    /**
+     * Render a template to a file. The output is rendered to a buffer first and handed to the {@link OutputWriter}.
+     * When unchanged files are skipped, the file is only written if the hash of the output differs from the one
+     * recorded by the previous bake.
+     */
+    private void write(File outputFile, TemplateModel model, String templateName) throws Exception {
+        OutputWriter.OutputBuffer buffer = output.acquire();
+        try (Writer out = new OutputStreamWriter(buffer, config.getRenderEncoding())) {
+            renderingEngine.renderDocument(model, templateName, out);
+        } catch (Exception e) {
+            output.release(buffer);
+            throw e;
+        }
+
+        if (!config.getRenderSkipUnchanged()) {
+            output.write(outputFile, buffer, new Runnable() {
+                @Override
+                public void run() {
+                    writtenFileCount.incrementAndGet();
+                }
+            });
+            return;
+        }
+
+        final String path = outputPath(outputFile);
+        final String hash = buffer.hash();
+        final OutputManifest manifest = getOutputManifest();
+        if (manifest.isUnchanged(path, hash) && outputFile.isFile() && outputFile.length() == buffer.size()) {
+            output.release(buffer);
+            skippedFileCount.incrementAndGet();
+            logger.debug("Skipping unchanged file [{}]", outputFile);
+            return;
+        }
+        output.write(outputFile, buffer, new Runnable() {
+            @Override
+            public void run() {
+                manifest.update(path, hash);
+                writtenFileCount.incrementAndGet();
+            }
+        });
+    }
+
+    private String outputPath(File outputFile) {
+        String path = config.getDestinationFolder().getAbsoluteFile().toPath()
+            .relativize(outputFile.getAbsoluteFile().toPath()).toString();
+        return path.replace(File.separatorChar, '/');
+    }
+
+    private synchronized OutputManifest getOutputManifest() {
+        if (outputManifest == null) {
+            outputManifest = OutputManifest.load(config.getOutputManifestFile());
+        }
+        return outputManifest;
+    }
+
+    /**
+     * Wait until the rendered files are written, see {@link JBakeConfiguration#getRenderWriteThreads()}. The
+     * listing pages are flushed when they are rendered, the pages of documents rendered with
+     * {@link #render(DocumentModel)} have to be flushed before they are considered rendered.
+     *
+     * @throws IOException if a file written in the background could not be written
+     */
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    /**
+     * Persist the hashes of the files written by this renderer, so the next bake can skip unchanged files.
+     * Does nothing unless unchanged files are skipped.
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    public void saveOutputManifest() throws IOException {
+        if (config.getRenderSkipUnchanged()) {
+            getOutputManifest().save();
         }
+    }
 
-        return new OutputStreamWriter(new FileOutputStream(file), config.getRenderEncoding());
+    /**
+     * Start counting the written and skipped files of a new bake, e.g. when the same renderer bakes again in
+     * watch mode.
+     */
+    public void resetFileCounts() {
+        writtenFileCount.set(0);
+        skippedFileCount.set(0);
+    }
+
+    /**
+     * @return the number of files written by this renderer since the counts were reset
+     */
+    public int getWrittenFileCount() {
+        return writtenFileCount.get();
+    }
+
+    /**
+     * @return the number of rendered files which were not written because their content did not change, since
+     * the counts were reset
+     */
+    public int getSkippedFileCount() {
+        return skippedFileCount.get();
     }
 
     private void render(RenderingConfig renderConfig) throws Exception {
         File outputFile = renderConfig.getPath();
         try {
-            try (Writer out = createWriter(outputFile)) {
-                renderingEngine.renderDocument(renderConfig.getModel(), renderConfig.getTemplate(), out);
-            }
+            write(outputFile, renderConfig.getModel(), renderConfig.getTemplate());
             logger.info("Rendering {} [{}]... done!", renderConfig.getName(), outputFile);
         } catch (Exception e) {
             logger.error("Rendering {} [{}]... failed!", renderConfig.getName(), outputFile, e);
@@ -178,6 +282,7 @@ public class Renderer {
      */
     public void renderIndex(String indexFile) throws Exception {
         render(new DefaultRenderingConfig(indexFile, MASTERINDEX_TEMPLATE_NAME));
+        flush();
     }
 
     public void renderIndexPaging(String indexFile) throws Exception {
@@ -219,6 +324,7 @@ public class Renderer {
                     render(renderConfig);
                 }
                 db.resetPagination();
+                flush();
             } catch (Exception e) {
                 throw new Exception("Failed to render index. Cause: " + e.getMessage(), e);
             }
@@ -235,6 +341,7 @@ public class Renderer {
      */
     public void renderSitemap(String sitemapFile) throws Exception {
         render(new DefaultRenderingConfig(sitemapFile, SITEMAP_TEMPLATE_NAME));
+        flush();
     }
 
     /**
@@ -245,6 +352,7 @@ public class Renderer {
      */
     public void renderFeed(String feedFile) throws Exception {
         render(new DefaultRenderingConfig(feedFile, FEED_TEMPLATE_NAME));
+        flush();
     }
 
     /**
@@ -255,6 +363,7 @@ public class Renderer {
      */
     public void renderArchive(String archiveFile) throws Exception {
         render(new DefaultRenderingConfig(archiveFile, ARCHIVE_TEMPLATE_NAME));
+        flush();
     }
 
     /**
@@ -265,6 +374,7 @@ public class Renderer {
      */
     public void renderError404(String errorFile) throws Exception {
         render(new DefaultRenderingConfig(errorFile, ERROR404_TEMPLATE_NAME));
+        flush();
     }
 
     /**
@@ -275,10 +385,27 @@ public class Renderer {
      * @throws Exception if cannot render tags correctly
      */
     public int renderTags(String tagPath) throws Exception {
+        return renderTags(tagPath, db.getTagIndex().getTags());
+    }
+
+    /**
+     * Render the files of some tags only, e.g. the tags of a changed document, and the tags index if enabled.
+     * Tags no published document carries any longer are skipped.
+     *
+     * @param tagPath The output path
+     * @param tags    The tags to render
+     * @return Number of rendered tags
+     * @throws Exception if cannot render tags correctly
+     */
+    public int renderTags(String tagPath, Collection<String> tags) throws Exception {
         int renderedCount = 0;
         final List<Throwable> errors = new LinkedList<>();
+        final Set<String> publishedTags = db.getTagIndex().getTags();
 
-        for (String tag : db.getAllTags()) {
+        for (String tag : tags) {
+            if (!publishedTags.contains(tag)) {
+                continue;
+            }
             try {
                 TemplateModel model = new TemplateModel();
                 model.setRenderer(renderingEngine);
@@ -318,6 +445,12 @@ public class Renderer {
             }
         }
 
+        try {
+            flush();
+        } catch (IOException e) {
+            errors.add(e);
+        }
+
         if (!errors.isEmpty()) {
             StringBuilder sb = new StringBuilder();
             sb.append("Failed to render tags. Cause(s):");
@@ -0,0 +1,253 @@
+package org.jbake.app;
+
+import org.jbake.app.configuration.JBakeConfiguration;
+import org.jbake.parser.Engines;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classified inventory of the source files of a bake: content files, data files, asset files, the other files of
+ * the content folder which are copied like assets, and template files.
+ *
+ * <p>Every source folder is walked at most once, the first time one of its lists is requested, and the file
+ * attributes are read only once per file. Folders containing the ignore file are skipped with all their
+ * children. The lists are ordered like a depth first walk visiting the entries of each folder in sorted order, so
+ * all phases of a bake process the files in the same order as before.</p>
+ *
+ * <p>The inventory is a snapshot, a new instance should be used for every bake.</p>
+ */
+public class SourceInventory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SourceInventory.class);
+
+    private final JBakeConfiguration config;
+    private List<File> contentFiles;
+    private List<File> contentAssetFiles;
+    private List<File> dataFiles;
+    private List<File> assetFiles;
+    private List<File> templateFiles;
+
+    public SourceInventory(JBakeConfiguration config) {
+        this.config = config;
+    }
+
+    /**
+     * @return the files of the content folder with the extension of a registered markup engine
+     */
+    public synchronized List<File> getContentFiles() {
+        scanContentFolder();
+        return contentFiles;
+    }
+
+    /**
+     * @return the files of the content folder without the extension of a registered markup engine, which are
+     * copied to the destination folder like assets
+     */
+    public synchronized List<File> getContentAssetFiles() {
+        scanContentFolder();
+        return contentAssetFiles;
+    }
+
+    /**
+     * @return the YAML files of the data folder
+     */
+    public synchronized List<File> getDataFiles() {
+        if (dataFiles == null) {
+            final List<File> files = new ArrayList<>();
+            walk(config.getDataFolder(), 1, new Classifier() {
+                @Override
+                public boolean enter(Path dir) {
+                    return true;
+                }
+
+                @Override
+                public void visit(Path file) {
+                    String extension = FileUtil.fileExt(file.getFileName().toString());
+                    if ("yaml".equalsIgnoreCase(extension) || "yml".equalsIgnoreCase(extension)) {
+                        files.add(file.toFile());
+                    }
+                }
+            });
+            dataFiles = Collections.unmodifiableList(files);
+        }
+        return dataFiles;
+    }
+
+    /**
+     * @return the files of the asset folder, without hidden files if they are ignored
+     */
+    public synchronized List<File> getAssetFiles() {
+        if (assetFiles == null) {
+            final List<File> files = new ArrayList<>();
+            final boolean ignoreHidden = config.getAssetIgnoreHidden();
+            walk(config.getAssetFolder(), Integer.MAX_VALUE, new Classifier() {
+                @Override
+                public boolean enter(Path dir) throws IOException {
+                    return !(ignoreHidden && Files.isHidden(dir)) && !isIgnored(dir);
+                }
+
+                @Override
+                public void visit(Path file) throws IOException {
+                    if (!(ignoreHidden && Files.isHidden(file))) {
+                        files.add(file.toFile());
+                    }
+                }
+            });
+            assetFiles = Collections.unmodifiableList(files);
+        }
+        return assetFiles;
+    }
+
+    /**
+     * @return all files of the template folder
+     */
+    public synchronized List<File> getTemplateFiles() {
+        if (templateFiles == null) {
+            final List<File> files = new ArrayList<>();
+            walk(config.getTemplateFolder(), Integer.MAX_VALUE, new Classifier() {
+                @Override
+                public boolean enter(Path dir) {
+                    return true;
+                }
+
+                @Override
+                public void visit(Path file) {
+                    files.add(file.toFile());
+                }
+            });
+            templateFiles = Collections.unmodifiableList(files);
+        }
+        return templateFiles;
+    }
+
+    private void scanContentFolder() {
+        if (contentFiles != null) {
+            return;
+        }
+        final List<File> content = new ArrayList<>();
+        final List<File> assets = new ArrayList<>();
+        final Set<String> extensions = Engines.getRecognizedExtensions();
+        walk(config.getContentFolder(), Integer.MAX_VALUE, new Classifier() {
+            @Override
+            public boolean enter(Path dir) throws IOException {
+                return !isIgnored(dir);
+            }
+
+            @Override
+            public void visit(Path file) throws IOException {
+                if (Files.isHidden(file)) {
+                    return;
+                }
+                if (extensions.contains(FileUtil.fileExt(file.getFileName().toString()))) {
+                    content.add(file.toFile());
+                } else {
+                    assets.add(file.toFile());
+                }
+            }
+        });
+        contentFiles = Collections.unmodifiableList(content);
+        contentAssetFiles = Collections.unmodifiableList(assets);
+    }
+
+    /**
+     * The ignore file name is matched ignoring case, like {@link FileUtil#directoryOnlyIfNotIgnored(File, JBakeConfiguration)}.
+     */
+    private boolean isIgnored(Path dir) throws IOException {
+        String ignoreFileName = config.getIgnoreFileName();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) {
+                if (file.getFileName().toString().equalsIgnoreCase(ignoreFileName)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decides which folders are walked and which files are collected.
+     */
+    private interface Classifier {
+
+        /**
+         * @param dir a folder below the root folder
+         * @return true to walk the folder
+         */
+        boolean enter(Path dir) throws IOException;
+
+        /**
+         * @param file a regular file
+         */
+        void visit(Path file) throws IOException;
+    }
+
+    private static void walk(File folder, int maxDepth, final Classifier classifier) {
+        if (folder == null || !folder.isDirectory()) {
+            return;
+        }
+        final Path root = folder.toPath();
+        final List<Path> files = new ArrayList<>();
+        try {
+            Files.walkFileTree(root, EnumSet.of(FileVisitOption.FOLLOW_LINKS), maxDepth, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                    return dir.equals(root) || classifier.enter(dir) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile()) {
+                        files.add(file);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    LOGGER.warn("Unable to read [{}]", file, e);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOGGER.error("Unable to scan folder [{}]", folder, e);
+        }
+
+        Collections.sort(files, new Comparator<Path>() {
+            @Override
+            public int compare(Path first, Path second) {
+                // compare name by name, so the entries of each folder are ordered like File.listFiles() sorted
+                int count = Math.min(first.getNameCount(), second.getNameCount());
+                for (int i = 0; i < count; i++) {
+                    int result = first.getName(i).compareTo(second.getName(i));
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+                return first.getNameCount() - second.getNameCount();
+            }
+        });
+        try {
+            for (Path file : files) {
+                classifier.visit(file);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Unable to scan folder [{}]", folder, e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.jbake.app;
+
+import org.jbake.model.DocumentModel;
+import org.jbake.model.DocumentTypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Read-only inverted index from tag to the published documents carrying it, built with one query per
+ * document type instead of several queries per tag.
+ *
+ * <p>The index keeps the query result of every document type, which the stores load page by page, and no
+ * documents of its own. The postings of a tag are the positions of its documents, grouped by document type in
+ * the order the types were registered and ordered by date with the newest document first within a type, just
+ * like {@link ContentStore#getPublishedDocumentsByTag(String)}. Posts are counted separately, so the tagged posts
+ * of {@link ContentStore#getPublishedPostsByTag(String)} are a filtered walk over the same postings. The
+ * documents of a tag are only fetched from the query results when the list of the tag is read. The index can
+ * be shared between rendering threads, the lists it returns share their documents and must not be
+ * modified.</p>
+ *
+ * @see ContentStore#getTagIndex()
+ */
+public final class TagIndex {
+
+    private static final String POST = "post";
+
+    private final List<DocumentList<DocumentModel>> published;
+    private final int[] starts;
+    private final boolean[] posts;
+    private final Map<String, Postings> postings;
+    private final List<String> documentTypes;
+
+    private TagIndex(List<DocumentList<DocumentModel>> published, List<String> documentTypes) {
+        this.published = published;
+        this.starts = new int[published.size()];
+        int count = 0;
+        for (int i = 0; i < published.size(); i++) {
+            starts[i] = count;
+            count += published.get(i).size();
+        }
+        this.posts = new boolean[count];
+        this.postings = new TreeMap<>();
+        this.documentTypes = documentTypes;
+
+        for (int i = 0; i < published.size(); i++) {
+            int position = starts[i];
+            // read the documents in order, so paged results only hold a few pages at a time
+            for (DocumentModel document : published.get(i)) {
+                posts[position] = POST.equals(document.getType());
+                for (String tag : document.getTags()) {
+                    if (tag == null) {
+                        continue;
+                    }
+                    Postings tagPostings = postings.get(tag);
+                    if (tagPostings == null) {
+                        tagPostings = new Postings();
+                        postings.put(tag, tagPostings);
+                    }
+                    tagPostings.add(position, posts[position]);
+                }
+                position++;
+            }
+        }
+    }
+
+    /**
+     * Index the published documents of all registered document types.
+     *
+     * @param db the content store to query
+     * @return the tag index
+     */
+    public static TagIndex build(ContentStore db) {
+        List<String> documentTypes = Arrays.asList(DocumentTypes.getDocumentTypes());
+        List<DocumentList<DocumentModel>> published = new ArrayList<>();
+        for (String docType : documentTypes) {
+            published.add(db.getPublishedContent(docType));
+        }
+        return new TagIndex(published, documentTypes);
+    }
+
+    /**
+     * @return true if the index was built for the currently registered document types
+     */
+    public boolean isCurrent() {
+        return documentTypes.equals(Arrays.asList(DocumentTypes.getDocumentTypes()));
+    }
+
+    /**
+     * @return the tags of all published documents, in alphabetical order
+     */
+    public Set<String> getTags() {
+        return Collections.unmodifiableSet(postings.keySet());
+    }
+
+    /**
+     * @param tag a tag
+     * @return the number of published documents carrying the tag
+     */
+    public int getDocumentCount(String tag) {
+        Postings tagPostings = postingsOf(tag);
+        return tagPostings != null ? tagPostings.size : 0;
+    }
+
+    /**
+     * @param tag a tag
+     * @return the number of published posts carrying the tag
+     */
+    public int getPostCount(String tag) {
+        Postings tagPostings = postingsOf(tag);
+        return tagPostings != null ? tagPostings.postCount : 0;
+    }
+
+    /**
+     * @param tag a tag
+     * @return the published posts carrying the tag, the newest first
+     */
+    public DocumentList<DocumentModel> getPublishedPosts(String tag) {
+        Postings tagPostings = postingsOf(tag);
+        if (tagPostings == null) {
+            return new DocumentList<>();
+        }
+        int[] postPositions = new int[tagPostings.postCount];
+        int count = 0;
+        for (int i = 0; i < tagPostings.size; i++) {
+            int position = tagPostings.positions[i];
+            if (posts[position]) {
+                postPositions[count++] = position;
+            }
+        }
+        return documentsAt(postPositions, count);
+    }
+
+    /**
+     * @param tag a tag
+     * @return the published documents carrying the tag, grouped by document type and the newest first
+     */
+    public DocumentList<DocumentModel> getPublishedDocuments(String tag) {
+        Postings tagPostings = postingsOf(tag);
+        if (tagPostings == null) {
+            return new DocumentList<>();
+        }
+        return documentsAt(tagPostings.positions, tagPostings.size);
+    }
+
+    private DocumentList<DocumentModel> documentsAt(final int[] positions, final int size) {
+        return new PagedDocumentList<>(size, new PagedDocumentList.PageLoader<DocumentModel>() {
+            @Override
+            public List<DocumentModel> load(int offset, int limit) {
+                List<DocumentModel> page = new ArrayList<>(limit);
+                for (int i = offset; i < offset + limit && i < size; i++) {
+                    page.add(documentAt(positions[i]));
+                }
+                return page;
+            }
+        });
+    }
+
+    private DocumentModel documentAt(int position) {
+        int type = Arrays.binarySearch(starts, position);
+        if (type < 0) {
+            type = -type - 2;
+        } else {
+            // skip document types without documents starting at the same position
+            while (type + 1 < starts.length && starts[type + 1] == position) {
+                type++;
+            }
+        }
+        return published.get(type).get(position - starts[type]);
+    }
+
+    private Postings postingsOf(String tag) {
+        return tag != null ? postings.get(tag) : null;
+    }
+
+    private static final class Postings {
+        private int[] positions = new int[4];
+        private int size;
+        private int postCount;
+
+        void add(int position, boolean post) {
+            if (size > 0 && positions[size - 1] == position) {
+                // the tag is listed twice in the same document
+                return;
+            }
+            if (size == positions.length) {
+                positions = Arrays.copyOf(positions, size * 2);
+            }
+            positions[size++] = position;
+            if (post) {
+                postCount++;
+            }
+        }
+    }
+}
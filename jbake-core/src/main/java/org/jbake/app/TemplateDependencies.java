@@ -0,0 +1,237 @@
+package org.jbake.app;
+
+import org.apache.commons.io.FilenameUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Dependency graph of the files in the template folder, with a Merkle style hash per template.
+ *
+ * <p>A template depends on the templates it includes, imports or extends. The references are found by a
+ * textual scan, which recognizes the relative path or the file name of another template, as used by FreeMarker,
+ * Groovy, Pebble and Jade, a Jade {@code include}/{@code extends} without extension and a Thymeleaf
+ * fragment expression like {@code header :: content}. The hash of a template covers its own content and the
+ * content of everything it depends on, directly or indirectly, so it changes whenever any of these files change.</p>
+ *
+ * <p>The hashes are kept between bakes as the templates signature of the {@link ContentStore}, so after a
+ * template change only the documents rendered with an affected template have to be rendered again.</p>
+ */
+public final class TemplateDependencies {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TemplateDependencies.class);
+
+    private static final String ENTRY_SEPARATOR = "\n";
+    private static final char HASH_SEPARATOR = '=';
+
+    private final Map<String, String> hashes;
+    private final Map<String, Set<String>> closures;
+
+    private TemplateDependencies(Map<String, String> hashes, Map<String, Set<String>> closures) {
+        this.hashes = hashes;
+        this.closures = closures;
+    }
+
+    /**
+     * Scan the template folder.
+     *
+     * @param templateFolder the template folder
+     * @return the dependency graph of the templates
+     */
+    public static TemplateDependencies scan(File templateFolder) {
+        List<String> paths = new ArrayList<>();
+        listFiles(templateFolder, "", paths);
+        return scan(templateFolder, paths);
+    }
+
+    /**
+     * Scan the given files of the template folder.
+     *
+     * @param sources the source files of the bake, providing the template files
+     * @param templateFolder the template folder
+     * @return the dependency graph of the templates
+     */
+    public static TemplateDependencies scan(SourceInventory sources, File templateFolder) {
+        Path root = templateFolder.toPath();
+        List<String> paths = new ArrayList<>();
+        for (File file : sources.getTemplateFiles()) {
+            paths.add(FileUtil.asPath(root.relativize(file.toPath()).toString()));
+        }
+        return scan(templateFolder, paths);
+    }
+
+    private static TemplateDependencies scan(File templateFolder, List<String> paths) {
+        Map<String, String> contentHashes = new TreeMap<>();
+        Map<String, String> texts = new TreeMap<>();
+        for (String path : paths) {
+            File file = new File(templateFolder, path);
+            try {
+                byte[] content = Files.readAllBytes(file.toPath());
+                contentHashes.put(path, FileUtil.toHex(MessageDigest.getInstance("SHA-1").digest(content)));
+                texts.put(path, new String(content, StandardCharsets.UTF_8));
+            } catch (IOException | NoSuchAlgorithmException e) {
+                LOGGER.warn("Unable to read template {}", file, e);
+                contentHashes.put(path, "");
+                texts.put(path, "");
+            }
+        }
+
+        Map<String, Set<String>> references = new TreeMap<>();
+        for (String path : paths) {
+            references.put(path, new TreeSet<String>());
+        }
+        for (String referenced : paths) {
+            Pattern pattern = referencePattern(referenced);
+            for (Map.Entry<String, String> text : texts.entrySet()) {
+                if (!text.getKey().equals(referenced) && pattern.matcher(text.getValue()).find()) {
+                    references.get(text.getKey()).add(referenced);
+                }
+            }
+        }
+
+        Map<String, String> hashes = new TreeMap<>();
+        Map<String, Set<String>> closures = new TreeMap<>();
+        for (String path : paths) {
+            Set<String> closure = closure(path, references);
+            closures.put(path, closure);
+            hashes.put(path, hashOf(closure, contentHashes));
+        }
+        return new TemplateDependencies(hashes, closures);
+    }
+
+    /**
+     * Restore the hashes of a previous scan.
+     *
+     * @param signature the signature of a previous scan, see {@link #getSignature()}, or null
+     * @return the hashes of the previous scan, without dependencies. A missing or unknown signature results in
+     * no hashes at all, so every template counts as changed.
+     */
+    public static TemplateDependencies parse(String signature) {
+        Map<String, String> hashes = new TreeMap<>();
+        if (signature != null) {
+            for (String entry : signature.split(ENTRY_SEPARATOR)) {
+                int separator = entry.lastIndexOf(HASH_SEPARATOR);
+                if (separator > 0) {
+                    hashes.put(entry.substring(0, separator), entry.substring(separator + 1));
+                }
+            }
+        }
+        return new TemplateDependencies(hashes, Collections.<String, Set<String>>emptyMap());
+    }
+
+    /**
+     * @return the hash of every template, to be stored as templates signature and restored with {@link #parse(String)}
+     */
+    public String getSignature() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(ENTRY_SEPARATOR);
+            }
+            sb.append(entry.getKey()).append(HASH_SEPARATOR).append(entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @param previous the templates of a previous bake
+     * @return the paths of the templates which were added, removed or whose hash changed, i.e. which changed
+     * themselves or depend on a changed template
+     */
+    public Set<String> getChangedTemplates(TemplateDependencies previous) {
+        Set<String> changed = new TreeSet<>();
+        for (Map.Entry<String, String> entry : hashes.entrySet()) {
+            if (!entry.getValue().equals(previous.hashes.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String path : previous.hashes.keySet()) {
+            if (!hashes.containsKey(path)) {
+                changed.add(path);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @param template the path of a template relative to the template folder
+     * @return the template and the paths of all templates it depends on, directly or indirectly
+     */
+    public Set<String> getDependencies(String template) {
+        Set<String> closure = closures.get(template);
+        return closure != null ? Collections.unmodifiableSet(closure) : Collections.<String>emptySet();
+    }
+
+    private static void listFiles(File folder, String prefix, List<String> paths) {
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isFile()) {
+                paths.add(prefix + file.getName());
+            } else if (file.isDirectory()) {
+                listFiles(file, prefix + file.getName() + FileUtil.URI_SEPARATOR_CHAR, paths);
+            }
+        }
+    }
+
+    private static Pattern referencePattern(String path) {
+        String name = FilenameUtils.getName(path);
+        String baseName = Pattern.quote(FilenameUtils.removeExtension(name));
+        String folder = Pattern.quote(FilenameUtils.getPath(path));
+        return Pattern.compile(Pattern.quote(name)
+            + "|\\b(?:include|extends)\\s+['\"]?(?:" + folder + ")?" + baseName + "\\b"
+            + "|(?<![\\w.-])(?:" + folder + ")?" + baseName + "\\s*::");
+    }
+
+    private static Set<String> closure(String path, Map<String, Set<String>> references) {
+        Set<String> closure = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        pending.push(path);
+        while (!pending.isEmpty()) {
+            String next = pending.pop();
+            if (closure.add(next)) {
+                for (String referenced : references.get(next)) {
+                    pending.push(referenced);
+                }
+            }
+        }
+        return new TreeSet<>(closure);
+    }
+
+    private static String hashOf(Set<String> closure, Map<String, String> contentHashes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            for (String path : closure) {
+                digest.update(path.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                digest.update(contentHashes.get(path).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return FileUtil.toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 is not available", e);
+        }
+    }
+}
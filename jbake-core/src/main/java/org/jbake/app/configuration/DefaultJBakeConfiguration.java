@@ -31,6 +31,10 @@ public class DefaultJBakeConfiguration implements JBakeConfiguration {
     private static final Pattern TEMPLATE_DOC_PATTERN = Pattern.compile("(?:template\\.)([a-zA-Z0-9-_]+)(?:\\.file)");
     private static final String DOCTYPE_FILE_POSTFIX = ".file";
     private static final String DOCTYPE_EXTENSION_POSTFIX = ".extension";
+    private static final String OUTPUT_MANIFEST_FILE_NAME = "output.manifest";
+    private static final String FINGERPRINT_MANIFEST_FILE_NAME = "fingerprint.manifest";
+    private static final String ASSET_MANIFEST_FILE_NAME = "asset.manifest";
+    private static final String BODY_CACHE_FOLDER_NAME = "body-cache";
     private static final String DOCTYPE_TEMPLATE_PREFIX = "template.";
     private final Logger logger = LoggerFactory.getLogger(DefaultJBakeConfiguration.class);
     private CompositeConfiguration compositeConfiguration;
@@ -116,6 +120,24 @@ public class DefaultJBakeConfiguration implements JBakeConfiguration {
         return options;
     }
 
+    @Override
+    public boolean getAsciidoctorLoadOnce() {
+        return getAsBoolean(ASCIIDOCTOR_LOAD_ONCE.getKey());
+    }
+
+    public void setAsciidoctorLoadOnce(boolean loadOnce) {
+        setProperty(ASCIIDOCTOR_LOAD_ONCE.getKey(), loadOnce);
+    }
+
+    @Override
+    public int getAsciidoctorPoolSize() {
+        return getAsInt(ASCIIDOCTOR_POOL_SIZE.getKey(), 1);
+    }
+
+    public void setAsciidoctorPoolSize(int poolSize) {
+        setProperty(ASCIIDOCTOR_POOL_SIZE.getKey(), poolSize);
+    }
+
     @Override
     public File getAssetFolder() {
         return getAsFolder(ASSET_FOLDER_KEY);
@@ -141,6 +163,39 @@ public class DefaultJBakeConfiguration implements JBakeConfiguration {
         setProperty(ASSET_IGNORE_HIDDEN.getKey(), assetIgnoreHidden);
     }
 
+    @Override
+    public boolean getAssetSync() {
+        return getAsBoolean(ASSET_SYNC.getKey());
+    }
+
+    public void setAssetSync(boolean sync) {
+        setProperty(ASSET_SYNC.getKey(), sync);
+    }
+
+    @Override
+    public boolean getAssetSyncLink() {
+        return getAsBoolean(ASSET_SYNC_LINK.getKey());
+    }
+
+    public void setAssetSyncLink(boolean link) {
+        setProperty(ASSET_SYNC_LINK.getKey(), link);
+    }
+
+    @Override
+    public File getAssetManifestFile() {
+        return new File(getDatabaseFolder(), ASSET_MANIFEST_FILE_NAME);
+    }
+
+    @Override
+    public int getAssetThreads() {
+        int threads = getAsInt(ASSET_THREADS.getKey(), 1);
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void setAssetThreads(int threads) {
+        setProperty(ASSET_THREADS.getKey(), threads);
+    }
+
     @Override
     public String getAttributesExportPrefixForAsciidoctor() {
         return getAsString(ASCIIDOCTOR_ATTRIBUTES_EXPORT_PREFIX.getKey(), "");
@@ -184,6 +239,71 @@ public class DefaultJBakeConfiguration implements JBakeConfiguration {
         return getAsString(CONTENT_FOLDER.getKey());
     }
 
+    @Override
+    public int getCrawlThreads() {
+        int threads = getAsInt(CRAWL_THREADS.getKey(), 0);
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void setCrawlThreads(int threads) {
+        setProperty(CRAWL_THREADS.getKey(), threads);
+    }
+
+    @Override
+    public boolean getCrawlFingerprints() {
+        return getAsBoolean(CRAWL_FINGERPRINTS.getKey());
+    }
+
+    public void setCrawlFingerprints(boolean fingerprints) {
+        setProperty(CRAWL_FINGERPRINTS.getKey(), fingerprints);
+    }
+
+    @Override
+    public String getCrawlHashAlgorithm() {
+        return getAsString(CRAWL_HASH_ALGORITHM.getKey(), "SHA-1");
+    }
+
+    public void setCrawlHashAlgorithm(String algorithm) {
+        setProperty(CRAWL_HASH_ALGORITHM.getKey(), algorithm);
+    }
+
+    @Override
+    public boolean getCrawlDeferBody() {
+        return getAsBoolean(CRAWL_DEFER_BODY.getKey());
+    }
+
+    public void setCrawlDeferBody(boolean deferBody) {
+        setProperty(CRAWL_DEFER_BODY.getKey(), deferBody);
+    }
+
+    @Override
+    public boolean getBodyCache() {
+        return getAsBoolean(BODY_CACHE.getKey());
+    }
+
+    public void setBodyCache(boolean bodyCache) {
+        setProperty(BODY_CACHE.getKey(), bodyCache);
+    }
+
+    @Override
+    public int getBodyCacheSize() {
+        return getAsInt(BODY_CACHE_SIZE.getKey(), 256);
+    }
+
+    public void setBodyCacheSize(int megabytes) {
+        setProperty(BODY_CACHE_SIZE.getKey(), megabytes);
+    }
+
+    @Override
+    public File getBodyCacheFolder() {
+        return new File(getDatabaseFolder(), BODY_CACHE_FOLDER_NAME);
+    }
+
+    @Override
+    public File getFingerprintManifestFile() {
+        return new File(getDatabaseFolder(), FINGERPRINT_MANIFEST_FILE_NAME);
+    }
+
     @Override
     public File getDataFolder() {
         return getAsFolder(DATA_FOLDER_KEY);
@@ -209,6 +329,15 @@ public class DefaultJBakeConfiguration implements JBakeConfiguration {
         setProperty(DATA_FILE_DOCTYPE.getKey(), dataFileDocType);
     }
 
+    @Override
+    public int getDatabaseBatchSize() {
+        return Math.max(1, getAsInt(DB_BATCH_SIZE.getKey(), 100));
+    }
+
+    public void setDatabaseBatchSize(int batchSize) {
+        setProperty(DB_BATCH_SIZE.getKey(), batchSize);
+    }
+
     @Override
     public String getDatabasePath() {
         return getAsString(DB_PATH.getKey());
@@ -405,6 +534,56 @@ public class DefaultJBakeConfiguration implements JBakeConfiguration {
         return getAsBoolean(RENDER_SITEMAP.getKey());
     }
 
+    @Override
+    public boolean getRenderSkipUnchanged() {
+        return getAsBoolean(RENDER_SKIP_UNCHANGED.getKey());
+    }
+
+    public void setRenderSkipUnchanged(boolean skipUnchanged) {
+        setProperty(RENDER_SKIP_UNCHANGED.getKey(), skipUnchanged);
+    }
+
+    @Override
+    public File getOutputManifestFile() {
+        return new File(getDatabaseFolder(), OUTPUT_MANIFEST_FILE_NAME);
+    }
+
+    private File getDatabaseFolder() {
+        File databaseFolder = new File(getDatabasePath());
+        if (!databaseFolder.isAbsolute()) {
+            databaseFolder = new File(getSourceFolder(), getDatabasePath());
+        }
+        return databaseFolder;
+    }
+
+    @Override
+    public int getRenderThreads() {
+        int threads = getAsInt(RENDER_THREADS.getKey(), 1);
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void setRenderThreads(int threads) {
+        setProperty(RENDER_THREADS.getKey(), threads);
+    }
+
+    @Override
+    public int getRenderWriteThreads() {
+        return Math.max(0, getAsInt(RENDER_WRITE_THREADS.getKey(), 0));
+    }
+
+    public void setRenderWriteThreads(int threads) {
+        setProperty(RENDER_WRITE_THREADS.getKey(), threads);
+    }
+
+    @Override
+    public int getRenderModelCacheSize() {
+        return Math.max(0, getAsInt(RENDER_MODEL_CACHE_SIZE.getKey(), 1000));
+    }
+
+    public void setRenderModelCacheSize(int size) {
+        setProperty(RENDER_MODEL_CACHE_SIZE.getKey(), size);
+    }
+
     @Override
     public boolean getRenderTags() {
         return getAsBoolean(RENDER_TAGS.getKey());
@@ -667,6 +846,15 @@ public class DefaultJBakeConfiguration implements JBakeConfiguration {
         setProperty(IMG_PATH_UPDATE.getKey(), imgPathUpdate);
     }
 
+    @Override
+    public List<String> getImgPathUpdateAttributes() {
+        return getAsList(IMG_PATH_UPDATE_ATTRIBUTES.getKey());
+    }
+
+    public void setImgPathUpdateAttributes(String... attributes) {
+        setProperty(IMG_PATH_UPDATE_ATTRIBUTES.getKey(), StringUtils.join(attributes, ","));
+    }
+
     public List<Property> getJbakeProperties() {
 
         List<Property> jbakeKeys = new ArrayList<>();
@@ -47,6 +47,18 @@ public interface JBakeConfiguration {
      */
     List<String> getAsciidoctorOptionKeys();
 
+    /**
+     * @return Flag indicating if an asciidoc document without JBake header is loaded once, to read its header
+     * and to convert it, instead of reading the header and converting the document separately
+     */
+    boolean getAsciidoctorLoadOnce();
+
+    /**
+     * @return the number of Asciidoctor runtimes converting documents, each runtime takes a few seconds to start
+     * and its own memory
+     */
+    int getAsciidoctorPoolSize();
+
     /**
      * @return the folder where assets are stored, they are copied directly in output folder and not processed
      */
@@ -62,6 +74,26 @@ public interface JBakeConfiguration {
      */
     boolean getAssetIgnoreHidden();
 
+    /**
+     * @return Flag indicating if only new or changed assets are copied and the copies of removed assets are deleted
+     */
+    boolean getAssetSync();
+
+    /**
+     * @return Flag indicating if synchronized assets are hard linked instead of copied, where the file system allows it
+     */
+    boolean getAssetSyncLink();
+
+    /**
+     * @return File keeping the state of the synchronized assets, next to the persistent database
+     */
+    File getAssetManifestFile();
+
+    /**
+     * @return Number of worker threads used to copy assets, always at least 1
+     */
+    int getAssetThreads();
+
     /**
      * @return Prefix to be used when exporting JBake properties to Asciidoctor
      */
@@ -87,6 +119,46 @@ public interface JBakeConfiguration {
      */
     String getContentFolderName();
 
+    /**
+     * @return Number of worker threads used to parse content files, always at least 1
+     */
+    int getCrawlThreads();
+
+    /**
+     * @return Flag indicating if source files are only hashed when their size, modification time or file key changed
+     */
+    boolean getCrawlFingerprints();
+
+    /**
+     * @return Algorithm used to hash source files, a {@link java.security.MessageDigest} algorithm or CRC32
+     */
+    String getCrawlHashAlgorithm();
+
+    /**
+     * @return Flag indicating if the crawl only reads the headers of content files and their bodies are converted on first access
+     */
+    boolean getCrawlDeferBody();
+
+    /**
+     * @return Flag indicating if converted document bodies are kept in the body cache
+     */
+    boolean getBodyCache();
+
+    /**
+     * @return Maximum size of the body cache in megabytes
+     */
+    int getBodyCacheSize();
+
+    /**
+     * @return Folder of the body cache, next to the persistent database
+     */
+    File getBodyCacheFolder();
+
+    /**
+     * @return File keeping the fingerprints of the source files, next to the persistent database
+     */
+    File getFingerprintManifestFile();
+
     /**
      * @return the data folder
      */
@@ -102,6 +174,11 @@ public interface JBakeConfiguration {
      */
     String getDataFileDocType();
 
+    /**
+     * @return Number of documents written to the database in a single transaction, always at least 1
+     */
+    int getDatabaseBatchSize();
+
     /**
      * @return Folder to store database files in
      */
@@ -253,6 +330,31 @@ public interface JBakeConfiguration {
      */
     boolean getRenderSiteMap();
 
+    /**
+     * @return Number of worker threads used to render documents, always at least 1
+     */
+    int getRenderThreads();
+
+    /**
+     * @return Number of threads writing rendered files in the background, 0 to write them on the rendering thread
+     */
+    int getRenderWriteThreads();
+
+    /**
+     * @return Flag indicating if rendered files are only written when their content changed since the previous bake
+     */
+    boolean getRenderSkipUnchanged();
+
+    /**
+     * @return File keeping the hashes of the rendered files, next to the persistent database
+     */
+    File getOutputManifestFile();
+
+    /**
+     * @return Maximum number of template model query results cached during a bake, 0 disables the cache
+     */
+    int getRenderModelCacheSize();
+
     /**
      * @return Flag indicating if tag files should be generated
      */
@@ -334,6 +436,12 @@ public interface JBakeConfiguration {
      */
     boolean getImgPathUpdate();
 
+    /**
+     * @return the attributes whose paths are updated if {@link #getImgPathUpdate()} is set to true: {@code src}
+     * and {@code srcset} of images and picture sources and {@code href} of links
+     */
+    List<String> getImgPathUpdateAttributes();
+
     /**
      * @return Version of JBake
      */
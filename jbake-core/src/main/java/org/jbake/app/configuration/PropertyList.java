@@ -26,11 +26,21 @@ public abstract class PropertyList {
         "prefix that should be used when JBake config options are exported"
     );
 
+    public static final Property ASCIIDOCTOR_POOL_SIZE = new Property(
+        "asciidoctor.pool.size",
+        "number of Asciidoctor runtimes converting documents"
+    );
+
     public static final Property ASCIIDOCTOR_OPTION = new Property(
         "asciidoctor.option",
         "default asciidoctor options"
     );
 
+    public static final Property ASCIIDOCTOR_LOAD_ONCE = new Property(
+        "asciidoctor.load.once",
+        "load asciidoc documents once to read the header and convert the body"
+    );
+
     public static final Property ASSET_FOLDER = new Property(
         "asset.folder",
         "folder that contains all asset files"
@@ -41,6 +51,21 @@ public abstract class PropertyList {
         "Flag indicating if hidden asset resources should be ignored"
     );
 
+    public static final Property ASSET_SYNC = new Property(
+        "asset.sync",
+        "only copy new or changed assets and delete the copies of assets whose source was removed"
+    );
+
+    public static final Property ASSET_SYNC_LINK = new Property(
+        "asset.sync.link",
+        "hard link synchronized assets instead of copying them, if the destination is on the same file system"
+    );
+
+    public static final Property ASSET_THREADS = new Property(
+        "asset.threads",
+        "number of worker threads used to copy assets (1 = copy serially, 0 = number of available processors)"
+    );
+
     public static final Property BUILD_TIMESTAMP = new Property(
         "build.timestamp",
         "timestamp jbake was build");
@@ -55,6 +80,36 @@ public abstract class PropertyList {
         "folder that contains all content files"
     );
 
+    public static final Property CRAWL_FINGERPRINTS = new Property(
+        "crawl.fingerprints",
+        "only hash source files whose size, modification time or file key changed since the previous bake"
+    );
+
+    public static final Property CRAWL_HASH_ALGORITHM = new Property(
+        "crawl.hash.algorithm",
+        "algorithm used to detect changed source files, a message digest like SHA-1 or MD5, or CRC32"
+    );
+
+    public static final Property BODY_CACHE = new Property(
+        "body.cache",
+        "keep converted document bodies in a cache next to the database, which survives template changes and --reset"
+    );
+
+    public static final Property BODY_CACHE_SIZE = new Property(
+        "body.cache.size",
+        "maximum size of the body cache in megabytes, the least recently used bodies are evicted first"
+    );
+
+    public static final Property CRAWL_DEFER_BODY = new Property(
+        "crawl.defer.body",
+        "only read the header of content files while crawling, the body is converted when it is rendered"
+    );
+
+    public static final Property CRAWL_THREADS = new Property(
+        "crawl.threads",
+        "number of worker threads used to parse content files (0 = number of available processors)"
+    );
+
     public static final Property DATA_FOLDER = new Property(
         "data.folder",
         "folder that contains all data files"
@@ -72,7 +127,12 @@ public abstract class PropertyList {
 
     public static final Property DB_STORE = new Property(
         "db.store",
-        "database store (plocal, memory)"
+        "database store (memory = in-memory without OrientDB, plocal = persistent OrientDB)"
+    );
+
+    public static final Property DB_BATCH_SIZE = new Property(
+        "db.batch.size",
+        "number of documents written to the database in a single transaction"
     );
 
     public static final Property DB_PATH = new Property(
@@ -135,6 +195,11 @@ public abstract class PropertyList {
         "update image path?"
     );
 
+    public static final Property IMG_PATH_UPDATE_ATTRIBUTES = new Property(
+        "img.path.update.attributes",
+        "comma delimited attributes whose image paths are updated: src, srcset and href of links"
+    );
+
     public static final Property IMG_PATH_PREPEND_HOST = new Property(
         "img.path.prepend.host",
         "Prepend site.host to image paths"
@@ -200,11 +265,31 @@ public abstract class PropertyList {
         "render index file?"
     );
 
+    public static final Property RENDER_MODEL_CACHE_SIZE = new Property(
+        "render.model.cache.size",
+        "maximum number of template model query results cached during a bake (0 = disable the cache)"
+    );
+
     public static final Property RENDER_SITEMAP = new Property(
         "render.sitemap",
         "render sitemap.xml file?"
     );
 
+    public static final Property RENDER_SKIP_UNCHANGED = new Property(
+        "render.skip.unchanged",
+        "only write rendered files whose content changed since the previous bake"
+    );
+
+    public static final Property RENDER_THREADS = new Property(
+        "render.threads",
+        "number of worker threads used to render documents (1 = render serially, 0 = number of available processors)"
+    );
+
+    public static final Property RENDER_WRITE_THREADS = new Property(
+        "render.write.threads",
+        "number of threads writing rendered files in the background (0 = write on the rendering thread)"
+    );
+
     public static final Property RENDER_TAGS = new Property(
         "render.tags",
         "render tag files?"
@@ -15,6 +15,7 @@ public class CustomFSChangeListener implements FileListener {
     private static final Logger LOGGER = LoggerFactory.getLogger(CustomFSChangeListener.class);
 
     private final JBakeConfiguration config;
+    private Oven oven;
 
     public CustomFSChangeListener(JBakeConfiguration config) {
         this.config = config;
@@ -38,8 +39,15 @@ public class CustomFSChangeListener implements FileListener {
         exec(event.getFileObject());
     }
 
-    private void exec(FileObject file) {
-        final Oven oven = new Oven(config);
+    /**
+     * The oven is kept between changes together with the documents it baked, so a change to a content file
+     * only bakes the pages depending on it.
+     */
+    private synchronized void exec(FileObject file) {
+        if (oven == null) {
+            oven = new Oven(config);
+            oven.setKeepContentStoreOpen(true);
+        }
         oven.bake(new File(file.getName().getPath()));
     }
 }
@@ -44,6 +44,9 @@ public class LaunchOptions {
     @Option(names = {"-ls", "--list-settings"}, description = "list configuration settings")
     private boolean listConfig;
 
+    @Option(names = {"--cache-stats"}, description = "prints the size and usage of the converted body cache")
+    private boolean cacheStats;
+
     public String getTemplate() {
         return initGroup.template;
     }
@@ -85,7 +88,7 @@ public class LaunchOptions {
     }
 
     public boolean isHelpNeeded() {
-        return helpRequested || !(isListConfig() || isBake() || isRunServer() || isInit() || source != null || destination != null);
+        return helpRequested || !(isListConfig() || isCacheStats() || isBake() || isRunServer() || isInit() || source != null || destination != null);
     }
 
     public boolean isRunServer() {
@@ -108,6 +111,10 @@ public class LaunchOptions {
         return listConfig;
     }
 
+    public boolean isCacheStats() {
+        return cacheStats;
+    }
+
     public String getPropertiesEncoding() {
         return propertiesEncoding;
     }
@@ -1,10 +1,12 @@
 package org.jbake.launcher;
 
 import org.apache.commons.configuration2.ex.ConfigurationException;
+import org.jbake.app.BodyCache;
 import org.jbake.app.FileUtil;
 import org.jbake.app.JBakeException;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.app.configuration.JBakeConfigurationFactory;
+import org.jbake.util.BodyCacheStatsPrinter;
 import org.jbake.util.ConfigurationPrinter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -107,6 +109,12 @@ public class Main {
             return;
         }
 
+        if (res.isCacheStats()) {
+            BodyCacheStatsPrinter printer = new BodyCacheStatsPrinter(BodyCache.open(config), System.out);
+            printer.print();
+            return;
+        }
+
         if (res.isBake()) {
             baker.bake(config);
         }
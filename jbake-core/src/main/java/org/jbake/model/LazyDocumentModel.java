@@ -0,0 +1,222 @@
+package org.jbake.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link DocumentModel} of which some properties, typically the body, are only loaded when they are accessed.
+ *
+ * <p>Accessing a lazy property by key loads all pending lazy properties once. Operations on the whole map,
+ * like iterating over its entries or copying it, load them too, so the model always behaves like a fully
+ * populated document. Setting or removing a lazy property discards its pending value.</p>
+ */
+public class LazyDocumentModel extends DocumentModel {
+
+    /**
+     * Loads the lazy properties of a document.
+     */
+    public interface PropertyLoader {
+
+        /**
+         * @param document the document to load the properties of
+         * @return the loaded properties, a property missing from the map is considered absent
+         */
+        Map<String, Object> load(DocumentModel document);
+    }
+
+    private final Set<String> pending;
+    // cleared only once the loaded values are stored, so reading null means every value is visible
+    private volatile PropertyLoader loader;
+    private boolean loading;
+
+    public LazyDocumentModel(PropertyLoader loader, String... lazyProperties) {
+        this.loader = loader;
+        this.pending = new HashSet<>();
+        Collections.addAll(pending, lazyProperties);
+        // reserve the entries, so loading only replaces values and never restructures a map read by other threads
+        for (String key : pending) {
+            super.put(key, null);
+        }
+    }
+
+    /**
+     * @return true if no lazy property is waiting to be loaded
+     */
+    public synchronized boolean isLoaded() {
+        return loader == null || pending.isEmpty();
+    }
+
+    /**
+     * Copy the document without loading it. The copy loads its pending properties from this document, so they
+     * are loaded at most once for all copies.
+     *
+     * @return a copy which can be modified without affecting this document
+     */
+    public synchronized DocumentModel copy() {
+        if (loader == null || pending.isEmpty()) {
+            DocumentModel copy = new DocumentModel();
+            copy.putAll(this);
+            return copy;
+        }
+        final Set<String> lazyProperties = new HashSet<>(pending);
+        DocumentModel copy = new LazyDocumentModel(new PropertyLoader() {
+            @Override
+            public Map<String, Object> load(DocumentModel document) {
+                Map<String, Object> loaded = new HashMap<>();
+                for (String key : lazyProperties) {
+                    if (LazyDocumentModel.this.containsKey(key)) {
+                        loaded.put(key, LazyDocumentModel.this.get(key));
+                    }
+                }
+                return loaded;
+            }
+        }, lazyProperties.toArray(new String[0]));
+        for (Map.Entry<String, Object> entry : super.entrySet()) {
+            if (!lazyProperties.contains(entry.getKey())) {
+                copy.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return copy;
+    }
+
+    @Override
+    public Object get(Object key) {
+        loadIfPending(key);
+        return super.get(key);
+    }
+
+    @Override
+    public Object getOrDefault(Object key, Object defaultValue) {
+        loadIfPending(key);
+        return super.getOrDefault(key, defaultValue);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        loadIfPending(key);
+        return super.containsKey(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        discard(key);
+        return super.put(key, value);
+    }
+
+    @Override
+    public Object putIfAbsent(String key, Object value) {
+        loadIfPending(key);
+        return super.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void putAll(Map<? extends String, ?> m) {
+        for (String key : m.keySet()) {
+            discard(key);
+        }
+        super.putAll(m);
+    }
+
+    @Override
+    public Object remove(Object key) {
+        discard(key);
+        return super.remove(key);
+    }
+
+    @Override
+    public int size() {
+        load();
+        return super.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        load();
+        return super.isEmpty();
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        load();
+        return super.containsValue(value);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        load();
+        return super.keySet();
+    }
+
+    @Override
+    public Collection<Object> values() {
+        load();
+        return super.values();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        load();
+        return super.entrySet();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        load();
+        super.forEach(action);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        load();
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        load();
+        return super.hashCode();
+    }
+
+    private void loadIfPending(Object key) {
+        if (loader != null) {
+            synchronized (this) {
+                if (pending.contains(key)) {
+                    load();
+                }
+            }
+        }
+    }
+
+    private synchronized void discard(Object key) {
+        pending.remove(key);
+    }
+
+    private synchronized void load() {
+        // the loader itself reads properties of this document, those reads must not load again
+        if (loader == null || loading) {
+            return;
+        }
+        if (!pending.isEmpty()) {
+            loading = true;
+            try {
+                Map<String, Object> loaded = loader.load(this);
+                for (String key : pending) {
+                    if (loaded.containsKey(key)) {
+                        super.put(key, loaded.get(key));
+                    } else {
+                        super.remove(key);
+                    }
+                }
+                pending.clear();
+            } finally {
+                loading = false;
+            }
+        }
+        loader = null;
+    }
+}
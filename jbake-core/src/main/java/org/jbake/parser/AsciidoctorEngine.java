@@ -3,8 +3,11 @@ package org.jbake.parser;
 import org.asciidoctor.Asciidoctor;
 import org.asciidoctor.AttributesBuilder;
 import org.asciidoctor.Options;
+import org.asciidoctor.ast.Document;
 import org.asciidoctor.ast.DocumentHeader;
+import org.asciidoctor.ast.Title;
 import org.asciidoctor.jruby.AsciidoctorJRuby;
+import org.jbake.app.BodyCache;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.model.DocumentModel;
 import org.slf4j.Logger;
@@ -14,7 +17,13 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
 
 import static org.asciidoctor.AttributesBuilder.attributes;
 import static org.asciidoctor.OptionsBuilder.options;
@@ -30,66 +39,131 @@ public class AsciidoctorEngine extends MarkupEngine {
     public static final String JBAKE_PREFIX = "jbake-";
     public static final String REVDATE_KEY = "revdate";
 
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile RuntimePool runtimes;
 
-    private Asciidoctor engine;
+    private final CompiledConfiguration<CompiledOptions> asciidoctorOptions = new CompiledConfiguration<CompiledOptions>() {
+        @Override
+        protected CompiledOptions compile(JBakeConfiguration config) {
+            return new CompiledOptions(compileOptions(config));
+        }
+    };
     /* comma separated file paths to additional gems */
     private static final String OPT_GEM_PATH = "gemPath";
     /* comma separated gem names */
     private static final String OPT_REQUIRES = "requires";
+    private static final Pattern INCLUDE_DIRECTIVE = Pattern.compile("^include::", Pattern.MULTILINE);
 
     public AsciidoctorEngine() {
         Class engineClass = Asciidoctor.class;
         assert engineClass != null;
     }
 
-    private Asciidoctor getEngine(Options options) {
-        try {
-            lock.readLock().lock();
-            if (engine == null) {
-                lock.readLock().unlock();
-                try {
-                    lock.writeLock().lock();
-                    if (engine == null) {
-                        LOGGER.info("Initializing Asciidoctor engine...");
-                        if (options.map().containsKey(OPT_GEM_PATH)) {
-                            engine = AsciidoctorJRuby.Factory.create(String.valueOf(options.map().get(OPT_GEM_PATH)));
-                        } else {
-                            engine = Asciidoctor.Factory.create();
-                        }
-
-                        if (options.map().containsKey(OPT_REQUIRES)) {
-                            String[] requires = String.valueOf(options.map().get(OPT_REQUIRES)).split(",");
-                            if (requires.length != 0) {
-                                for (String require : requires) {
-                                    engine.requireLibrary(require);
-                                }
-                            }
-                        }
-
-                        LOGGER.info("Asciidoctor engine initialized.");
-                    }
-                } finally {
-                    lock.readLock().lock();
-                    lock.writeLock().unlock();
+    private Asciidoctor getEngine(JBakeConfiguration config) {
+        return getRuntimes(config).get();
+    }
+
+    private RuntimePool getRuntimes(JBakeConfiguration config) {
+        RuntimePool pool = runtimes;
+        if (pool == null) {
+            synchronized (this) {
+                if (runtimes == null) {
+                    runtimes = new RuntimePool(asciidoctorOptions.get(config).options, Math.max(1, config.getAsciidoctorPoolSize()));
+                }
+                pool = runtimes;
+            }
+        }
+        return pool;
+    }
+
+    private Asciidoctor createEngine(Map<String, Object> options) {
+        LOGGER.info("Initializing Asciidoctor engine...");
+        Asciidoctor engine;
+        if (options.containsKey(OPT_GEM_PATH)) {
+            engine = AsciidoctorJRuby.Factory.create(String.valueOf(options.get(OPT_GEM_PATH)));
+        } else {
+            engine = Asciidoctor.Factory.create();
+        }
+
+        if (options.containsKey(OPT_REQUIRES)) {
+            String[] requires = String.valueOf(options.get(OPT_REQUIRES)).split(",");
+            if (requires.length != 0) {
+                for (String require : requires) {
+                    engine.requireLibrary(require);
                 }
             }
-        } finally {
-            lock.readLock().unlock();
         }
+
+        LOGGER.info("Asciidoctor engine initialized.");
         return engine;
     }
 
+    /**
+     * Start the first Asciidoctor runtime, which takes a few seconds.
+     */
+    @Override
+    public void warmUp(JBakeConfiguration config) {
+        getRuntimes(config).warmUp();
+    }
+
     @Override
     public void processHeader(final ParserContext context) {
-        Options options = getAsciiDocOptionsAndAttributes(context);
-        final Asciidoctor asciidoctor = getEngine(options);
+        // loading pays off only if the loaded document is converted, a header is read much faster
+        if (context.getConfig().getAsciidoctorLoadOnce() && context.isConvertBody() && !context.hasHeader()) {
+            loadDocument(context);
+            return;
+        }
+        final Asciidoctor asciidoctor = getEngine(context.getConfig());
         DocumentHeader header = asciidoctor.readDocumentHeader(context.getFile());
+        processHeader(context, header.getDocumentTitle(), header.getAttributes());
+    }
+
+    /**
+     * Load the whole document, read the header from it and keep it to be converted by {@link #processBody(ParserContext)}.
+     */
+    private void loadDocument(final ParserContext context) {
+        CompiledOptions compiled = asciidoctorOptions.get(context.getConfig());
+        Options options = getAsciiDocOptionsAndAttributes(context);
+        Document document = getEngine(context.getConfig()).load(context.getFileContent(), options);
+        context.setParsedDocument(document);
+
+        // like a header read from the file, the header does not contain the attributes of the configuration,
+        // unless the document sets them to a value of its own
+        Map<String, Object> attributes = new LinkedHashMap<>(document.getAttributes());
+        for (Map.Entry<String, Object> configured : compiled.attributes.entrySet()) {
+            String key = configured.getKey();
+            if (attributes.containsKey(key) && isConfiguredValue(attributes.get(key), configured.getValue())) {
+                attributes.remove(key);
+            }
+        }
+        processHeader(context, document.getStructuredDoctitle(), attributes);
+    }
+
+    /**
+     * @param value      the value of an attribute of a loaded document
+     * @param configured the value of the attribute in the configuration
+     * @return true if the document did not set the attribute to another value
+     */
+    private boolean isConfiguredValue(Object value, Object configured) {
+        if (Objects.equals(value, configured)) {
+            return true;
+        }
+        if (value == null || configured == null) {
+            return false;
+        }
+        String configuredValue = configured.toString();
+        // a soft set attribute ends with @, which Asciidoctor drops from the value
+        if (configuredValue.endsWith("@")) {
+            configuredValue = configuredValue.substring(0, configuredValue.length() - 1);
+        }
+        // Asciidoctor may hand back values of the configuration with another type, e.g. numbers
+        return value.toString().equals(configuredValue);
+    }
+
+    private void processHeader(final ParserContext context, Title title, Map<String, Object> attributes) {
         DocumentModel documentModel = context.getDocumentModel();
-        if (header.getDocumentTitle() != null) {
-            documentModel.setTitle(header.getDocumentTitle().getCombined());
+        if (title != null) {
+            documentModel.setTitle(title.getCombined());
         }
-        Map<String, Object> attributes = header.getAttributes();
         for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
             String key = attribute.getKey();
             Object value = attribute.getValue();
@@ -141,27 +215,52 @@ public class AsciidoctorEngine extends MarkupEngine {
         return key.startsWith(JBAKE_PREFIX);
     }
 
+    @Override
+    protected String getBodyCacheOptions(ParserContext context) {
+        // the key does not cover included files, a body with includes is converted every time
+        if (INCLUDE_DIRECTIVE.matcher(context.getFileContent()).find()) {
+            return null;
+        }
+        // without header the whole file is converted instead of the default body
+        return context.hasHeader() + asciidoctorOptions.get(context.getConfig()).signature
+            + context.getFile().getParentFile().getAbsolutePath();
+    }
+
     // TODO: write tests with options and attributes
     @Override
     public void processBody(ParserContext context) {
-        StringBuilder body = new StringBuilder(context.getBody().length());
+        if (context.getParsedDocument() instanceof Document) {
+            context.setBody(((Document) context.getParsedDocument()).convert());
+            return;
+        }
         if (!context.hasHeader()) {
-            for (String line : context.getFileLines()) {
-                body.append(line).append("\n");
-            }
-            context.setBody(body.toString());
+            context.setBody(context.getFileContent());
         }
         processAsciiDoc(context);
     }
 
     private void processAsciiDoc(ParserContext context) {
         Options options = getAsciiDocOptionsAndAttributes(context);
-        final Asciidoctor asciidoctor = getEngine(options);
+        final Asciidoctor asciidoctor = getEngine(context.getConfig());
         context.setBody(asciidoctor.convert(context.getBody(), options));
     }
 
+    /**
+     * @return the options compiled from the configuration, with the folder of the document as base dir
+     */
     private Options getAsciiDocOptionsAndAttributes(ParserContext context) {
-        JBakeConfiguration config = context.getConfig();
+        CompiledOptions compiled = asciidoctorOptions.get(context.getConfig());
+        Options options = new Options();
+        for (Map.Entry<String, Object> option : compiled.options.entrySet()) {
+            options.setOption(option.getKey(), option.getValue());
+        }
+        // the attributes are copied, as Asciidoctor may add attributes to the map it is given
+        options.setOption(Options.ATTRIBUTES, new HashMap<>(compiled.attributes));
+        options.setBaseDir(context.getFile().getParentFile().getAbsolutePath());
+        return options;
+    }
+
+    private Options compileOptions(JBakeConfiguration config) {
         List<String> asciidoctorAttributes = config.getAsciidoctorAttributes();
         final AttributesBuilder attributes = attributes(asciidoctorAttributes.toArray(new String[0]));
         if (config.getExportAsciidoctorAttributes()) {
@@ -190,7 +289,6 @@ public class AsciidoctorEngine extends MarkupEngine {
             }
 
         }
-        options.setBaseDir(context.getFile().getParentFile().getAbsolutePath());
         options.setSafe(UNSAFE);
         return options;
     }
@@ -207,4 +305,107 @@ public class AsciidoctorEngine extends MarkupEngine {
         return values;
     }
 
+    /**
+     * The options and attributes of the configuration, which are the same for every document.
+     */
+    private static final class CompiledOptions {
+        private final Map<String, Object> options;
+        private final Map<String, Object> attributes;
+        private final String signature;
+
+        @SuppressWarnings("unchecked")
+        CompiledOptions(Options options) {
+            Map<String, Object> map = new HashMap<>(options.map());
+            Object attributes = map.remove(Options.ATTRIBUTES);
+            this.options = Collections.unmodifiableMap(map);
+            this.attributes = attributes instanceof Map
+                ? Collections.unmodifiableMap(new HashMap<>((Map<String, Object>) attributes))
+                : Collections.<String, Object>emptyMap();
+            this.signature = BodyCache.signature(options.map());
+        }
+    }
+
+    /**
+     * The Asciidoctor runtimes, see {@link JBakeConfiguration#getAsciidoctorPoolSize()}.
+     *
+     * <p>Documents are converted by the runtimes in turn. A runtime is started when it is needed for the first
+     * time. While it starts, the documents are converted by a runtime which is already running, if there is one.</p>
+     */
+    private final class RuntimePool {
+        private final Map<String, Object> options;
+        private final AtomicReferenceArray<FutureTask<Asciidoctor>> runtimes;
+        private final AtomicBoolean[] starting;
+        private final AtomicInteger next = new AtomicInteger();
+
+        RuntimePool(Map<String, Object> options, int size) {
+            this.options = options;
+            this.runtimes = new AtomicReferenceArray<>(size);
+            this.starting = new AtomicBoolean[size];
+            for (int i = 0; i < size; i++) {
+                runtimes.set(i, newRuntime());
+                starting[i] = new AtomicBoolean();
+            }
+        }
+
+        void warmUp() {
+            runtimes.get(0).run();
+        }
+
+        Asciidoctor get() {
+            int index = Math.floorMod(next.getAndIncrement(), runtimes.length());
+            FutureTask<Asciidoctor> runtime = runtimes.get(index);
+            if (!runtime.isDone()) {
+                FutureTask<Asciidoctor> running = running();
+                if (running != null) {
+                    start(index, runtime);
+                    runtime = running;
+                }
+            }
+            // starts the runtime in this thread, unless it is already started or starting in another thread
+            runtime.run();
+            try {
+                return runtime.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while starting the Asciidoctor engine", e);
+            } catch (ExecutionException e) {
+                // the next conversion tries again
+                runtimes.compareAndSet(index, runtime, newRuntime());
+                starting[index].set(false);
+                throw new IllegalStateException("Unable to start the Asciidoctor engine", e.getCause());
+            }
+        }
+
+        private FutureTask<Asciidoctor> running() {
+            for (int i = 0; i < runtimes.length(); i++) {
+                FutureTask<Asciidoctor> runtime = runtimes.get(i);
+                if (runtime.isDone() && !runtime.isCancelled()) {
+                    try {
+                        runtime.get();
+                        return runtime;
+                    } catch (InterruptedException | ExecutionException e) {
+                        // failed to start, not usable
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void start(int index, FutureTask<Asciidoctor> runtime) {
+            if (starting[index].compareAndSet(false, true)) {
+                Thread thread = new Thread(runtime, "asciidoctor-runtime-" + index);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+
+        private FutureTask<Asciidoctor> newRuntime() {
+            return new FutureTask<>(new Callable<Asciidoctor>() {
+                @Override
+                public Asciidoctor call() {
+                    return createEngine(options);
+                }
+            });
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package org.jbake.parser;
+
+import org.apache.commons.configuration2.CompositeConfiguration;
+import org.apache.commons.configuration2.event.ConfigurationEvent;
+import org.apache.commons.configuration2.event.EventListener;
+import org.jbake.app.configuration.DefaultJBakeConfiguration;
+import org.jbake.app.configuration.JBakeConfiguration;
+
+/**
+ * Engine settings compiled from a configuration, shared by all documents parsed with that configuration.
+ *
+ * <p>The settings are compiled the first time they are needed and kept until another configuration is used
+ * or a property of the configuration is changed, so the compiled settings must be immutable and safe to use
+ * from several threads.</p>
+ *
+ * @param <T> the type of the compiled settings
+ */
+abstract class CompiledConfiguration<T> {
+
+    private final EventListener<ConfigurationEvent> listener = new EventListener<ConfigurationEvent>() {
+        @Override
+        public void onEvent(ConfigurationEvent event) {
+            if (!event.isBeforeUpdate()) {
+                compiled = null;
+            }
+        }
+    };
+
+    private volatile JBakeConfiguration config;
+    private volatile T compiled;
+
+    /**
+     * @param config the configuration
+     * @return the settings compiled from the configuration
+     */
+    T get(JBakeConfiguration config) {
+        T current = compiled;
+        if (current == null || this.config != config) {
+            synchronized (this) {
+                if (this.config != config) {
+                    watch(config);
+                    compiled = null;
+                }
+                current = compiled;
+                if (current == null) {
+                    current = compile(config);
+                    compiled = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @param config the configuration
+     * @return the compiled settings
+     */
+    protected abstract T compile(JBakeConfiguration config);
+
+    private void watch(JBakeConfiguration config) {
+        CompositeConfiguration previous = compositeOf(this.config);
+        if (previous != null) {
+            previous.removeEventListener(ConfigurationEvent.ANY, listener);
+        }
+        CompositeConfiguration next = compositeOf(config);
+        if (next != null) {
+            next.addEventListener(ConfigurationEvent.ANY, listener);
+        }
+        this.config = config;
+    }
+
+    private static CompositeConfiguration compositeOf(JBakeConfiguration config) {
+        return config instanceof DefaultJBakeConfiguration ? ((DefaultJBakeConfiguration) config).getCompositeConfiguration() : null;
+    }
+}
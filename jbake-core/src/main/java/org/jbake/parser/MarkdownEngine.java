@@ -6,6 +6,8 @@ import com.vladsch.flexmark.parser.PegdownExtensions;
 import com.vladsch.flexmark.profile.pegdown.PegdownOptionsAdapter;
 import com.vladsch.flexmark.util.ast.Document;
 import com.vladsch.flexmark.util.data.DataHolder;
+import org.jbake.app.BodyCache;
+import org.jbake.app.configuration.JBakeConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -21,10 +23,27 @@ public class MarkdownEngine extends MarkupEngine {
 
     private static final Logger logger = LoggerFactory.getLogger(MarkdownEngine.class);
 
+    @Override
+    protected String getBodyCacheOptions(final ParserContext context) {
+        return flexmark.get(context.getConfig()).signature;
+    }
+
+    private final CompiledConfiguration<Flexmark> flexmark = new CompiledConfiguration<Flexmark>() {
+        @Override
+        protected Flexmark compile(JBakeConfiguration config) {
+            return new Flexmark(config.getMarkdownExtensions());
+        }
+    };
+
     @Override
     public void processBody(final ParserContext context) {
-        List<String> mdExts = context.getConfig().getMarkdownExtensions();
+        Flexmark compiled = flexmark.get(context.getConfig());
+
+        Document document = compiled.parser.parse(context.getBody());
+        context.setBody(compiled.renderer.render(document));
+    }
 
+    private int extensionsFor(List<String> mdExts) {
         int extensions = PegdownExtensions.NONE;
 
         for (String ext : mdExts) {
@@ -38,14 +57,7 @@ public class MarkdownEngine extends MarkupEngine {
                 extensions = addExtension(extensions, extensionFor(ext));
             }
         }
-
-        DataHolder options = PegdownOptionsAdapter.flexmarkOptions(extensions);
-
-        Parser parser = Parser.builder(options).build();
-        HtmlRenderer renderer = HtmlRenderer.builder(options).build();
-
-        Document document = parser.parse(context.getBody());
-        context.setBody(renderer.render(document));
+        return extensions;
     }
 
     private int extensionFor(String name) {
@@ -68,4 +80,19 @@ public class MarkdownEngine extends MarkupEngine {
         return previousExtensions & (~unwantedExtension);
     }
 
+    /**
+     * The parser and renderer for the configured extensions, both are immutable and reused for every document.
+     */
+    private final class Flexmark {
+        private final Parser parser;
+        private final HtmlRenderer renderer;
+        private final String signature;
+
+        Flexmark(List<String> mdExts) {
+            DataHolder options = PegdownOptionsAdapter.flexmarkOptions(extensionsFor(mdExts));
+            this.parser = Parser.builder(options).build();
+            this.renderer = HtmlRenderer.builder(options).build();
+            this.signature = BodyCache.signature(mdExts);
+        }
+    }
 }
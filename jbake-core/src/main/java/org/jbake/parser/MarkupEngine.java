@@ -2,7 +2,7 @@ package org.jbake.parser;
 
 import org.apache.commons.configuration2.CompositeConfiguration;
 import org.apache.commons.configuration2.Configuration;
-import org.apache.commons.io.IOUtils;
+import org.jbake.app.BodyCache;
 import org.jbake.app.configuration.DefaultJBakeConfiguration;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.model.DocumentModel;
@@ -12,15 +12,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Collections;
 import java.util.Date;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -33,7 +29,6 @@ import java.util.Map;
  */
 public abstract class MarkupEngine implements ParserEngine {
     private static final Logger LOGGER = LoggerFactory.getLogger(MarkupEngine.class);
-    private static final String UTF_8_BOM = "\uFEFF";
 
     private JBakeConfiguration configuration;
 
@@ -65,6 +60,28 @@ public abstract class MarkupEngine implements ParserEngine {
     public void processBody(final ParserContext context) {
     }
 
+    /**
+     * Prepare the engine before the first document is parsed, called on a background thread when a bake starts
+     * and the content contains documents of this engine. Engines with an expensive start override it.
+     *
+     * @param config the project configuration
+     */
+    public void warmUp(JBakeConfiguration config) {
+    }
+
+    /**
+     * Describes everything besides the default body which the result of {@link #processBody(ParserContext)}
+     * depends on, so the converted body can be kept in the {@link BodyCache}. Engines whose conversion is
+     * cheaper than a cache lookup keep the default, which disables caching.
+     *
+     * @param context the parser context, with the default body
+     * @return the effective options of the engine, see {@link BodyCache#signature(Object)}, or null if the body
+     * must not be cached
+     */
+    protected String getBodyCacheOptions(final ParserContext context) {
+        return null;
+    }
+
     @Override
     public Map<String, Object> parse(Configuration config, File file, String contentPath) {
         return parse(new DefaultJBakeConfiguration((CompositeConfiguration) config), file);
@@ -77,18 +94,31 @@ public abstract class MarkupEngine implements ParserEngine {
      * @return a map containing all infos. Returning null indicates an error, even if an exception would be better.
      */
     public DocumentModel parse(JBakeConfiguration config, File file) {
+        return parse(config, file, true);
+    }
+
+    /**
+     * Parse given file, optionally without converting its body.
+     *
+     * @param config      the project configuration
+     * @param file        file to process
+     * @param convertBody false to only process the header, the returned document has no body then
+     * @return a map containing all infos. Returning null indicates an error, even if an exception would be better.
+     */
+    public DocumentModel parse(JBakeConfiguration config, File file, boolean convertBody) {
         this.configuration = config;
-        List<String> fileContent = getFileContent(file, config.getRenderEncoding());
+        SourceText source = readSource(file, config.getRenderEncoding());
 
-        if (fileContent.isEmpty()) {
+        if (source == null || source.isEmpty()) {
             return null;
         }
 
-        boolean hasHeader = hasHeader(fileContent);
-        ParserContext context = new ParserContext(file, fileContent, config, hasHeader);
+        boolean hasHeader = hasHeader(source);
+        ParserContext context = new ParserContext(file, source, config, hasHeader);
+        context.setConvertBody(convertBody);
 
         // read header from file
-        processDefaultHeader(context);
+        processDefaultHeader(context, source);
         // then read engine specific headers
         processHeader(context);
 
@@ -102,40 +132,52 @@ public abstract class MarkupEngine implements ParserEngine {
         }
 
         // generate default body
-        processDefaultBody(context);
+        context.setBody(source.getBody());
 
-        // eventually process body using specific engine
-        if (validate(context)) {
-            processBody(context);
-        } else {
+        if (!validate(context)) {
             LOGGER.error("Incomplete source file ({}) for markup engine: {}", file, getClass().getSimpleName());
             return null;
         }
-        // TODO: post parsing plugins to hook in here?
+        if (!convertBody) {
+            // the body is converted when it is accessed, see DeferredBodyLoader
+            context.getDocumentModel().remove(ModelAttributes.BODY);
+            return context.getDocumentModel();
+        }
+
+        // eventually process body using specific engine
+        processBodyWithCache(context);
+        // the body is post processed by the DocumentProcessors once the crawler assigned the uri
 
         return context.getDocumentModel();
     }
 
-    private List<String> getFileContent(File file, String encoding) {
+    private void processBodyWithCache(ParserContext context) {
+        BodyCache cache = BodyCache.get(context.getConfig());
+        String options = cache != null ? getBodyCacheOptions(context) : null;
+        if (options == null) {
+            processBody(context);
+            return;
+        }
+        String engine = getClass().getName() + '@' + context.getConfig().getVersion();
+        String key = BodyCache.key(engine, options, context.getBody());
+        String body = cache.get(key);
+        if (body != null) {
+            context.setBody(body);
+        } else {
+            processBody(context);
+            cache.put(key, context.getBody());
+        }
+    }
 
-        try (InputStream is = new FileInputStream(file)) {
-            LOGGER.debug("read file '{}' with encoding '{}'", file, encoding);
-            List<String> lines = IOUtils.readLines(is, encoding);
-            if (!lines.isEmpty() && isUtf8WithBOM(encoding, lines.get(0))) {
-                LOGGER.warn("remove BOM from file '{}' read with encoding '{}'", file, encoding);
-                lines.set(0, lines.get(0).replace(UTF_8_BOM, ""));
-            }
-            return lines;
+    private SourceText readSource(File file, String encoding) {
+        try {
+            return SourceText.read(file, encoding, configuration.getHeaderSeparator());
         } catch (IOException e) {
             LOGGER.error("Error while opening file {}", file, e);
-            return Collections.emptyList();
+            return null;
         }
     }
 
-    private boolean isUtf8WithBOM(String encoding, String line) {
-        return encoding.equals("UTF-8") && line.startsWith(UTF_8_BOM);
-    }
-
     private void sanitizeTags(ParserContext context) {
         if (context.getTags() != null) {
             String[] tags = (String[]) context.getTags();
@@ -170,23 +212,19 @@ public abstract class MarkupEngine implements ParserEngine {
     /**
      * Checks if the file has a meta-data header.
      *
-     * @param contents Contents of file
+     * @param source the content of the file
      * @return true if header exists, false if not
      */
-    private boolean hasHeader(List<String> contents) {
-        boolean headerValid = true;
+    private boolean hasHeader(SourceText source) {
         boolean statusFound = false;
         boolean typeFound = false;
 
-        if (!headerSeparatorDemarcatesHeader(contents)) {
+        if (!source.isHeaderDemarcated()) {
             return false;
         }
+        LOGGER.debug("Header separator found");
 
-        for (String line : contents) {
-            if (hasHeaderSeparator(line)) {
-                LOGGER.debug("Header separator found");
-                break;
-            }
+        for (String line : source.getHeaderLines()) {
             if (isTypeProperty(line)) {
                 LOGGER.debug("Type property found");
                 typeFound = true;
@@ -196,12 +234,8 @@ public abstract class MarkupEngine implements ParserEngine {
                 LOGGER.debug("Status property found");
                 statusFound = true;
             }
-            if (!line.isEmpty() && !line.contains("=")) {
-                LOGGER.error("Property found without assignment [{}]", line);
-                headerValid = false;
-            }
         }
-        return headerValid && (statusFound || hasDefaultStatus()) && (typeFound || hasDefaultType());
+        return (statusFound || hasDefaultStatus()) && (typeFound || hasDefaultType());
     }
 
     private boolean hasDefaultType() {
@@ -212,35 +246,6 @@ public abstract class MarkupEngine implements ParserEngine {
         return !configuration.getDefaultStatus().isEmpty();
     }
 
-    /**
-     * Checks if header separator demarcates end of metadata header
-     *
-     * @param contents
-     * @return true if header separator resides at end of metadata header, false if not
-     */
-    private boolean headerSeparatorDemarcatesHeader(List<String> contents) {
-        List<String> subContents = null;
-        int index = contents.indexOf(configuration.getHeaderSeparator());
-        if (index != -1) {
-            // get every line above header separator
-            subContents = contents.subList(0, index);
-
-            for (String line : subContents) {
-                // header should only contain empty lines or lines with '=' in
-                if (!line.contains("=") && !line.isEmpty()) {
-                    return false;
-                }
-            }
-            return true;
-        } else {
-            return false;
-        }
-    }
-
-    private boolean hasHeaderSeparator(String line) {
-        return sanitize(line).equals(configuration.getHeaderSeparator());
-    }
-
     private boolean isStatusProperty(String line) {
         return sanitize(line).startsWith("status=");
     }
@@ -253,14 +258,11 @@ public abstract class MarkupEngine implements ParserEngine {
      * Process the header of the file.
      *
      * @param context the parser context
+     * @param source  the content of the file
      */
-    private void processDefaultHeader(ParserContext context) {
+    private void processDefaultHeader(ParserContext context, SourceText source) {
         if (context.hasHeader()) {
-            for (String line : context.getFileLines()) {
-
-                if (hasHeaderSeparator(line)) {
-                    break;
-                }
+            for (String line : source.getHeaderLines()) {
                 processHeaderLine(line, context.getDocumentModel());
             }
         }
@@ -308,29 +310,4 @@ public abstract class MarkupEngine implements ParserEngine {
     private boolean isJson(String part) {
         return part.startsWith("{") && part.endsWith("}");
     }
-
-    /**
-     * Process the body of the file.
-     *
-     * @param context the parser context
-     */
-    private void processDefaultBody(ParserContext context) {
-        StringBuilder body = new StringBuilder();
-        boolean inBody = false;
-        for (String line : context.getFileLines()) {
-            if (inBody) {
-                body.append(line).append("\n");
-            }
-            if (line.equals(configuration.getHeaderSeparator())) {
-                inBody = true;
-            }
-        }
-
-        if (body.length() == 0) {
-            for (String line : context.getFileLines()) {
-                body.append(line).append("\n");
-            }
-        }
-        context.setBody(body.toString());
-    }
 }
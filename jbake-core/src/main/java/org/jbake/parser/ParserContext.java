@@ -10,9 +10,12 @@ import java.util.List;
 public class ParserContext {
     private final File file;
     private final List<String> fileLines;
+    private final SourceText sourceText;
     private final JBakeConfiguration config;
     private final boolean hasHeader;
     private final DocumentModel documentModel;
+    private Object parsedDocument;
+    private boolean convertBody = true;
 
     public ParserContext(
             File file,
@@ -21,6 +24,20 @@ public class ParserContext {
             boolean hasHeader) {
         this.file = file;
         this.fileLines = fileLines;
+        this.sourceText = null;
+        this.config = config;
+        this.hasHeader = hasHeader;
+        this.documentModel = DocumentModel.createDefaultDocumentModel();
+    }
+
+    public ParserContext(
+            File file,
+            SourceText sourceText,
+            JBakeConfiguration config,
+            boolean hasHeader) {
+        this.file = file;
+        this.fileLines = null;
+        this.sourceText = sourceText;
         this.config = config;
         this.hasHeader = hasHeader;
         this.documentModel = DocumentModel.createDefaultDocumentModel();
@@ -31,7 +48,21 @@ public class ParserContext {
     }
 
     public List<String> getFileLines() {
-        return fileLines;
+        return fileLines != null ? fileLines : sourceText.getLines();
+    }
+
+    /**
+     * @return the whole content of the file, every line terminated by {@code \n}
+     */
+    public String getFileContent() {
+        if (sourceText != null) {
+            return sourceText.getText();
+        }
+        StringBuilder content = new StringBuilder();
+        for (String line : fileLines) {
+            content.append(line).append("\n");
+        }
+        return content.toString();
     }
 
     public JBakeConfiguration getConfig() {
@@ -55,6 +86,32 @@ public class ParserContext {
         documentModel.setBody(str);
     }
 
+    /**
+     * @return false if only the header is processed, see {@link MarkupEngine#parse(JBakeConfiguration, File, boolean)}
+     */
+    public boolean isConvertBody() {
+        return convertBody;
+    }
+
+    public void setConvertBody(boolean convertBody) {
+        this.convertBody = convertBody;
+    }
+
+    /**
+     * @return the document as parsed by the engine while reading the header, or null
+     */
+    public Object getParsedDocument() {
+        return parsedDocument;
+    }
+
+    /**
+     * @param parsedDocument the document as parsed by the engine while reading the header, so the body can be
+     *                       converted without parsing the document again
+     */
+    public void setParsedDocument(Object parsedDocument) {
+        this.parsedDocument = parsedDocument;
+    }
+
     public Date getDate() {
         return getDocumentModel().getDate();
     }
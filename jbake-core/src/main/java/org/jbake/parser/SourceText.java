@@ -0,0 +1,255 @@
+package org.jbake.parser;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The decoded text of a source file, split into the meta-data header and the body.
+ *
+ * <p>The file is decoded once into a single character buffer, large files straight from a memory mapping. One
+ * forward scan finds the header lines and the header separator and stops there, the body is created from the
+ * rest of the buffer with a single copy. Line terminators are normalized to {@code \n} and the last line is
+ * always terminated, so the header and the body are the same as when the file is read line by line.</p>
+ */
+public final class SourceText {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SourceText.class);
+    private static final char UTF_8_BOM = '\uFEFF';
+    private static final long MAPPED_FILE_THRESHOLD = 1024 * 1024;
+
+    private final char[] chars;
+    private final int start;
+    private final int end;
+    private final boolean empty;
+    private final List<String> headerLines = new ArrayList<>();
+    private boolean separatorFound;
+    private boolean headerDemarcated;
+    private int bodyStart;
+    private List<String> lines;
+
+    private SourceText(char[] chars, int start, int end, boolean empty) {
+        this.chars = chars;
+        this.start = start;
+        this.end = end;
+        this.empty = empty;
+    }
+
+    /**
+     * Read and split a source file.
+     *
+     * @param file            the source file
+     * @param encoding        the encoding of the file
+     * @param headerSeparator the line which separates the header from the body
+     * @return the text of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static SourceText read(File file, String encoding, String headerSeparator) throws IOException {
+        LOGGER.debug("read file '{}' with encoding '{}'", file, encoding);
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size >= MAPPED_FILE_THRESHOLD) {
+                bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } else {
+                bytes = ByteBuffer.allocate((int) size);
+                while (bytes.hasRemaining() && channel.read(bytes) >= 0) {
+                    // read until the buffer is full or the end of the file is reached
+                }
+                bytes.flip();
+            }
+        }
+        CharBuffer decoded = Charset.forName(encoding).newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE)
+            .decode(bytes);
+
+        int start = decoded.arrayOffset() + decoded.position();
+        int end = decoded.arrayOffset() + decoded.limit();
+        char[] chars = decoded.array();
+        boolean empty = start == end;
+        if (start < end && chars[start] == UTF_8_BOM && encoding.equals("UTF-8")) {
+            LOGGER.warn("remove BOM from file '{}' read with encoding '{}'", file, encoding);
+            start++;
+        }
+        SourceText text = new SourceText(chars, start, end, empty);
+        text.scan(headerSeparator);
+        return text;
+    }
+
+    /**
+     * @return true if the file has no content at all
+     */
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /**
+     * @return true if the file has a header separator line and every line above it is empty or contains
+     * an assignment
+     */
+    public boolean isHeaderDemarcated() {
+        return headerDemarcated;
+    }
+
+    /**
+     * @return the lines of the header, if it is demarcated
+     */
+    public List<String> getHeaderLines() {
+        return headerDemarcated ? Collections.unmodifiableList(headerLines) : Collections.<String>emptyList();
+    }
+
+    /**
+     * @return the text after the header separator line, or the whole text if there is no separator or nothing
+     * follows it
+     */
+    public String getBody() {
+        if (separatorFound && bodyStart < end) {
+            return text(bodyStart, end);
+        }
+        return getText();
+    }
+
+    /**
+     * @return the whole text of the file
+     */
+    public String getText() {
+        if (start == end) {
+            // a file containing nothing but a byte order mark still has one empty line
+            return empty ? "" : "\n";
+        }
+        return text(start, end);
+    }
+
+    /**
+     * @return the lines of the file, split on demand
+     */
+    public synchronized List<String> getLines() {
+        if (lines == null) {
+            List<String> result = new ArrayList<>();
+            int lineStart = start;
+            while (lineStart < end) {
+                int lineEnd = lineEnd(lineStart);
+                result.add(new String(chars, lineStart, lineEnd - lineStart));
+                lineStart = nextLine(lineEnd);
+            }
+            if (result.isEmpty() && !empty) {
+                result.add("");
+            }
+            lines = Collections.unmodifiableList(result);
+        }
+        return lines;
+    }
+
+    private void scan(String separator) {
+        boolean valid = true;
+        boolean inHeader = true;
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineEnd(lineStart);
+            int next = nextLine(lineEnd);
+            if (regionEquals(lineStart, lineEnd, separator)) {
+                separatorFound = true;
+                headerDemarcated = valid;
+                bodyStart = next;
+                return;
+            }
+            int trimmedStart = trimStart(lineStart, lineEnd);
+            if (inHeader && regionEquals(trimmedStart, trimEnd(trimmedStart, lineEnd), separator)) {
+                inHeader = false;
+            }
+            // the header only contains empty lines or lines with an assignment
+            if (valid && lineEnd > lineStart && indexOf('=', lineStart, lineEnd) < 0) {
+                valid = false;
+            }
+            if (inHeader && valid) {
+                headerLines.add(new String(chars, lineStart, lineEnd - lineStart));
+            }
+            lineStart = next;
+        }
+    }
+
+    private String text(int from, int to) {
+        if (chars[to - 1] == '\n' && indexOf('\r', from, to) < 0) {
+            return new String(chars, from, to - from);
+        }
+        StringBuilder sb = new StringBuilder(to - from + 1);
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            if (c == '\r') {
+                sb.append('\n');
+                if (i + 1 < to && chars[i + 1] == '\n') {
+                    i++;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        char last = chars[to - 1];
+        if (last != '\n' && last != '\r') {
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    private int lineEnd(int from) {
+        int i = from;
+        while (i < end && chars[i] != '\n' && chars[i] != '\r') {
+            i++;
+        }
+        return i;
+    }
+
+    private int nextLine(int lineEnd) {
+        if (lineEnd < end && chars[lineEnd] == '\r' && lineEnd + 1 < end && chars[lineEnd + 1] == '\n') {
+            return lineEnd + 2;
+        }
+        return lineEnd < end ? lineEnd + 1 : lineEnd;
+    }
+
+    private int trimStart(int from, int to) {
+        while (from < to && chars[from] <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private int trimEnd(int from, int to) {
+        while (to > from && chars[to - 1] <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private int indexOf(char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (chars[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionEquals(int from, int to, String value) {
+        if (to - from != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (chars[from + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
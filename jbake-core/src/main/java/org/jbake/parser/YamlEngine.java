@@ -9,6 +9,7 @@ import org.slf4j.LoggerFactory;
 import org.yaml.snakeyaml.Yaml;
 
 import javax.swing.text.Document;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -24,6 +25,16 @@ public class YamlEngine extends MarkupEngine {
 
     public static final String JBAKE_PREFIX = "jbake-";
 
+    /**
+     * A Yaml instance is not thread safe but can load any number of documents, so every crawler thread keeps one.
+     */
+    private static final ThreadLocal<Yaml> YAML = new ThreadLocal<Yaml>() {
+        @Override
+        protected Yaml initialValue() {
+            return new Yaml();
+        }
+    };
+
     /**
      * Parses the YAML file and ensures the output is always a Map.
      *
@@ -32,8 +43,9 @@ public class YamlEngine extends MarkupEngine {
      */
     private DocumentModel parseFile(File file) {
         DocumentModel model = new DocumentModel();
-        Yaml yaml = new Yaml();
-        try (InputStream is = new FileInputStream(file)) {
+        Yaml yaml = YAML.get();
+        // the document is composed from the stream as it is read, large files are never held as text
+        try (InputStream is = new BufferedInputStream(new FileInputStream(file))) {
             Object result = yaml.load(is);
             if (result instanceof List) {
                 model.put("data", result);
@@ -53,6 +65,11 @@ public class YamlEngine extends MarkupEngine {
         return parseFile(file);
     }
 
+    @Override
+    public DocumentModel parse(JBakeConfiguration config, File file, boolean convertBody) {
+        return parseFile(file);
+    }
+
     /**
      * This method implements the contract allowing use of Yaml files as content files
      *
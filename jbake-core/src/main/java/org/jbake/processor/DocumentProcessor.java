@@ -0,0 +1,32 @@
+package org.jbake.processor;
+
+import org.jbake.app.configuration.JBakeConfiguration;
+import org.jbake.model.DocumentModel;
+import org.jsoup.nodes.Element;
+
+/**
+ * Transforms the converted body of a document, e.g. to add heading anchors or lazy loading attributes.
+ *
+ * <p>Processors are discovered with {@link java.util.ServiceLoader}, register an implementation in
+ * {@code META-INF/services/org.jbake.processor.DocumentProcessor}. All enabled processors work on the same
+ * parsed body of a document, which is serialized once after the last processor. Documents are processed on
+ * several threads at the same time, so a processor must be thread safe.</p>
+ *
+ * @see DocumentProcessors
+ */
+public interface DocumentProcessor {
+
+    /**
+     * @param config the project configuration
+     * @return true if the processor transforms documents with this configuration. If no processor is enabled,
+     * the body is not parsed at all.
+     */
+    boolean isEnabled(JBakeConfiguration config);
+
+    /**
+     * @param document the document, with uri and body
+     * @param body     the parsed body of the document, to be modified in place
+     * @param config   the project configuration
+     */
+    void process(DocumentModel document, Element body, JBakeConfiguration config);
+}
@@ -0,0 +1,83 @@
+package org.jbake.processor;
+
+import org.jbake.app.configuration.JBakeConfiguration;
+import org.jbake.model.DocumentModel;
+import org.jbake.util.HtmlUtil;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ * The post processing of converted document bodies.
+ *
+ * <p>The image paths are updated first, if {@link JBakeConfiguration#getImgPathUpdate()} is set, with a single
+ * pass over the body text. Then the body is parsed once for all enabled {@link DocumentProcessor}s and
+ * serialized once after the last of them.</p>
+ */
+public final class DocumentProcessors {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DocumentProcessors.class);
+
+    private final List<DocumentProcessor> processors;
+
+    /**
+     * @param processors the document processors, in the order they are applied
+     */
+    public DocumentProcessors(List<DocumentProcessor> processors) {
+        this.processors = Collections.unmodifiableList(new ArrayList<>(processors));
+    }
+
+    /**
+     * @return the document processors registered on the class path
+     */
+    public static DocumentProcessors load() {
+        List<DocumentProcessor> processors = new ArrayList<>();
+        for (DocumentProcessor processor : ServiceLoader.load(DocumentProcessor.class)) {
+            processors.add(processor);
+        }
+        return new DocumentProcessors(processors);
+    }
+
+    /**
+     * Process the body of a document, after the crawler assigned its uri.
+     *
+     * @param document the document to process, its body is replaced
+     * @param config   the project configuration
+     */
+    public void process(DocumentModel document, JBakeConfiguration config) {
+        if (document.getBody() == null) {
+            return;
+        }
+        if (config.getImgPathUpdate()) {
+            // Prevent image source url's from breaking
+            HtmlUtil.fixImageSourceUrls(document, config);
+        }
+
+        List<DocumentProcessor> enabled = new ArrayList<>();
+        for (DocumentProcessor processor : processors) {
+            if (processor.isEnabled(config)) {
+                enabled.add(processor);
+            }
+        }
+        if (enabled.isEmpty()) {
+            return;
+        }
+
+        Document html = Jsoup.parseBodyFragment(document.getBody());
+        for (DocumentProcessor processor : enabled) {
+            try {
+                processor.process(document, html.body(), config);
+            } catch (RuntimeException e) {
+                LOGGER.error("Document processor {} failed on {}", processor.getClass().getName(), document.getSourceuri(), e);
+            }
+        }
+        //Use body().html() to prevent adding <body></body> from parsed fragment.
+        document.setBody(html.body().html());
+    }
+}
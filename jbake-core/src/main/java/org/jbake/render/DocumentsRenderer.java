@@ -3,15 +3,26 @@ package org.jbake.render;
 import org.apache.commons.configuration2.CompositeConfiguration;
 import org.jbake.app.ContentStore;
 import org.jbake.app.DocumentList;
+import org.jbake.app.NavigationIndex;
 import org.jbake.app.Renderer;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.model.DocumentModel;
-import org.jbake.model.ModelAttributes;
 import org.jbake.template.RenderingException;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DocumentsRenderer implements RenderingTool {
 
@@ -19,22 +30,51 @@ public class DocumentsRenderer implements RenderingTool {
     public int render(Renderer renderer, ContentStore db, JBakeConfiguration config) throws RenderingException {
         int renderedCount = 0;
         final List<String> errors = new LinkedList<>();
+        final int threads = config != null ? Math.max(1, config.getRenderThreads()) : 1;
+        final ExecutorService workers = threads > 1 ? Executors.newFixedThreadPool(threads, new RendererThreadFactory()) : null;
 
-        DocumentList<DocumentModel> documentList = db.getUnrenderedContent();
-        for (DocumentModel document : documentList) {
-            try {
-                DocumentList<DocumentModel> typedDocList = db.getAllContent(document.getType());
-                DocumentModel prev = getPrevDoc(typedDocList, document);
-                DocumentModel next = getNextDoc(typedDocList, document);
-                document.setPreviousContent(prev);
-                document.setNextContent(next);
-
-                renderer.render(document);
-                db.markContentAsRendered(document);
-                renderedCount++;
+        try {
+            List<FutureTask<DocumentModel>> tasks = new ArrayList<>();
+            Map<String, NavigationIndex> navigation = new HashMap<>();
+            DocumentList<DocumentModel> documentList = db.getUnrenderedContent();
+            for (DocumentModel document : documentList) {
+                NavigationIndex navigationIndex = getNavigationIndex(navigation, db, document.getType());
+                FutureTask<DocumentModel> task = new FutureTask<>(new RenderTask(renderer, navigationIndex, document));
+                if (workers != null) {
+                    workers.execute(task);
+                } else {
+                    task.run();
+                }
+                tasks.add(task);
+            }
 
-            } catch (Exception e) {
+            // collect the results in document order, so the reported errors do not depend on the number of threads
+            List<DocumentModel> rendered = new ArrayList<>();
+            for (FutureTask<DocumentModel> task : tasks) {
+                try {
+                    rendered.add(task.get());
+                    renderedCount++;
+                } catch (ExecutionException e) {
+                    errors.add(e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    errors.add("Rendering was interrupted");
+                    break;
+                }
+            }
+            // a page written in the background is rendered once it is on disk
+            try {
+                renderer.flush();
+                db.markDocumentsAsRendered(rendered);
+            } catch (IOException e) {
                 errors.add(e.getMessage());
+                for (Throwable suppressed : e.getSuppressed()) {
+                    errors.add(suppressed.getMessage());
+                }
+            }
+        } finally {
+            if (workers != null) {
+                workers.shutdownNow();
             }
         }
 
@@ -50,66 +90,52 @@ public class DocumentsRenderer implements RenderingTool {
         }
     }
 
-    private DocumentModel getNextDoc(DocumentList<DocumentModel> typedList, DocumentModel doc) {
-        int typedListIndex = typedList.indexOf(doc);
-        if (typedList.getFirst().equals(doc)) {
-            // initial doc in typed list so there is no next
-            return null;
-        } else {
-            while (true) {
-                try {
-                    DocumentModel nextDoc = typedList.get(typedListIndex - 1);
-                    if (isPublished(nextDoc)) {
-                        return getContentForNav(nextDoc);
-                    } else {
-                        typedListIndex--;
-                    }
-                } catch (IndexOutOfBoundsException ex) {
-                    return null;
-                }
-            }
+    /**
+     * The navigation index of a type is built with a single query the first time a document of that type is
+     * rendered, and shared by all documents of the type.
+     */
+    private NavigationIndex getNavigationIndex(Map<String, NavigationIndex> navigation, ContentStore db, String docType) {
+        NavigationIndex navigationIndex = navigation.get(docType);
+        if (navigationIndex == null) {
+            navigationIndex = NavigationIndex.build(db.getAllContent(docType));
+            navigation.put(docType, navigationIndex);
         }
+        return navigationIndex;
     }
 
-    private DocumentModel getPrevDoc(DocumentList<DocumentModel> typedList, DocumentModel doc) {
-        int typedListIndex = typedList.indexOf(doc);
-        if (typedList.getLast().equals(doc)) {
-            // last doc in typed list so there is no previous
-            return null;
-        } else {
-            while (true) {
-                try {
-                    DocumentModel prevDoc = typedList.get(typedListIndex + 1);
-                    if (isPublished(prevDoc)) {
-                        return getContentForNav(prevDoc);
-                    } else {
-                        typedListIndex++;
-                    }
-                } catch (IndexOutOfBoundsException ex) {
-                    return null;
-                }
-            }
+    /**
+     * Renders a single document. Runs on a rendering worker when more than one render thread is configured.
+     */
+    private class RenderTask implements Callable<DocumentModel> {
+        private final Renderer renderer;
+        private final NavigationIndex navigationIndex;
+        private final DocumentModel document;
+
+        RenderTask(Renderer renderer, NavigationIndex navigationIndex, DocumentModel document) {
+            this.renderer = renderer;
+            this.navigationIndex = navigationIndex;
+            this.document = document;
         }
-    }
 
-    private boolean isPublished(DocumentModel document) {
-        // Attributes.Status.PUBLISHED_DATE cannot occur here
-        // because it's converted TO either PUBLISHED or DRAFT in the Crawler.
-        return ModelAttributes.Status.PUBLISHED.equals(document.getStatus());
+        @Override
+        public DocumentModel call() throws Exception {
+            document.setPreviousContent(navigationIndex.getPrevious(document));
+            document.setNextContent(navigationIndex.getNext(document));
+
+            renderer.render(document);
+            return document;
+        }
     }
 
-    /**
-     * Creates a simple content model to use in individual post navigations.
-     *
-     * @param document original
-     * @return navigation model for the 'document'
-     */
-    private DocumentModel getContentForNav(DocumentModel document) {
-        DocumentModel navDocument = new DocumentModel();
-        navDocument.setNoExtensionUri(document.getNoExtensionUri());
-        navDocument.setUri(document.getUri());
-        navDocument.setTitle(document.getTitle());
-        return navDocument;
+    private static class RendererThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "jbake-renderer-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 
     @Override
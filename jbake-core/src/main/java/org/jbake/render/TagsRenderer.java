@@ -8,6 +8,7 @@ import org.jbake.app.configuration.JBakeConfigurationFactory;
 import org.jbake.template.RenderingException;
 
 import java.io.File;
+import java.util.Collection;
 
 
 public class TagsRenderer implements RenderingTool {
@@ -26,6 +27,27 @@ public class TagsRenderer implements RenderingTool {
         }
     }
 
+    /**
+     * Render the files of some tags only, e.g. when baking a single changed document.
+     *
+     * @param renderer the renderer
+     * @param config   the project configuration
+     * @param tags     the tags to render
+     * @return the number of rendered tags
+     * @throws RenderingException if a tag could not be rendered
+     */
+    public int render(Renderer renderer, JBakeConfiguration config, Collection<String> tags) throws RenderingException {
+        if (config.getRenderTags()) {
+            try {
+                return renderer.renderTags(config.getTagPathName(), tags);
+            } catch (Exception e) {
+                throw new RenderingException(e);
+            }
+        } else {
+            return 0;
+        }
+    }
+
     @Override
     public int render(Renderer renderer, ContentStore db, File destination, File templatesPath, CompositeConfiguration config) throws RenderingException {
         JBakeConfiguration configuration = new JBakeConfigurationFactory().createDefaultJbakeConfiguration(templatesPath.getParentFile(), config);
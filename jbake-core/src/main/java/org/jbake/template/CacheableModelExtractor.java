@@ -0,0 +1,28 @@
+package org.jbake.template;
+
+import org.jbake.app.ContentStore;
+
+import java.util.Map;
+
+/**
+ * A {@link ModelExtractor} of which the result only depends on the stored documents and a few parameters, so it
+ * can be served from the {@link ModelExtractorCache} as long as the store is not modified.
+ *
+ * @param <T> the type of data returned by this model extractor
+ */
+public interface CacheableModelExtractor<T> extends ModelExtractor<T> {
+
+    /**
+     * Get the parameters, besides the stored documents, the result of the extractor depends on. They become part of
+     * the cache key, so they must implement equals and hashCode.
+     *
+     * @param db    the content store
+     * @param model the template model
+     * @param key   the key the extractor is invoked for
+     * @return the parameters of the result, or null if it only depends on the stored documents
+     */
+    default Object getCacheParameters(ContentStore db, Map model, String key) {
+        return null;
+    }
+
+}
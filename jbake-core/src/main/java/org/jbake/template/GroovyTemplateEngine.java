@@ -20,8 +20,8 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Writer;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Renders documents using a Groovy template engine. Depending on the file extension of the template, the template
@@ -32,7 +32,7 @@ import java.util.Map;
  */
 public class GroovyTemplateEngine extends AbstractTemplateEngine {
 
-    private final Map<String, Template> cachedTemplates = new HashMap<>();
+    private final Map<String, Template> cachedTemplates = new ConcurrentHashMap<>();
 
     /**
      * @deprecated Use {@link #GroovyTemplateEngine(JBakeConfiguration, ContentStore)} instead
@@ -68,7 +68,10 @@ public class GroovyTemplateEngine extends AbstractTemplateEngine {
         Template template = cachedTemplates.get(templateName);
         if (template == null) {
             template = ste.createTemplate(new InputStreamReader(new BufferedInputStream(new FileInputStream(sourceTemplate)), config.getTemplateEncoding()));
-            cachedTemplates.put(templateName, template);
+            Template cached = cachedTemplates.putIfAbsent(templateName, template);
+            if (cached != null) {
+                template = cached;
+            }
         }
         return template;
     }
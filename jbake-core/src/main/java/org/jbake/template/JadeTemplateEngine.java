@@ -12,6 +12,7 @@ import de.neuland.jade4j.template.JadeTemplate;
 import de.neuland.jade4j.template.TemplateLoader;
 import org.apache.commons.configuration2.CompositeConfiguration;
 import org.apache.commons.lang.StringEscapeUtils;
+import org.apache.commons.lang.time.FastDateFormat;
 import org.jbake.app.ContentStore;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.template.model.TemplateModel;
@@ -19,10 +20,9 @@ import org.jbake.template.model.TemplateModel;
 import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Renders pages using the <a href="http://jade.org/">Jade</a> template language.
@@ -87,17 +87,11 @@ public class JadeTemplateEngine extends AbstractTemplateEngine {
     }
 
     public static class FormatHelper {
-        private final Map<String, SimpleDateFormat> formatters = new HashMap<>();
+        private final Map<String, FastDateFormat> formatters = new ConcurrentHashMap<>();
 
         public String format(Date date, String pattern) {
             if (date != null && pattern != null) {
-                SimpleDateFormat df = formatters.get(pattern);
-
-                if (df == null) {
-                    df = new SimpleDateFormat(pattern);
-                    formatters.put(pattern, df);
-                }
-
+                FastDateFormat df = formatters.computeIfAbsent(pattern, FastDateFormat::getInstance);
                 return df.format(date);
             } else {
                 return "";
@@ -0,0 +1,170 @@
+package org.jbake.template;
+
+import org.jbake.app.ContentStore;
+import org.jbake.app.DocumentList;
+import org.jbake.app.PagedDocumentList;
+import org.jbake.model.DocumentModel;
+import org.jbake.model.LazyDocumentModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the results of {@link CacheableModelExtractor}s for the duration of a bake, so rendering many pages does
+ * not query the {@link ContentStore} again for every page.
+ *
+ * <p>Results are keyed by the extractor key and the parameters of the extractor. The least recently used results
+ * are evicted once the cache holds more than its maximum size. All results are dropped as soon as another store is
+ * queried or the store was modified since they were cached, see {@link ContentStore#getModificationCount()}.</p>
+ *
+ * <p>Cached results are shared between templates and rendering threads. Every caller gets its own copy of a cached
+ * list or set and of the documents in it, so a template sorting a result or changing a document does not change it
+ * for the others. The documents of a list are copied page by page as they are read, and a copy loads a body which
+ * was not loaded yet from the cached document.</p>
+ */
+public class ModelExtractorCache {
+
+    public static final int DEFAULT_SIZE = 1000;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Map<List<Object>, Object> results = new LinkedHashMap<List<Object>, Object>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+            return size() > maxSize;
+        }
+    };
+    private int maxSize = DEFAULT_SIZE;
+    private ContentStore store;
+    private long modificationCount;
+
+    /**
+     * Drop all results and counters, e.g. when a new bake starts.
+     *
+     * @param maxSize the maximum number of cached results, 0 disables the cache
+     */
+    public synchronized void reset(int maxSize) {
+        clear();
+        this.maxSize = Math.max(0, maxSize);
+        hits.set(0);
+        misses.set(0);
+    }
+
+    /**
+     * Drop all results, releasing the content store they were queried from.
+     */
+    public synchronized void clear() {
+        results.clear();
+        store = null;
+    }
+
+    /**
+     * Get the result of an extractor, from the cache if possible.
+     *
+     * @param extractor the extractor to invoke on a cache miss
+     * @param db        the content store
+     * @param model     the template model
+     * @param key       the key the extractor is invoked for
+     * @param <T>       the type of data returned by the extractor
+     * @return the extracted result
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(CacheableModelExtractor<T> extractor, ContentStore db, Map model, String key) {
+        if (maxSize == 0) {
+            return extractor.get(db, model, key);
+        }
+
+        List<Object> cacheKey = Arrays.asList(key, extractor.getCacheParameters(db, model, key));
+        long currentModificationCount = db.getModificationCount();
+        synchronized (this) {
+            if (store != db || modificationCount != currentModificationCount) {
+                results.clear();
+                store = db;
+                modificationCount = currentModificationCount;
+            } else if (results.containsKey(cacheKey)) {
+                hits.incrementAndGet();
+                return (T) copyOf(results.get(cacheKey));
+            }
+        }
+
+        // extract outside of the lock, so rendering threads only wait for each other on cache access
+        misses.incrementAndGet();
+        T result = extractor.get(db, model, key);
+        synchronized (this) {
+            if (store == db && modificationCount == currentModificationCount) {
+                results.put(cacheKey, result);
+            }
+        }
+        return (T) copyOf(result);
+    }
+
+    private static Object copyOf(Object result) {
+        if (result instanceof DocumentList) {
+            return copyOfDocuments((DocumentList<?>) result);
+        } else if (result instanceof Set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            for (Object element : (Set<?>) result) {
+                copy.add(copyOfElement(element));
+            }
+            return copy;
+        } else if (result instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object element : (List<?>) result) {
+                copy.add(copyOfElement(element));
+            }
+            return copy;
+        }
+        return result;
+    }
+
+    private static DocumentList<Object> copyOfDocuments(final DocumentList<?> documents) {
+        return new PagedDocumentList<>(documents.size(), new PagedDocumentList.PageLoader<Object>() {
+            @Override
+            public List<Object> load(int offset, int limit) {
+                List<Object> page = new ArrayList<>(limit);
+                for (int i = offset; i < offset + limit && i < documents.size(); i++) {
+                    page.add(copyOfElement(documents.get(i)));
+                }
+                return page;
+            }
+        });
+    }
+
+    private static Object copyOfElement(Object element) {
+        if (element instanceof LazyDocumentModel) {
+            return ((LazyDocumentModel) element).copy();
+        } else if (element instanceof DocumentModel) {
+            DocumentModel copy = new DocumentModel();
+            copy.putAll((DocumentModel) element);
+            return copy;
+        }
+        return element;
+    }
+
+    /**
+     * @return the number of results served from the cache since the last reset
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of results extracted because they were not cached since the last reset
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of cached results
+     */
+    public synchronized int size() {
+        return results.size();
+    }
+}
@@ -40,6 +40,7 @@ public class ModelExtractors {
     private final static Logger LOGGER = LoggerFactory.getLogger(ModelExtractors.class);
 
     private final Map<String, ModelExtractor> extractors;
+    private final ModelExtractorCache cache = new ModelExtractorCache();
 
     private static class Loader {
         private static final ModelExtractors INSTANCE = new ModelExtractors();
@@ -56,9 +57,17 @@ public class ModelExtractors {
 
     public void reset() {
         extractors.clear();
+        cache.reset(ModelExtractorCache.DEFAULT_SIZE);
         loadEngines();
     }
 
+    /**
+     * @return the cache of the results of {@link CacheableModelExtractor}s
+     */
+    public ModelExtractorCache getCache() {
+        return cache;
+    }
+
     public void registerEngine(String key, ModelExtractor extractor) {
         ModelExtractor old = extractors.put(key, extractor);
         if (old != null) {
@@ -123,7 +132,13 @@ public class ModelExtractors {
 
     public <Type> Type extractAndTransform(ContentStore db, String key, Map map, TemplateEngineAdapter<Type> adapter) throws NoModelExtractorException {
         if (extractors.containsKey(key)) {
-            Object extractedValue = extractors.get(key).get(db, map, key);
+            ModelExtractor extractor = extractors.get(key);
+            Object extractedValue;
+            if (extractor instanceof CacheableModelExtractor) {
+                extractedValue = cache.get((CacheableModelExtractor) extractor, db, map, key);
+            } else {
+                extractedValue = extractor.get(db, map, key);
+            }
             return adapter.adapt(key, extractedValue);
         } else {
             throw new NoModelExtractorException("no model extractor for key \"" + key + "\"");
@@ -3,7 +3,6 @@ package org.jbake.template;
 import org.apache.commons.configuration2.CompositeConfiguration;
 import org.apache.commons.lang.LocaleUtils;
 import org.jbake.app.ContentStore;
-import org.jbake.app.configuration.DefaultJBakeConfiguration;
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.model.DocumentModel;
 import org.jbake.model.ModelAttributes;
@@ -17,8 +16,9 @@ import java.io.File;
 import java.io.Writer;
 import java.util.Date;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>A template engine which renders pages using Thymeleaf.</p>
@@ -36,10 +36,7 @@ import java.util.concurrent.locks.ReentrantLock;
  * @author Cédric Champeau
  */
 public class ThymeleafTemplateEngine extends AbstractTemplateEngine {
-    private final ReentrantLock lock = new ReentrantLock();
-    private TemplateEngine templateEngine;
-    private final Context context;
-    private FileTemplateResolver templateResolver;
+    private final Map<String, TemplateEngine> templateEngines = new ConcurrentHashMap<>();
 
     /**
      * @deprecated Use {@link #ThymeleafTemplateEngine(JBakeConfiguration, ContentStore)} instead
@@ -52,28 +49,29 @@ public class ThymeleafTemplateEngine extends AbstractTemplateEngine {
     @Deprecated
     public ThymeleafTemplateEngine(final CompositeConfiguration config, final ContentStore db, final File destination, final File templatesPath) {
         super(config, db, destination, templatesPath);
-        this.context = new Context();
-        initializeTemplateEngine();
     }
 
     public ThymeleafTemplateEngine(final JBakeConfiguration config, final ContentStore db) {
         super(config, db);
-        this.context = new Context();
-        initializeTemplateEngine();
     }
 
-    private void initializeTemplateEngine() {
-        templateResolver = new FileTemplateResolver();
+    /**
+     * The template mode is a property of the template resolver, so every mode gets an engine of its own.
+     * Thymeleaf engines are thread safe once configured, which allows rendering documents concurrently.
+     */
+    private TemplateEngine getTemplateEngine(String templateMode) {
+        return templateEngines.computeIfAbsent(templateMode, this::createTemplateEngine);
+    }
+
+    private TemplateEngine createTemplateEngine(String templateMode) {
+        FileTemplateResolver templateResolver = new FileTemplateResolver();
         templateResolver.setPrefix(config.getTemplateFolder().getAbsolutePath() + File.separatorChar);
         templateResolver.setCharacterEncoding(config.getTemplateEncoding());
-        templateResolver.setTemplateMode(DefaultJBakeConfiguration.DEFAULT_TYHMELEAF_TEMPLATE_MODE);
-        templateEngine = new TemplateEngine();
+        templateResolver.setTemplateMode(templateMode);
+        TemplateEngine templateEngine = new TemplateEngine();
         templateEngine.setTemplateResolver(templateResolver);
         templateEngine.clearTemplateCache();
-    }
-
-    private void updateTemplateMode(TemplateModel model) {
-        templateResolver.setTemplateMode(getTemplateModeByModel(model));
+        return templateEngine;
     }
 
     private String getTemplateModeByModel(TemplateModel model) {
@@ -87,24 +85,18 @@ public class ThymeleafTemplateEngine extends AbstractTemplateEngine {
         String localeString = config.getThymeleafLocale();
         Locale locale = localeString != null ? LocaleUtils.toLocale(localeString) : Locale.getDefault();
 
-        lock.lock();
-        try {
-            initializeContext(locale, model);
-            updateTemplateMode(model);
-            templateEngine.process(templateName, context, writer);
-        } finally {
-            lock.unlock();
-        }
+        Context context = createContext(locale, model);
+        getTemplateEngine(getTemplateModeByModel(model)).process(templateName, context, writer);
     }
 
-    private void initializeContext(Locale locale, TemplateModel model) {
-        context.clearVariables();
-        context.setLocale(locale);
+    private Context createContext(Locale locale, TemplateModel model) {
+        Context context = new Context(locale);
         context.setVariables(model);
 
         for (String key : extractors.keySet()) {
             context.setVariable(key, new ContextVariable(db, key, model));
         }
+        return context;
     }
 
     /**
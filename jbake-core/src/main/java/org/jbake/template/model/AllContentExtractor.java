@@ -4,12 +4,13 @@ import org.jbake.app.ContentStore;
 import org.jbake.app.DocumentList;
 import org.jbake.model.DocumentModel;
 import org.jbake.model.DocumentTypes;
-import org.jbake.template.ModelExtractor;
+import org.jbake.template.CacheableModelExtractor;
 import static org.jbake.app.configuration.PropertyList.*;
 
+import java.util.Arrays;
 import java.util.Map;
 
-public class AllContentExtractor implements ModelExtractor<DocumentList> {
+public class AllContentExtractor implements CacheableModelExtractor<DocumentList> {
 
     @Override
     public DocumentList get(ContentStore db, Map model, String key) {
@@ -26,4 +27,10 @@ public class AllContentExtractor implements ModelExtractor<DocumentList> {
         return allContent;
     }
 
+    @Override
+    public Object getCacheParameters(ContentStore db, Map model, String key) {
+        Map<String, Object> config = (Map<String, Object>) model.get("config");
+        return Arrays.asList(config.get(DATA_FILE_DOCTYPE.getKey().replace(".", "_")), Arrays.asList(DocumentTypes.getDocumentTypes()));
+    }
+
 }
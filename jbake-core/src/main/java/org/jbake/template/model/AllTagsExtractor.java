@@ -1,16 +1,24 @@
 package org.jbake.template.model;
 
 import org.jbake.app.ContentStore;
-import org.jbake.template.ModelExtractor;
+import org.jbake.model.DocumentTypes;
+import org.jbake.template.CacheableModelExtractor;
 
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
-public class AllTagsExtractor implements ModelExtractor<Set<String>> {
+public class AllTagsExtractor implements CacheableModelExtractor<Set<String>> {
 
     @Override
     public Set<String> get(ContentStore db, Map model, String key) {
-        return db.getAllTags();
+        return new LinkedHashSet<>(db.getTagIndex().getTags());
+    }
+
+    @Override
+    public Object getCacheParameters(ContentStore db, Map model, String key) {
+        return Arrays.asList(DocumentTypes.getDocumentTypes());
     }
 
 }
\ No newline at end of file
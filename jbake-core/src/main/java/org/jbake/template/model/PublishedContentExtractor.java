@@ -4,11 +4,12 @@ import org.jbake.app.ContentStore;
 import org.jbake.app.DocumentList;
 import org.jbake.model.DocumentModel;
 import org.jbake.model.DocumentTypes;
-import org.jbake.template.ModelExtractor;
+import org.jbake.template.CacheableModelExtractor;
 
+import java.util.Arrays;
 import java.util.Map;
 
-public class PublishedContentExtractor implements ModelExtractor<DocumentList> {
+public class PublishedContentExtractor implements CacheableModelExtractor<DocumentList> {
 
     @Override
     public DocumentList get(ContentStore db, Map model, String key) {
@@ -21,4 +22,9 @@ public class PublishedContentExtractor implements ModelExtractor<DocumentList> {
         return publishedContent;
     }
 
+    @Override
+    public Object getCacheParameters(ContentStore db, Map model, String key) {
+        return Arrays.asList(DocumentTypes.getDocumentTypes());
+    }
+
 }
\ No newline at end of file
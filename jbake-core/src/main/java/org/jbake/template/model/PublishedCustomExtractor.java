@@ -2,11 +2,11 @@ package org.jbake.template.model;
 
 import org.jbake.app.ContentStore;
 import org.jbake.app.DocumentList;
-import org.jbake.template.ModelExtractor;
+import org.jbake.template.CacheableModelExtractor;
 
 import java.util.Map;
 
-public class PublishedCustomExtractor implements ModelExtractor<DocumentList> {
+public class PublishedCustomExtractor implements CacheableModelExtractor<DocumentList> {
 
     String customDocumentType;
 
@@ -2,11 +2,12 @@ package org.jbake.template.model;
 
 import org.jbake.app.ContentStore;
 import org.jbake.app.DocumentList;
-import org.jbake.template.ModelExtractor;
+import org.jbake.template.CacheableModelExtractor;
 
+import java.util.Arrays;
 import java.util.Map;
 
-public class PublishedPostsExtractor implements ModelExtractor<DocumentList> {
+public class PublishedPostsExtractor implements CacheableModelExtractor<DocumentList> {
 
     @Override
     public DocumentList get(ContentStore db, Map model, String key) {
@@ -17,4 +18,13 @@ public class PublishedPostsExtractor implements ModelExtractor<DocumentList> {
         }
     }
 
+    @Override
+    public Object getCacheParameters(ContentStore db, Map model, String key) {
+        if (model.containsKey("numberOfPages")) {
+            // the page to render is selected with the pagination state of the store
+            return Arrays.asList(db.getStart(), db.getLimit());
+        }
+        return null;
+    }
+
 }
\ No newline at end of file
@@ -2,11 +2,12 @@ package org.jbake.template.model;
 
 import org.jbake.app.ContentStore;
 import org.jbake.app.DocumentList;
-import org.jbake.template.ModelExtractor;
+import org.jbake.model.ModelAttributes;
+import org.jbake.template.CacheableModelExtractor;
 
 import java.util.Map;
 
-public class TagPostsExtractor implements ModelExtractor<DocumentList> {
+public class TagPostsExtractor implements CacheableModelExtractor<DocumentList> {
 
     @Override
     public DocumentList get(ContentStore db, Map model, String key) {
@@ -16,8 +17,13 @@ public class TagPostsExtractor implements ModelExtractor<DocumentList> {
         if (templateModel.getTag() != null) {
             tag = templateModel.getTag();
         }
-        // fetch the tag posts from db
-        return db.getPublishedPostsByTag(tag);
+        // fetch the tag posts from the tag index of the db
+        return db.getTagIndex().getPublishedPosts(tag);
+    }
+
+    @Override
+    public Object getCacheParameters(ContentStore db, Map model, String key) {
+        return model.get(ModelAttributes.TAG);
     }
 
 }
@@ -2,11 +2,14 @@ package org.jbake.template.model;
 
 import org.jbake.app.ContentStore;
 import org.jbake.app.DocumentList;
-import org.jbake.template.ModelExtractor;
+import org.jbake.model.DocumentTypes;
+import org.jbake.model.ModelAttributes;
+import org.jbake.template.CacheableModelExtractor;
 
+import java.util.Arrays;
 import java.util.Map;
 
-public class TaggedDocumentsExtractor implements ModelExtractor<DocumentList> {
+public class TaggedDocumentsExtractor implements CacheableModelExtractor<DocumentList> {
 
     @Override
     public DocumentList get(ContentStore db, Map model, String key) {
@@ -16,8 +19,13 @@ public class TaggedDocumentsExtractor implements ModelExtractor<DocumentList> {
         if (templateModel.getTag() != null) {
             tag = templateModel.getTag();
         }
-        // fetch the tagged documents from db
-        return db.getPublishedDocumentsByTag(tag);
+        // fetch the tagged documents from the tag index of the db
+        return db.getTagIndex().getPublishedDocuments(tag);
+    }
+
+    @Override
+    public Object getCacheParameters(ContentStore db, Map model, String key) {
+        return Arrays.asList(model.get(ModelAttributes.TAG), Arrays.asList(DocumentTypes.getDocumentTypes()));
     }
 
 }
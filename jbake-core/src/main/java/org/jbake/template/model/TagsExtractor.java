@@ -3,15 +3,18 @@ package org.jbake.template.model;
 import org.jbake.app.ContentStore;
 import org.jbake.app.DocumentList;
 import org.jbake.app.FileUtil;
-import org.jbake.template.ModelExtractor;
+import org.jbake.app.TagIndex;
+import org.jbake.model.DocumentTypes;
+import org.jbake.template.CacheableModelExtractor;
 
+import java.util.Arrays;
 import java.util.Map;
 
 import static org.jbake.app.configuration.PropertyList.OUTPUT_EXTENSION;
 import static org.jbake.app.configuration.PropertyList.TAG_PATH;
 
 
-public class TagsExtractor implements ModelExtractor<DocumentList> {
+public class TagsExtractor implements CacheableModelExtractor<DocumentList> {
 
     @Override
     public DocumentList get(ContentStore db, Map model, String key) {
@@ -22,7 +25,8 @@ public class TagsExtractor implements ModelExtractor<DocumentList> {
 
         String tagPath = config.get(TAG_PATH.getKey().replace(".", "_")).toString();
 
-        for (String tag : db.getAllTags()) {
+        TagIndex tagIndex = db.getTagIndex();
+        for (String tag : tagIndex.getTags()) {
             TemplateModel newTag = new TemplateModel();
             String tagName = tag;
             newTag.setName(tagName);
@@ -30,11 +34,19 @@ public class TagsExtractor implements ModelExtractor<DocumentList> {
             String uri = tagPath + FileUtil.URI_SEPARATOR_CHAR + tag + config.get(OUTPUT_EXTENSION.getKey().replace(".", "_")).toString();
 
             newTag.setUri(uri);
-            newTag.setTaggedPosts(db.getPublishedPostsByTag(tagName));
-            newTag.setTaggedDocuments(db.getPublishedDocumentsByTag(tagName));
-            dl.push(newTag);
+            newTag.setTaggedPosts(tagIndex.getPublishedPosts(tagName));
+            newTag.setTaggedDocuments(tagIndex.getPublishedDocuments(tagName));
+            dl.add(newTag);
         }
         return dl;
     }
 
+    @Override
+    public Object getCacheParameters(ContentStore db, Map model, String key) {
+        Map<?, ?> config = (Map<?, ?>) model.get("config");
+        return Arrays.asList(config.get(TAG_PATH.getKey().replace(".", "_")),
+            config.get(OUTPUT_EXTENSION.getKey().replace(".", "_")),
+            Arrays.asList(DocumentTypes.getDocumentTypes()));
+    }
+
 }
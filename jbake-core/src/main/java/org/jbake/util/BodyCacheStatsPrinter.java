@@ -0,0 +1,36 @@
+package org.jbake.util;
+
+import org.jbake.app.BodyCache;
+
+import java.io.PrintStream;
+
+public class BodyCacheStatsPrinter {
+
+    private static final double MEGABYTE = 1024 * 1024;
+
+    private PrintStream out;
+    private BodyCache cache;
+
+    public BodyCacheStatsPrinter(BodyCache cache, PrintStream out) {
+        this.out = out;
+        this.cache = cache;
+    }
+
+    public void print() {
+        BodyCache.Stats stats = cache.getStats();
+        long lookups = stats.getHits() + stats.getMisses();
+
+        out.printf("%nBody cache - Statistics%n%n");
+        printKeyAndValue("Folder", stats.getFolder().getPath());
+        printKeyAndValue("Entries", String.valueOf(stats.getEntries()));
+        printKeyAndValue("Size", String.format("%.1f MB of %.1f MB", stats.getSize() / MEGABYTE, stats.getMaxSize() / MEGABYTE));
+        printKeyAndValue("Hits", String.valueOf(stats.getHits()));
+        printKeyAndValue("Misses", String.valueOf(stats.getMisses()));
+        printKeyAndValue("Hit ratio", lookups > 0 ? String.format("%.1f %%", 100.0 * stats.getHits() / lookups) : "-");
+        printKeyAndValue("Evictions", String.valueOf(stats.getEvictions()));
+    }
+
+    private void printKeyAndValue(String key, String value) {
+        out.printf("%1$s: %2$s%n", String.format("%1$-40s", key).replace(' ', '.'), value);
+    }
+}
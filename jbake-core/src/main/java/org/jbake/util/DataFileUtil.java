@@ -21,6 +21,10 @@ public class DataFileUtil {
     }
 
     public Map<String, Object> get(String ref) {
+        Map<String, Object> dataFile = db.getDataFileIndex(defaultDocType).get(ref);
+        if (dataFile != null) {
+            return dataFile;
+        }
         Map<String, Object> result = new HashMap<>();
         DocumentList docs = db.getDocumentByUri(ref);
         if (docs.isEmpty()) {
@@ -2,22 +2,22 @@ package org.jbake.util;
 
 import org.jbake.app.configuration.JBakeConfiguration;
 import org.jbake.model.DocumentModel;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+
+import java.util.regex.Pattern;
 
 /**
  * @author Manik Magar
  */
 public class HtmlUtil {
 
+    private static final Pattern URI_SCHEME = Pattern.compile("^[a-zA-Z][a-zA-Z0-9+.-]*:");
+
     private HtmlUtil() {
     }
 
     /**
      * Image paths are specified as w.r.t. assets folder. This function prefix site host to all img src except
-     * the ones that starts with http://, https://.
+     * the ones with a scheme like http://, https:// or data:, protocol relative ones and fragments.
      * <p>
      * If image path starts with "./", i.e. relative to the source file, then it first replace that with output file directory and the add site host.
      *
@@ -26,19 +26,17 @@ public class HtmlUtil {
      */
     public static void fixImageSourceUrls(DocumentModel fileContents, JBakeConfiguration configuration) {
         String htmlContent = fileContents.getBody();
-        boolean prependSiteHost = configuration.getImgPathPrependHost();
-        String siteHost = configuration.getSiteHost();
-        String uri = getDocumentUri(fileContents);
-
-        Document document = Jsoup.parseBodyFragment(htmlContent);
-        Elements allImgs = document.getElementsByTag("img");
-
-        for (Element img : allImgs) {
-            transformImageSource(img, uri, siteHost, prependSiteHost);
-        }
-
-        //Use body().html() to prevent adding <body></body> from parsed fragment.
-        fileContents.setBody(document.body().html());
+        final boolean prependSiteHost = configuration.getImgPathPrependHost();
+        final String siteHost = configuration.getSiteHost();
+        final String uri = getDocumentUri(fileContents);
+
+        ImageSourceRewriter rewriter = new ImageSourceRewriter(configuration.getImgPathUpdateAttributes());
+        fileContents.setBody(rewriter.rewrite(htmlContent, new ImageSourceRewriter.PathTransformer() {
+            @Override
+            public String transform(String source) {
+                return transformImageSource(source, uri, siteHost, prependSiteHost);
+            }
+        }));
     }
 
     private static String getDocumentUri(DocumentModel fileContents) {
@@ -55,11 +53,9 @@ public class HtmlUtil {
         return uri;
     }
 
-    private static void transformImageSource(Element img, String uri, String siteHost, boolean prependSiteHost) {
-        String source = img.attr("src");
-
+    private static String transformImageSource(String source, String uri, String siteHost, boolean prependSiteHost) {
         // Now add the root path
-        if (!source.startsWith("http://") && !source.startsWith("https://")) {
+        if (!isAbsoluteOrFragment(source)) {
 
             if (isRelative(source)) {
                 source = uri + source.replaceFirst("\\./", "");
@@ -71,9 +67,8 @@ public class HtmlUtil {
                 }
                 source = siteHost + source;
             }
-
-            img.attr("src", source);
         }
+        return source;
     }
 
     private static String removeFilename(String uri) {
@@ -88,6 +83,10 @@ public class HtmlUtil {
         return uri;
     }
 
+    private static boolean isAbsoluteOrFragment(String source) {
+        return source.startsWith("#") || source.startsWith("//") || URI_SCHEME.matcher(source).find();
+    }
+
     private static boolean isRelative(String source) {
         return !source.startsWith("/");
     }
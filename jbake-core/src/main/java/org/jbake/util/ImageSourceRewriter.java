@@ -0,0 +1,259 @@
+package org.jbake.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Rewrites the image paths of an HTML fragment in a single pass, without building a DOM.
+ *
+ * <p>The fragment is copied as it is, only the values of the selected attributes are replaced: {@code src}
+ * and {@code srcset} of {@code img}, {@code srcset} of {@code source} and {@code href} of {@code a} elements.
+ * A rewritten value is always written in double quotes, everything else keeps its original markup. Comments,
+ * CDATA sections and the content of {@code script}, {@code style}, {@code textarea} and {@code title} elements
+ * are copied without looking for tags.</p>
+ */
+public final class ImageSourceRewriter {
+
+    private static final String SRC = "src";
+    private static final String SRCSET = "srcset";
+    private static final String HREF = "href";
+    private static final String[] RAW_TEXT_ELEMENTS = {"script", "style", "textarea", "title"};
+
+    private final Set<String> attributes = new HashSet<>();
+
+    /**
+     * Transforms a single path.
+     */
+    public interface PathTransformer {
+        /**
+         * @param path the path as written in the attribute
+         * @return the new path
+         */
+        String transform(String path);
+    }
+
+    /**
+     * @param attributes the names of the attributes to rewrite, see the class description
+     */
+    public ImageSourceRewriter(Collection<String> attributes) {
+        for (String attribute : attributes) {
+            this.attributes.add(attribute.trim().toLowerCase(Locale.ENGLISH));
+        }
+    }
+
+    /**
+     * @param html        the HTML fragment
+     * @param transformer the transformation of the paths
+     * @return the fragment with the transformed paths
+     */
+    public String rewrite(String html, PathTransformer transformer) {
+        StringBuilder out = null;
+        int copied = 0;
+        int length = html.length();
+        int i = html.indexOf('<');
+        while (i >= 0 && i < length) {
+            if (html.startsWith("<!--", i)) {
+                i = skipPast(html, i + 4, "-->");
+            } else if (html.startsWith("<![CDATA[", i)) {
+                i = skipPast(html, i + 9, "]]>");
+            } else if (i + 1 < length && (html.charAt(i + 1) == '!' || html.charAt(i + 1) == '?')) {
+                i = skipPast(html, i + 2, ">");
+            } else if (i + 1 < length && Character.isLetter(html.charAt(i + 1))) {
+                Tag tag = new Tag(html, i);
+                if (tag.end < 0) {
+                    break;
+                }
+                for (Value rewritten : tag.values) {
+                    String value = rewriteValue(rewritten.attribute, rewritten.value, transformer);
+                    if (out == null) {
+                        out = new StringBuilder(length + 64);
+                    }
+                    out.append(html, copied, rewritten.start).append('"').append(value.replace("\"", "&quot;")).append('"');
+                    copied = rewritten.end;
+                }
+                i = tag.end;
+                String rawTextEnd = rawTextEnd(tag.name);
+                if (rawTextEnd != null) {
+                    i = skipRawText(html, i, rawTextEnd);
+                }
+            } else {
+                i++;
+            }
+            i = i < 0 ? -1 : html.indexOf('<', i);
+        }
+        if (out == null) {
+            return html;
+        }
+        return out.append(html, copied, length).toString();
+    }
+
+    private String rewriteValue(String attribute, String value, PathTransformer transformer) {
+        if (!attribute.equals(SRCSET)) {
+            return transformer.transform(value);
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 64);
+        for (String candidate : value.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int space = indexOfWhitespace(trimmed);
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            if (space < 0) {
+                sb.append(transformer.transform(trimmed));
+            } else {
+                sb.append(transformer.transform(trimmed.substring(0, space))).append(trimmed, space, trimmed.length());
+            }
+        }
+        return sb.toString();
+    }
+
+    private boolean isRewritten(String element, String attribute) {
+        if (!attributes.contains(attribute)) {
+            return false;
+        }
+        switch (attribute) {
+            case SRC:
+                return element.equals("img");
+            case SRCSET:
+                return element.equals("img") || element.equals("source");
+            case HREF:
+                return element.equals("a");
+            default:
+                return false;
+        }
+    }
+
+    private static String rawTextEnd(String element) {
+        for (String rawText : RAW_TEXT_ELEMENTS) {
+            if (rawText.equals(element)) {
+                return "</" + rawText;
+            }
+        }
+        return null;
+    }
+
+    private static int skipRawText(String html, int from, String end) {
+        int i = from;
+        while ((i = html.indexOf("</", i)) >= 0) {
+            if (html.regionMatches(true, i, end, 0, end.length())) {
+                return i;
+            }
+            i += 2;
+        }
+        return html.length();
+    }
+
+    private static int skipPast(String html, int from, String end) {
+        int i = html.indexOf(end, from);
+        return i < 0 ? html.length() : i + end.length();
+    }
+
+    private static int indexOfWhitespace(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isWhitespace(value.charAt(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isNameEnd(char c) {
+        return Character.isWhitespace(c) || c == '/' || c == '>' || c == '=';
+    }
+
+    /**
+     * An attribute value to rewrite and its location, including the quotes.
+     */
+    private static final class Value {
+        private final String attribute;
+        private final String value;
+        private final int start;
+        private final int end;
+
+        Value(String attribute, String value, int start, int end) {
+            this.attribute = attribute;
+            this.value = value;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /**
+     * A start tag, with the attribute values to rewrite.
+     */
+    private final class Tag {
+        private final List<Value> values = new ArrayList<>(2);
+        private String name;
+        private int end = -1;
+
+        Tag(String html, int start) {
+            int length = html.length();
+            int i = start + 1;
+            while (i < length && !isNameEnd(html.charAt(i))) {
+                i++;
+            }
+            name = html.substring(start + 1, i).toLowerCase(Locale.ENGLISH);
+            while (i < length) {
+                char c = html.charAt(i);
+                if (c == '>') {
+                    end = i + 1;
+                    return;
+                }
+                if (Character.isWhitespace(c) || c == '/') {
+                    i++;
+                    continue;
+                }
+                int nameStart = i;
+                i++;
+                while (i < length && !isNameEnd(html.charAt(i))) {
+                    i++;
+                }
+                String attributeName = html.substring(nameStart, i).toLowerCase(Locale.ENGLISH);
+                int afterName = i;
+                while (i < length && Character.isWhitespace(html.charAt(i))) {
+                    i++;
+                }
+                if (i >= length || html.charAt(i) != '=') {
+                    i = afterName;
+                    continue;
+                }
+                i++;
+                while (i < length && Character.isWhitespace(html.charAt(i))) {
+                    i++;
+                }
+                if (i >= length) {
+                    return;
+                }
+                int valueStart = i;
+                int valueEnd;
+                String attributeValue;
+                char quote = html.charAt(i);
+                if (quote == '"' || quote == '\'') {
+                    int close = html.indexOf(quote, i + 1);
+                    if (close < 0) {
+                        return;
+                    }
+                    attributeValue = html.substring(i + 1, close);
+                    valueEnd = close + 1;
+                } else {
+                    while (i < length && !Character.isWhitespace(html.charAt(i)) && html.charAt(i) != '>') {
+                        i++;
+                    }
+                    attributeValue = html.substring(valueStart, i);
+                    valueEnd = i;
+                }
+                i = valueEnd;
+                if (isRewritten(name, attributeName)) {
+                    values.add(new Value(attributeName, attributeValue, valueStart, valueEnd));
+                }
+            }
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package org.jbake;
 
-import com.orientechnologies.orient.core.record.impl.ODocument;
+import org.jbake.app.ContentStore;
 import org.jbake.model.DocumentModel;
 
 import java.math.BigInteger;
@@ -11,13 +11,15 @@ import java.util.Random;
 
 public class FakeDocumentBuilder {
 
+    private final ContentStore db;
     private DocumentModel fileModel = new DocumentModel();
     private String type;
     private boolean hasSourceUri = false;
     private boolean hasSha1 = false;
     private boolean hasDate = false;
 
-    public FakeDocumentBuilder(String type) {
+    public FakeDocumentBuilder(ContentStore db, String type) {
+        this.db = db;
         this.type = type;
         fileModel.setType(type);
     }
@@ -67,8 +69,7 @@ public class FakeDocumentBuilder {
             if (!hasDate()) {
                 this.withCurrentDate();
             }
-            ODocument document = new ODocument("Documents").fromMap(fileModel);
-            document.save();
+            db.addDocument(fileModel);
         } catch (NoSuchAlgorithmException e) {
             e.printStackTrace();
         }
@@ -4,6 +4,7 @@ import org.jbake.TestUtils;
 import org.jbake.app.configuration.ConfigUtil;
 import org.jbake.app.configuration.DefaultJBakeConfiguration;
 import org.jbake.model.DocumentModel;
+import org.jbake.parser.AsciidoctorEngine;
 import org.jbake.app.configuration.PropertyList;
 import org.junit.Assert;
 import org.junit.Before;
@@ -193,6 +194,58 @@ public class AsciidocParserTest {
             .contains("<p>JBake now supports AsciiDoc.</p>");
     }
 
+    @Test
+    public void parseValidAsciiDocFileWithoutHeaderLoadedOnce() {
+        DocumentModel expected = parser.processFile(validAsciiDocFileWithoutHeader);
+
+        config.setAsciidoctorLoadOnce(true);
+        DocumentModel map = parser.processFile(validAsciiDocFileWithoutHeader);
+        Assert.assertNotNull(map);
+        Assert.assertEquals(expected.getTitle(), map.getTitle());
+        Assert.assertEquals(expected.getStatus(), map.getStatus());
+        Assert.assertEquals(expected.getType(), map.getType());
+        Assert.assertEquals(expected.getDate(), map.getDate());
+        Assert.assertEquals(expected.getBody(), map.getBody());
+    }
+
+    @Test
+    public void parseAttributeOverridingConfigurationLoadedOnce() throws Exception {
+        File overriding = folder.newFile("overriding.ad");
+        PrintWriter out = new PrintWriter(overriding);
+        out.println("= Hello: AsciiDoc!");
+        out.println(":jbake-status: published");
+        out.println(":jbake-type: page");
+        out.println(":source-highlighter: highlight.js");
+        out.println("");
+        out.println("JBake now supports AsciiDoc.");
+        out.close();
+        DocumentModel expected = parser.processFile(overriding);
+
+        config.setAsciidoctorLoadOnce(true);
+        DocumentModel map = parser.processFile(overriding);
+
+        Assert.assertNotNull(map);
+        Assert.assertEquals("highlight.js", expected.get("source-highlighter"));
+        Assert.assertEquals(expected.get("source-highlighter"), map.get("source-highlighter"));
+        // an attribute of the configuration which the document does not set is not part of the header
+        Assert.assertEquals(expected.containsKey("site_host"), map.containsKey("site_host"));
+        Assert.assertEquals(expected.getBody(), map.getBody());
+    }
+
+    @Test
+    public void parseWithPooledRuntimesAfterWarmUp() {
+        config.setAsciidoctorPoolSize(2);
+        AsciidoctorEngine engine = new AsciidoctorEngine();
+        engine.warmUp(config);
+
+        for (int i = 0; i < 3; i++) {
+            DocumentModel map = engine.parse(config, validAsciiDocFileWithoutHeader);
+            Assert.assertNotNull(map);
+            Assert.assertEquals("Hello: AsciiDoc!", map.get("title"));
+            assertThat(map.getBody()).contains("<p>JBake now supports AsciiDoc.</p>");
+        }
+    }
+
     @Test
     public void parseInvalidAsciiDocFileWithoutHeader() {
         DocumentModel map = parser.processFile(invalidAsciiDocFileWithoutHeader);
@@ -16,7 +16,10 @@ import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.times;
@@ -253,6 +256,139 @@ public class AssetTest extends LoggingTest {
         Assertions.assertFalse(asset.isAssetFile(contentFile));
     }
 
+    @Test
+    public void shouldSyncOnlyChangedAssetsAndDeleteRemovedOnes(@TempDir Path sources) throws Exception {
+        File assets = sources.resolve("assets").toFile();
+        File css = write(new File(assets, "css/site.css"), "body {}");
+        File js = write(new File(assets, "js/site.js"), "var site;");
+        config.setAssetFolder(assets);
+        config.setDatabasePath(sources.resolve("cache").toString());
+        config.setAssetSync(true);
+
+        new Asset(config).copy(new SourceInventory(config));
+
+        File cssCopy = folder.resolve("css/site.css").toFile();
+        File jsCopy = folder.resolve("js/site.js").toFile();
+        assertThat(cssCopy).hasContent("body {}");
+        assertThat(jsCopy).hasContent("var site;");
+        assertThat(config.getAssetManifestFile()).isFile();
+
+        // an unchanged asset is not copied again, a changed one is
+        FileUtils.write(cssCopy, "BODY {}", "UTF-8");
+        write(js, "var site = {};");
+        assertThat(js.setLastModified(js.lastModified() + 2000)).isTrue();
+        Asset asset = new Asset(config);
+        asset.copy(new SourceInventory(config));
+
+        assertThat(cssCopy).hasContent("BODY {}");
+        assertThat(jsCopy).hasContent("var site = {};");
+
+        // the copy of a removed asset is deleted
+        assertThat(js.delete()).isTrue();
+        asset.copy(new SourceInventory(config));
+
+        assertThat(jsCopy).doesNotExist();
+        assertThat(cssCopy).hasContent("BODY {}");
+        assertThat(asset.getErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldKeepFileWhichReplacedARemovedAsset(@TempDir Path sources) throws Exception {
+        File assets = sources.resolve("assets").toFile();
+        File about = write(new File(assets, "about.html"), "<p>asset</p>");
+        assertThat(about.setLastModified(about.lastModified() - 10000)).isTrue();
+        config.setAssetFolder(assets);
+        config.setDatabasePath(sources.resolve("cache").toString());
+        config.setAssetSync(true);
+
+        Asset asset = new Asset(config);
+        asset.copy(new SourceInventory(config));
+
+        File aboutCopy = folder.resolve("about.html").toFile();
+        assertThat(aboutCopy).hasContent("<p>asset</p>");
+
+        // the asset became a document, which is rendered to the same file
+        assertThat(about.delete()).isTrue();
+        write(aboutCopy, "<p>about</p>");
+        asset.copy(new SourceInventory(config));
+
+        assertThat(aboutCopy).hasContent("<p>about</p>");
+        assertThat(asset.getErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldLinkSyncedAssets(@TempDir Path sources) throws Exception {
+        File assets = sources.resolve("assets").toFile();
+        File css = write(new File(assets, "css/site.css"), "body {}");
+        config.setAssetFolder(assets);
+        config.setDatabasePath(sources.resolve("cache").toString());
+        config.setAssetSync(true);
+        config.setAssetSyncLink(true);
+
+        Asset asset = new Asset(config);
+        asset.copy(new SourceInventory(config));
+
+        File cssCopy = folder.resolve("css/site.css").toFile();
+        assertThat(cssCopy).hasContent("body {}");
+        assertThat(Files.isSameFile(css.toPath(), cssCopy.toPath())).isTrue();
+
+        // copying over the link does not touch the source
+        config.setAssetSync(false);
+        write(css, "body {x}");
+        asset.copy(new SourceInventory(config));
+
+        assertThat(cssCopy).hasContent("body {x}");
+        assertThat(css).hasContent("body {x}");
+        assertThat(asset.getErrors()).isEmpty();
+    }
+
+    @Test
+    public void shouldCopyInParallelAndCollectErrors(@TempDir Path sources) throws Exception {
+        File assets = sources.resolve("assets").toFile();
+        List<File> failing = new ArrayList<>();
+        List<File> copied = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            String name = String.format("file%02d.txt", i);
+            write(new File(assets, "folder/" + name), name);
+            File target = folder.resolve("folder").resolve(name).toFile();
+            if (i % 3 == 0) {
+                // a folder in place of the target file makes the copy fail
+                assertThat(target.mkdirs()).isTrue();
+                failing.add(target);
+            } else {
+                copied.add(target);
+            }
+        }
+        config.setAssetFolder(assets);
+        config.setAssetThreads(4);
+
+        Asset asset = new Asset(config);
+        asset.copy();
+
+        for (File target : copied) {
+            assertThat(target).hasContent(target.getName());
+        }
+        for (File target : failing) {
+            assertThat(target).isDirectory();
+        }
+        assertThat(asset.getErrors()).hasSize(failing.size());
+
+        // the workers of the previous copy are stopped, the next copy starts new ones
+        for (File target : failing) {
+            assertThat(target.delete()).isTrue();
+        }
+        asset.copy();
+
+        for (File target : failing) {
+            assertThat(target).hasContent(target.getName());
+        }
+        assertThat(asset.getErrors()).hasSize(failing.size());
+    }
+
+    private static File write(File file, String content) throws IOException {
+        FileUtils.write(file, content, "UTF-8");
+        return file;
+    }
 
     private Integer countFiles(File path) {
         int total = 0;
@@ -0,0 +1,110 @@
+package org.jbake.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BodyCacheTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void shouldReturnStoredBody() {
+        BodyCache cache = new BodyCache(root.toFile(), 1024);
+        String key = BodyCache.key("engine", "options", "*text*");
+
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, "<p><strong>text</strong></p>");
+
+        assertThat(cache.get(key)).isEqualTo("<p><strong>text</strong></p>");
+        assertThat(new BodyCache(root.toFile(), 1024).get(key)).isEqualTo("<p><strong>text</strong></p>");
+        assertThat(cache.getStats().getEntries()).isEqualTo(1);
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+        assertThat(cache.getStats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldDeleteAllBodiesWhenCleared() {
+        BodyCache cache = new BodyCache(root.toFile(), 1024);
+        String key = BodyCache.key("engine", "options", "*text*");
+        cache.put(key, "<p><strong>text</strong></p>");
+
+        cache.clear();
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(new BodyCache(root.toFile(), 1024).get(key)).isNull();
+        assertThat(cache.getStats().getEntries()).isZero();
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    @Test
+    public void shouldKeyOnEngineOptionsAndSource() {
+        String key = BodyCache.key("engine", "options", "text");
+
+        assertThat(BodyCache.key("engine", "options", "text")).isEqualTo(key);
+        assertThat(BodyCache.key("other", "options", "text")).isNotEqualTo(key);
+        assertThat(BodyCache.key("engine", "other", "text")).isNotEqualTo(key);
+        assertThat(BodyCache.key("engine", "options", "other")).isNotEqualTo(key);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedBodies() {
+        BodyCache cache = new BodyCache(root.toFile(), 10);
+        String first = BodyCache.key("engine", "", "first");
+        String second = BodyCache.key("engine", "", "second");
+        String third = BodyCache.key("engine", "", "third");
+
+        cache.put(first, "1111");
+        cache.put(second, "2222");
+        assertThat(cache.get(first)).isEqualTo("1111");
+        cache.put(third, "3333");
+
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(first)).isEqualTo("1111");
+        assertThat(cache.get(third)).isEqualTo("3333");
+        BodyCache.Stats stats = cache.getStats();
+        assertThat(stats.getEntries()).isEqualTo(2);
+        assertThat(stats.getSize()).isEqualTo(8);
+        assertThat(stats.getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldBuildSignatureIndependentOfMapOrder() {
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("safe", 0);
+        first.put("attributes", new HashMap<>(Collections.singletonMap("source-highlighter", "prettify")));
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("attributes", new HashMap<>(Collections.singletonMap("source-highlighter", "prettify")));
+        second.put("safe", 0);
+
+        assertThat(BodyCache.signature(first)).isEqualTo(BodyCache.signature(second));
+        assertThat(BodyCache.signature(Arrays.asList("TABLES", "AUTOLINKS")))
+            .isNotEqualTo(BodyCache.signature(Arrays.asList("TABLES")));
+    }
+
+    @Test
+    public void shouldSaveStatistics() {
+        BodyCache cache = new BodyCache(root.toFile(), 1024);
+        String key = BodyCache.key("engine", "", "text");
+        cache.get(key);
+        cache.put(key, "body");
+        cache.get(key);
+        cache.save();
+
+        BodyCache.Stats stats = new BodyCache(root.toFile(), 1024).getStats();
+        assertThat(new File(root.toFile(), "stats.properties")).isFile();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getEntries()).isEqualTo(1);
+    }
+}
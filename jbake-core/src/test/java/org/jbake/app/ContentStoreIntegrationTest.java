@@ -11,17 +11,34 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
 
+/**
+ * Runs the tests of a subclass against every content store, the in-memory store and OrientDB.
+ */
+@RunWith(Parameterized.class)
 public abstract class ContentStoreIntegrationTest {
 
     @ClassRule
     public static TemporaryFolder folder = new TemporaryFolder();
     protected static ContentStore db;
     protected static DefaultJBakeConfiguration config;
-    protected static StorageType storageType = StorageType.MEMORY;
     protected static File sourceFolder;
+    private static StorageType openStorageType;
+
+    @Parameterized.Parameter
+    public StorageType storageType;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<StorageType> storageTypes() {
+        return Arrays.asList(StorageType.MEMORY, StorageType.PLOCAL);
+    }
 
     @BeforeClass
     public static void setUpClass() throws Exception {
@@ -33,9 +50,20 @@ public abstract class ContentStoreIntegrationTest {
         config.setSourceFolder(sourceFolder);
 
         Assert.assertEquals(".html", config.getOutputExtension());
+    }
+
+    /**
+     * Open the store of the current parameter. The tests of one store run one after the other, so each store
+     * is opened once per test class.
+     */
+    private static void openStore(StorageType storageType) throws IOException {
+        if (db != null) {
+            db.close();
+            db.shutdown();
+        }
         config.setDatabaseStore(storageType.toString());
         // OrientDB v3.1.x doesn't allow DB name to be a path even though docs say it's allowed
-        String dbPath = folder.newFolder("documents" + System.currentTimeMillis()).getName();
+        String dbPath = folder.newFolder("documents-" + storageType + System.currentTimeMillis()).getName();
 
         // setting the database path with a colon creates an invalid url for OrientDB.
         // only one colon is expected. there is no documentation about proper url path for windows available :(
@@ -44,16 +72,24 @@ public abstract class ContentStoreIntegrationTest {
         }
         config.setDatabasePath(dbPath);
         db = DBUtil.createDataStore(config);
+        openStorageType = storageType;
     }
 
     @AfterClass
     public static void cleanUpClass() {
-        db.close();
-        db.shutdown();
+        if (db != null) {
+            db.close();
+            db.shutdown();
+            db = null;
+        }
+        openStorageType = null;
     }
 
     @Before
-    public void setUp() {
+    public void setUp() throws IOException {
+        if (openStorageType != storageType) {
+            openStore(storageType);
+        }
         db.startup();
     }
 
@@ -62,7 +98,7 @@ public abstract class ContentStoreIntegrationTest {
         db.drop();
     }
 
-    protected enum StorageType {
+    public enum StorageType {
         MEMORY, PLOCAL;
 
         @Override
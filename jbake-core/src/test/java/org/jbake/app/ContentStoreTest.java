@@ -6,28 +6,192 @@ import org.jbake.model.DocumentTypes;
 import org.jbake.model.ModelAttributes.Status;
 import org.junit.Test;
 
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 public class ContentStoreTest extends ContentStoreIntegrationTest {
 
     public static final String DOC_TYPE_POST = "post";
 
+    @Test
+    public void shouldUseStoreOfConfiguredType() {
+        if (storageType == StorageType.MEMORY) {
+            assertThat(db).isInstanceOf(InMemoryContentStore.class);
+        } else {
+            assertThat(db).isInstanceOf(OrientContentStore.class);
+        }
+    }
+
+    @Test
+    public void shouldReplaceDocumentWithSameSourceUri() {
+        DocumentModel original = DocumentModel.createDefaultDocumentModel();
+        original.setType(DOC_TYPE_POST);
+        original.setStatus(Status.PUBLISHED);
+        original.setSourceUri("test/replaced.md");
+        original.setTags(new String[]{"old"});
+        db.addDocument(original);
+
+        DocumentModel replacement = DocumentModel.createDefaultDocumentModel();
+        replacement.setType(DOC_TYPE_POST);
+        replacement.setStatus(Status.PUBLISHED);
+        replacement.setSourceUri("test/replaced.md");
+        replacement.setTags(new String[]{"new"});
+        db.addDocument(replacement);
+
+        assertEquals(1, db.getDocumentCount(DOC_TYPE_POST));
+        assertEquals(0, db.getPublishedPostsByTag("old").size());
+        assertEquals(1, db.getPublishedPostsByTag("new").size());
+        assertEquals(Collections.singleton("new"), db.getTags());
+    }
+
+    @Test
+    public void shouldReplaceDocumentsWithSameSourceUriInBatches() {
+        DocumentModel original = DocumentModel.createDefaultDocumentModel();
+        original.setType(DOC_TYPE_POST);
+        original.setStatus(Status.PUBLISHED);
+        original.setSourceUri("test/replaced.md");
+        original.put("foo", "originalValue");
+        db.addDocuments(Collections.singletonList(original));
+
+        DocumentModel replacement = DocumentModel.createDefaultDocumentModel();
+        replacement.setType(DOC_TYPE_POST);
+        replacement.setStatus(Status.PUBLISHED);
+        replacement.setSourceUri("test/replaced.md");
+        replacement.put("foo", "replacedValue");
+        db.addDocuments(Collections.singletonList(replacement));
+
+        DocumentList<DocumentModel> documents = db.getDocumentByUri("test/replaced.md");
+        assertEquals(1, documents.size());
+        assertEquals("replacedValue", documents.get(0).get("foo"));
+    }
+
+    @Test
+    public void shouldAddDocumentsInSeveralBatches() {
+        db.setBatchSize(2);
+        try {
+            db.addDocuments(posts(5));
+        } finally {
+            db.setBatchSize(config.getDatabaseBatchSize());
+        }
+
+        assertEquals(5, db.getDocumentCount(DOC_TYPE_POST));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, db.getDocumentByUri(String.format("test/batch-%03d.md", i)).size());
+        }
+    }
+
+    @Test
+    public void shouldKeepCommittedBatchesWhenLaterBatchFails() {
+        final List<DocumentModel> posts = posts(5);
+        // the fifth document cannot be read, so the third batch fails after the first two were stored
+        Collection<DocumentModel> failing = new AbstractCollection<DocumentModel>() {
+            @Override
+            public Iterator<DocumentModel> iterator() {
+                final Iterator<DocumentModel> iterator = posts.iterator();
+                return new Iterator<DocumentModel>() {
+                    private int read;
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public DocumentModel next() {
+                        if (++read == 5) {
+                            throw new IllegalStateException("unreadable document");
+                        }
+                        return iterator.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return posts.size();
+            }
+        };
+
+        db.setBatchSize(2);
+        try {
+            db.addDocuments(failing);
+            fail("the failing batch should be reported");
+        } catch (IllegalStateException e) {
+            assertEquals("unreadable document", e.getMessage());
+        } finally {
+            db.setBatchSize(config.getDatabaseBatchSize());
+        }
+
+        assertEquals(4, db.getDocumentCount(DOC_TYPE_POST));
+        for (int i = 0; i < 4; i++) {
+            assertEquals(1, db.getDocumentByUri(String.format("test/batch-%03d.md", i)).size());
+        }
+        assertEquals(0, db.getDocumentByUri("test/batch-004.md").size());
+    }
+
+    @Test
+    public void shouldContinuePagedListAfterLastDocumentOfPreviousPage() {
+        int count = PagedDocumentList.DEFAULT_PAGE_SIZE + 50;
+        long now = System.currentTimeMillis();
+        List<DocumentModel> posts = posts(count);
+        for (int i = 0; i < count; i++) {
+            // three documents share each date, they are ordered by source uri
+            posts.get(i).setDate(new Date(now - (i / 3) * 86400000L));
+        }
+        db.addDocuments(posts);
+
+        Iterator<DocumentModel> documents = db.getAllContent(DOC_TYPE_POST).iterator();
+        for (int i = 0; i < PagedDocumentList.DEFAULT_PAGE_SIZE; i++) {
+            assertEquals(posts.get(i).getSourceuri(), documents.next().getSourceuri());
+        }
+        // removing a document of the first page must neither skip nor repeat documents of the next page
+        db.deleteContent(posts.get(0).getSourceuri());
+
+        List<String> rest = new ArrayList<>();
+        while (documents.hasNext()) {
+            rest.add(documents.next().getSourceuri());
+        }
+        List<String> expected = new ArrayList<>();
+        for (DocumentModel post : posts.subList(PagedDocumentList.DEFAULT_PAGE_SIZE, count)) {
+            expected.add(post.getSourceuri());
+        }
+        assertEquals(expected, rest);
+    }
+
+    private List<DocumentModel> posts(int count) {
+        List<DocumentModel> posts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            DocumentModel post = DocumentModel.createDefaultDocumentModel();
+            post.setType(DOC_TYPE_POST);
+            post.setStatus(Status.PUBLISHED);
+            post.setSourceUri(String.format("test/batch-%03d.md", i));
+            post.setSha1("sha1-" + i);
+            posts.add(post);
+        }
+        return posts;
+    }
+
     @Test
     public void shouldGetCountForPublishedDocuments() throws Exception {
 
         for (int i = 0; i < 5; i++) {
-            FakeDocumentBuilder builder = new FakeDocumentBuilder(DOC_TYPE_POST);
+            FakeDocumentBuilder builder = new FakeDocumentBuilder(db, DOC_TYPE_POST);
             builder.withStatus("published")
                     .withRandomSha1()
                     .build();
         }
 
-        FakeDocumentBuilder builder = new FakeDocumentBuilder(DOC_TYPE_POST);
+        FakeDocumentBuilder builder = new FakeDocumentBuilder(db, DOC_TYPE_POST);
         builder.withStatus("draft")
                 .withRandomSha1()
                 .build();
@@ -1,6 +1,7 @@
 package org.jbake.app;
 
 import com.orientechnologies.orient.core.db.record.OTrackedMap;
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.hamcrest.BaseMatcher;
 import org.hamcrest.Description;
@@ -13,6 +14,8 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -55,6 +58,72 @@ public class CrawlerTest extends ContentStoreIntegrationTest {
         Assert.assertEquals(3, publishedPostsByTag.size());
     }
 
+    @Test
+    public void crawlWithMultipleWorkers() {
+        int threads = config.getCrawlThreads();
+        config.setCrawlThreads(4);
+        try {
+            Crawler crawler = new Crawler(db, config);
+            crawler.crawl();
+        } finally {
+            config.setCrawlThreads(threads);
+        }
+
+        Assert.assertEquals(4, db.getDocumentCount("post"));
+        Assert.assertEquals(3, db.getDocumentCount("page"));
+        Assert.assertEquals(3, db.getPublishedPosts().size());
+    }
+
+    @Test
+    public void crawlWithDeferredBodies() {
+        config.setCrawlDeferBody(true);
+        try {
+            Crawler crawler = new Crawler(db, config);
+            crawler.crawl();
+        } finally {
+            config.setCrawlDeferBody(false);
+        }
+
+        Assert.assertEquals(4, db.getDocumentCount("post"));
+        assertThat(db.getPublishedPosts().get(0).getBody()).isNull();
+
+        db.setDeferredBodyLoader(new DeferredBodyLoader(config));
+        try {
+            DocumentModel post = db.getPublishedPosts().get(0);
+            assertThat(post.getTitle()).isEqualTo("Another Post");
+            assertThat(post.getBody()).contains("Lorem ipsum dolor sit amet");
+        } finally {
+            db.setDeferredBodyLoader(null);
+        }
+    }
+
+    @Test
+    public void renderTemplateDependentsAgainWithoutParsingThem() throws Exception {
+        File templateFolder = folder.newFolder();
+        FileUtils.copyDirectory(new File(sourceFolder, "freemarkerTemplates"), templateFolder);
+        File previousTemplateFolder = config.getTemplateFolder();
+        config.setTemplateFolder(templateFolder);
+        try {
+            db.updateAndClearCacheIfNeeded(false, new SourceInventory(config), config);
+            new Crawler(db, config).crawl();
+            db.markDocumentsAsRendered(db.getUnrenderedContent());
+
+            FileUtils.write(new File(templateFolder, "post.ftl"), "<p>changed</p>", StandardCharsets.UTF_8, true);
+            db.updateAndClearCacheIfNeeded(false, new SourceInventory(config), config);
+            long modifications = db.getModificationCount();
+            new Crawler(db, config).crawl();
+
+            assertThat(db.getModificationCount()).isEqualTo(modifications);
+            DocumentList<DocumentModel> unrendered = db.getUnrenderedContent();
+            assertThat(unrendered).hasSize(4);
+            for (DocumentModel document : unrendered) {
+                assertThat(document.getType()).isEqualTo("post");
+            }
+        } finally {
+            config.setTemplateFolder(previousTemplateFolder);
+        }
+    }
+
     @Test
     public void crawlDataFiles() {
         Crawler crawler = new Crawler(db, config);
@@ -79,6 +148,30 @@ public class CrawlerTest extends ContentStoreIntegrationTest {
         assertThat(authors.get("Joe Bloggs").get("last_name")).isEqualTo("Bloggs");
     }
 
+    @Test
+    public void crawlChangedDataFileAfterUnchangedOne() throws Exception {
+        File dataFolder = folder.newFolder();
+        FileUtils.write(new File(dataFolder, "a.yaml"), "name: first", StandardCharsets.UTF_8);
+        FileUtils.write(new File(dataFolder, "b.yaml"), "name: second", StandardCharsets.UTF_8);
+        File previousDataFolder = config.getDataFolder();
+        config.setDataFolder(dataFolder);
+        try {
+            DocumentTypes.addDocumentType(config.getDataFileDocType());
+            db.updateSchema();
+            new Crawler(db, config).crawlDataFiles();
+
+            FileUtils.write(new File(dataFolder, "b.yaml"), "name: changed", StandardCharsets.UTF_8);
+            new Crawler(db, config).crawlDataFiles();
+        } finally {
+            config.setDataFolder(previousDataFolder);
+        }
+
+        DataFileUtil dataFileUtil = new DataFileUtil(db, config.getDataFileDocType());
+        assertThat(db.getDocumentCount(config.getDataFileDocType())).isEqualTo(2);
+        assertThat(dataFileUtil.get("a.yaml").get("name")).isEqualTo("first");
+        assertThat(dataFileUtil.get("b.yaml").get("name")).isEqualTo("changed");
+    }
+
     @Test
     public void renderWithPrettyUrls() {
 
@@ -0,0 +1,60 @@
+package org.jbake.app;
+
+import org.jbake.model.DocumentModel;
+import org.jbake.model.DocumentTypes;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DataFileIndexTest extends ContentStoreIntegrationTest {
+
+    @Before
+    public void registerDataType() {
+        DocumentTypes.addDocumentType("data");
+        db.updateSchema();
+    }
+
+    @Test
+    public void shouldIndexDataFilesByUri() {
+        addDataFile("authors.yaml", "authors", "Joe");
+        addDataFile("videos.yaml", "videos", "intro");
+
+        DataFileIndex index = db.getDataFileIndex("data");
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.get("authors.yaml").get("authors")).isEqualTo("Joe");
+        assertThat(index.get("videos.yaml").get("videos")).isEqualTo("intro");
+        assertThat(index.get("unknown.yaml")).isNull();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowModifyingIndexedDataFiles() {
+        addDataFile("authors.yaml", "authors", "Joe");
+
+        db.getDataFileIndex("data").get("authors.yaml").put("authors", "Jane");
+    }
+
+    @Test
+    public void shouldRebuildIndexWhenStoreIsModified() {
+        addDataFile("authors.yaml", "authors", "Joe");
+        DataFileIndex index = db.getDataFileIndex("data");
+
+        assertThat(db.getDataFileIndex("data")).isSameAs(index);
+
+        addDataFile("videos.yaml", "videos", "intro");
+
+        assertThat(db.getDataFileIndex("data")).isNotSameAs(index);
+        assertThat(db.getDataFileIndex("data").get("videos.yaml")).isNotNull();
+    }
+
+    private void addDataFile(String sourceUri, String key, String value) {
+        DocumentModel document = new DocumentModel();
+        document.setType("data");
+        document.setSourceUri(sourceUri);
+        document.setSha1("sha1");
+        document.setRendered(true);
+        document.put(key, value);
+        db.addDocument(document);
+    }
+}
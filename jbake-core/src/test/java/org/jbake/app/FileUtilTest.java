@@ -53,4 +53,19 @@ public class FileUtilTest {
         path = FileUtil.getUriPathToContentRoot(config, new File(config.getContentFolder(), "/blog/level2/index.html"));
         assertThat(path).isEqualTo("../../");
     }
+
+    @Test
+    public void testHashWithConfiguredAlgorithm() throws Exception {
+        File fixtureDir = new File(this.getClass().getResource("/fixture").getFile());
+        File jbakeFile = new File(fixtureDir, "jbake.properties");
+
+        assertEquals(FileUtil.sha1(jbakeFile), FileUtil.hash(jbakeFile, "SHA-1"));
+        assertThat(FileUtil.hash(jbakeFile, "MD5")).hasSize(32);
+        assertThat(FileUtil.hash(jbakeFile, FileUtil.CRC32)).hasSize(8).isNotEqualTo(FileUtil.hash(fixtureDir, FileUtil.CRC32));
+    }
+
+    @Test
+    public void testToHex() {
+        assertEquals("00ff7f80", FileUtil.toHex(new byte[]{0, (byte) 0xff, 0x7f, (byte) 0x80}));
+    }
 }
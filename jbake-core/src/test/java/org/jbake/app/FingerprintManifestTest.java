@@ -0,0 +1,80 @@
+package org.jbake.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FingerprintManifestTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    public void shouldReuseHashWhileFileAttributesAreUnchanged() throws Exception {
+        File source = write("first.md", "aaaa");
+        long lastModified = source.lastModified();
+        FingerprintManifest manifest = FingerprintManifest.load(root.resolve("fingerprint.manifest").toFile());
+
+        String hash = manifest.getHash(source, "SHA-1");
+        assertThat(hash).isEqualTo(FileUtil.sha1(source));
+
+        // same size and modification time, so the file is not read again
+        write("first.md", "bbbb");
+        assertThat(source.setLastModified(lastModified)).isTrue();
+        assertThat(manifest.getHash(source, "SHA-1")).isEqualTo(hash);
+
+        assertThat(source.setLastModified(lastModified + 2000)).isTrue();
+        assertThat(manifest.getHash(source, "SHA-1")).isEqualTo(FileUtil.sha1(source)).isNotEqualTo(hash);
+    }
+
+    @Test
+    public void shouldHashAgainWhenAlgorithmChanges() throws Exception {
+        File source = write("first.md", "content");
+        FingerprintManifest manifest = FingerprintManifest.load(root.resolve("fingerprint.manifest").toFile());
+
+        manifest.getHash(source, "SHA-1");
+
+        assertThat(manifest.getHash(source, FileUtil.CRC32)).isEqualTo(FileUtil.hash(source, FileUtil.CRC32));
+    }
+
+    @Test
+    public void shouldPersistAndPruneFingerprints() throws Exception {
+        File file = root.resolve("cache/fingerprint.manifest").toFile();
+        File kept = write("kept.md", "kept");
+        File dropped = write("dropped.md", "dropped");
+        FingerprintManifest manifest = FingerprintManifest.load(file);
+        String keptHash = manifest.getHash(kept, "MD5");
+        manifest.getHash(dropped, "MD5");
+        manifest.save();
+
+        FingerprintManifest loaded = FingerprintManifest.load(file);
+        loaded.getHash(kept, "MD5");
+        loaded.pruneUnused();
+        loaded.save();
+
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertThat(content).contains(keptHash).doesNotContain("dropped.md");
+    }
+
+    @Test
+    public void shouldIgnoreUnreadableManifest() throws Exception {
+        File file = write("fingerprint.manifest", "/some/file=not a fingerprint");
+
+        FingerprintManifest manifest = FingerprintManifest.load(file);
+        File source = write("first.md", "content");
+
+        assertThat(manifest.getHash(source, "SHA-1")).isEqualTo(FileUtil.sha1(source));
+    }
+
+    private File write(String name, String content) throws Exception {
+        File file = root.resolve(name).toFile();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+}
@@ -0,0 +1,100 @@
+package org.jbake.app;
+
+import org.jbake.model.DocumentModel;
+import org.jbake.model.ModelAttributes;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NavigationIndexTest {
+
+    @Test
+    public void shouldSkipUnpublishedDocumentsForNavigation() {
+        DocumentModel oldest = document("oldest", ModelAttributes.Status.PUBLISHED, 1);
+        DocumentModel draft = document("draft", ModelAttributes.Status.DRAFT, 2);
+        DocumentModel middle = document("middle", ModelAttributes.Status.PUBLISHED, 3);
+        DocumentModel newest = document("newest", ModelAttributes.Status.PUBLISHED, 4);
+
+        NavigationIndex index = NavigationIndex.build(Arrays.asList(newest, middle, draft, oldest));
+
+        assertThat(index.getNext(newest)).isNull();
+        assertThat(index.getPrevious(newest).getTitle()).isEqualTo("middle");
+        assertThat(index.getNext(middle).getTitle()).isEqualTo("newest");
+        assertThat(index.getPrevious(middle).getTitle()).isEqualTo("oldest");
+        assertThat(index.getNext(draft).getTitle()).isEqualTo("middle");
+        assertThat(index.getPrevious(draft).getTitle()).isEqualTo("oldest");
+        assertThat(index.getNext(oldest).getTitle()).isEqualTo("middle");
+        assertThat(index.getPrevious(oldest)).isNull();
+    }
+
+    @Test
+    public void shouldOrderDocumentsByDateNewestFirst() {
+        DocumentModel first = document("first", ModelAttributes.Status.PUBLISHED, 1);
+        DocumentModel second = document("second", ModelAttributes.Status.PUBLISHED, 2);
+        DocumentModel third = document("third", ModelAttributes.Status.PUBLISHED, 3);
+
+        NavigationIndex index = NavigationIndex.build(Arrays.asList(second, first, third));
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.getTitle(0)).isEqualTo("third");
+        assertThat(index.getTitle(1)).isEqualTo("second");
+        assertThat(index.getTitle(2)).isEqualTo("first");
+        assertThat(index.indexOf(first)).isEqualTo(2);
+        assertThat(index.getUri(2)).isEqualTo("first.html");
+    }
+
+    @Test
+    public void shouldNotNavigateFromUnknownDocument() {
+        DocumentModel indexed = document("indexed", ModelAttributes.Status.PUBLISHED, 1);
+        DocumentModel unknown = document("unknown", ModelAttributes.Status.PUBLISHED, 2);
+
+        NavigationIndex index = NavigationIndex.build(Arrays.asList(indexed));
+
+        assertThat(index.indexOf(unknown)).isEqualTo(-1);
+        assertThat(index.getNext(unknown)).isNull();
+        assertThat(index.getPrevious(unknown)).isNull();
+    }
+
+    @Test
+    public void shouldReportDocumentsWhoseNavigationChanged() {
+        DocumentModel first = document("first", ModelAttributes.Status.PUBLISHED, 1);
+        DocumentModel second = document("second", ModelAttributes.Status.PUBLISHED, 2);
+        DocumentModel third = document("third", ModelAttributes.Status.PUBLISHED, 3);
+        DocumentModel fourth = document("fourth", ModelAttributes.Status.PUBLISHED, 4);
+        NavigationIndex before = NavigationIndex.build(Arrays.asList(fourth, third, second, first));
+
+        DocumentModel renamed = document("second", ModelAttributes.Status.PUBLISHED, 2);
+        renamed.setTitle("renamed");
+        NavigationIndex after = NavigationIndex.build(Arrays.asList(fourth, third, renamed, first));
+
+        assertThat(after.getChangedNavigation(before)).containsExactly("third.md", "first.md");
+        assertThat(before.getChangedNavigation(before)).isEmpty();
+    }
+
+    @Test
+    public void shouldReportNewDocumentsAndTheirNeighbours() {
+        DocumentModel first = document("first", ModelAttributes.Status.PUBLISHED, 1);
+        DocumentModel second = document("second", ModelAttributes.Status.PUBLISHED, 2);
+        DocumentModel third = document("third", ModelAttributes.Status.PUBLISHED, 3);
+        NavigationIndex before = NavigationIndex.build(Arrays.asList(third, first));
+
+        NavigationIndex after = NavigationIndex.build(Arrays.asList(third, second, first));
+
+        assertThat(after.getChangedNavigation(before)).containsExactly("third.md", "second.md", "first.md");
+        assertThat(before.getChangedNavigation(after)).containsExactly("third.md", "first.md");
+    }
+
+    private DocumentModel document(String title, String status, long date) {
+        DocumentModel document = new DocumentModel();
+        document.setSourceUri(title + ".md");
+        document.setUri(title + ".html");
+        document.setNoExtensionUri(title + "/");
+        document.setTitle(title);
+        document.setStatus(status);
+        document.setDate(new Date(date));
+        return document;
+    }
+}
@@ -0,0 +1,115 @@
+package org.jbake.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class OutputWriterTest {
+
+    @TempDir
+    File folder;
+
+    @Test
+    public void shouldWriteFileAndCreateFolders() throws Exception {
+        OutputWriter writer = new OutputWriter(0);
+        AtomicInteger written = new AtomicInteger();
+        File file = new File(folder, "blog/2020/post.html");
+
+        writer.write(file, buffer(writer, "<p>post</p>"), counter(written));
+
+        assertThat(written.get()).isEqualTo(1);
+        assertThat(content(file)).isEqualTo("<p>post</p>");
+    }
+
+    @Test
+    public void shouldReuseReleasedBuffers() {
+        OutputWriter writer = new OutputWriter(0);
+        OutputWriter.OutputBuffer buffer = buffer(writer, "content");
+
+        writer.release(buffer);
+
+        assertThat(buffer.size()).isZero();
+        assertThat(writer.acquire()).isSameAs(buffer);
+        assertThat(writer.acquire()).isNotSameAs(buffer);
+    }
+
+    @Test
+    public void shouldWriteBehindUntilFlushed() throws Exception {
+        OutputWriter writer = new OutputWriter(2);
+        AtomicInteger written = new AtomicInteger();
+
+        for (int i = 0; i < 100; i++) {
+            writer.write(new File(folder, "tags/tag" + i + "/index.html"), buffer(writer, "tag " + i), counter(written));
+        }
+        writer.flush();
+
+        assertThat(written.get()).isEqualTo(100);
+        for (int i = 0; i < 100; i++) {
+            assertThat(content(new File(folder, "tags/tag" + i + "/index.html"))).isEqualTo("tag " + i);
+        }
+    }
+
+    @Test
+    public void shouldReportFailedWritesOnFlush() throws Exception {
+        OutputWriter writer = new OutputWriter(1);
+        AtomicInteger written = new AtomicInteger();
+        File notAFolder = new File(folder, "file.html");
+        Files.write(notAFolder.toPath(), new byte[0]);
+
+        writer.write(new File(notAFolder, "first.html"), buffer(writer, "first"), counter(written));
+        writer.write(new File(notAFolder, "second.html"), buffer(writer, "second"), counter(written));
+        writer.write(new File(folder, "third.html"), buffer(writer, "third"), counter(written));
+
+        assertThatThrownBy(writer::flush)
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("first.html");
+        assertThat(written.get()).isEqualTo(1);
+        assertThat(content(new File(folder, "third.html"))).isEqualTo("third");
+
+        // the failures were reported once
+        writer.flush();
+    }
+
+    @Test
+    public void shouldReplaceHardLinkInsteadOfWritingThroughIt() throws Exception {
+        OutputWriter writer = new OutputWriter(0);
+        File asset = new File(folder, "asset.html");
+        Files.write(asset.toPath(), "asset".getBytes(StandardCharsets.UTF_8));
+        File file = new File(folder, "index.html");
+        Files.createLink(file.toPath(), asset.toPath());
+
+        writer.write(file, buffer(writer, "rendered"), counter(new AtomicInteger()));
+
+        assertThat(content(file)).isEqualTo("rendered");
+        assertThat(content(asset)).isEqualTo("asset");
+        assertThat(folder.list()).containsExactlyInAnyOrder("asset.html", "index.html");
+    }
+
+    private static OutputWriter.OutputBuffer buffer(OutputWriter writer, String content) {
+        OutputWriter.OutputBuffer buffer = writer.acquire();
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        buffer.write(bytes, 0, bytes.length);
+        return buffer;
+    }
+
+    private static Runnable counter(final AtomicInteger count) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                count.incrementAndGet();
+            }
+        };
+    }
+
+    private static String content(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -17,6 +17,7 @@ import static org.hamcrest.core.Is.is;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -24,6 +25,7 @@ import java.util.Locale;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
@@ -92,6 +94,26 @@ public class OvenTest {
         assertThat(blogSubFolder).isNotEmptyDirectory();
     }
 
+    @Test
+    public void shouldNotRenderIntoLinkedAssets() throws Exception {
+        Path source = root.resolve("source");
+        FileUtils.copyDirectory(sourceFolder, source.toFile());
+        configuration = (DefaultJBakeConfiguration) new ConfigUtil().loadConfig(source.toFile());
+        configuration.setDestinationFolder(root.resolve("output").toFile());
+        configuration.setTemplateFolder(new File(source.toFile(), "groovyMarkupTemplates"));
+        configuration.setProperty("template.paper.file", "paper.tpl");
+        configuration.setAssetSync(true);
+        configuration.setAssetSyncLink(true);
+        // the asset is linked to the file the index is rendered to
+        Path asset = source.resolve("assets/index.html");
+        Files.write(asset, "<p>asset</p>".getBytes(StandardCharsets.UTF_8));
+
+        new Oven(configuration).bake();
+        new Oven(configuration).bake();
+
+        assertThat(asset).hasContent("<p>asset</p>");
+    }
+
     @Test
     public void shouldBakeWithAbsoluteCustomPaths() throws Exception {
 
@@ -186,7 +208,7 @@ public class OvenTest {
         configuration.setContentFolder(content);
         configuration.setAssetFolder(assets);
 
-        contentStore = spy(new ContentStore("memory", "documents" + System.currentTimeMillis()));
+        contentStore = spy(new InMemoryContentStore());
 
         Crawler crawler = mock(Crawler.class);
         Renderer renderer = mock(Renderer.class);
@@ -205,8 +227,52 @@ public class OvenTest {
 
         verify(contentStore, times(1)).startup();
         verify(renderer, atLeastOnce()).renderIndex(anyString());
-        verify(crawler, times(1)).crawl();
-        verify(asset, times(1)).copy();
+        verify(crawler, times(1)).crawl(any(SourceInventory.class));
+        verify(asset, times(1)).copy(any(SourceInventory.class));
+    }
+
+    @Test
+    public void shouldBakeChangedContentFileIncrementally() throws Exception {
+        Path source = root.resolve("source");
+        FileUtils.copyDirectory(TestUtils.getTestResourcesAsSourceFolder(), source.toFile());
+        configuration = (DefaultJBakeConfiguration) new ConfigUtil().loadConfig(source.toFile());
+        configuration.setDestinationFolder(root.resolve("output").toFile());
+        configuration.setTemplateFolder(source.resolve("freemarkerTemplates").toFile());
+        configuration.setProperty(PropertyList.RENDER_TAGS.getKey(), true);
+
+        Utensils utensils = UtensilsFactory.createDefaultUtensils(configuration);
+        Crawler crawler = spy(utensils.getCrawler());
+        utensils.setCrawler(crawler);
+        contentStore = utensils.getContentStore();
+        Oven oven = new Oven(utensils);
+        oven.setKeepContentStoreOpen(true);
+
+        try {
+            oven.bake();
+
+            File post = source.resolve("content/blog/2013/second-post.html").toFile();
+            String header = FileUtils.readFileToString(post, StandardCharsets.UTF_8);
+            FileUtils.writeStringToFile(post, header.replace("title=Second Post", "title=Revised Post"), StandardCharsets.UTF_8);
+            oven.bake(post);
+
+            assertThat(oven.getErrors()).isEmpty();
+            verify(crawler, times(1)).crawl(any(SourceInventory.class));
+            verify(crawler, times(1)).crawlSingleFile(post);
+            File output = configuration.getDestinationFolder();
+            assertThat(new File(output, "blog/2013/second-post.html")).content(StandardCharsets.UTF_8).contains("Revised Post");
+            assertThat(new File(output, "index.html")).content(StandardCharsets.UTF_8).contains("Revised Post");
+            assertThat(new File(output, "tags/blog.html")).content(StandardCharsets.UTF_8).contains("Revised Post");
+            assertThat(contentStore.getUnrenderedContent()).isEmpty();
+
+            assertThat(post.delete()).isTrue();
+            oven.bake(post);
+
+            assertThat(oven.getErrors()).isEmpty();
+            assertThat(contentStore.getDocumentByUri("blog/2013/second-post.html")).isEmpty();
+            assertThat(new File(output, "index.html")).content(StandardCharsets.UTF_8).doesNotContain("Revised Post");
+        } finally {
+            oven.close();
+        }
     }
 
     @Test
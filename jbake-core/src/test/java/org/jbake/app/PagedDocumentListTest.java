@@ -0,0 +1,84 @@
+package org.jbake.app;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PagedDocumentListTest {
+
+    @Test
+    public void shouldLoadOnlyAccessedPages() {
+        CountingLoader loader = new CountingLoader(25);
+        PagedDocumentList<Integer> list = new PagedDocumentList<>(25, 10, loader);
+
+        assertThat(list.size()).isEqualTo(25);
+        assertThat(loader.offsets).isEmpty();
+
+        assertThat(list.get(12)).isEqualTo(12);
+        assertThat(list.get(19)).isEqualTo(19);
+        assertThat(loader.offsets).containsExactly(10);
+
+        assertThat(list).containsExactlyElementsOf(loader.elements);
+        assertThat(loader.offsets).containsExactly(10, 0, 20);
+    }
+
+    @Test
+    public void shouldMaterializeWhenModified() {
+        CountingLoader loader = new CountingLoader(5);
+        PagedDocumentList<Integer> list = new PagedDocumentList<>(5, 2, loader);
+
+        Collections.sort(list, Collections.<Integer>reverseOrder());
+        list.add(-1);
+
+        assertThat(list).containsExactly(4, 3, 2, 1, 0, -1);
+        assertThat(loader.offsets).containsExactly(0, 2, 4);
+    }
+
+    @Test
+    public void shouldSupportLinkedListMethods() {
+        CountingLoader loader = new CountingLoader(5);
+        PagedDocumentList<Integer> list = new PagedDocumentList<>(5, 2, loader);
+
+        assertThat(list.getLast()).isEqualTo(4);
+        assertThat(list.peekFirst()).isEqualTo(0);
+        assertThat(loader.offsets).containsExactly(4, 0);
+
+        list.push(-1);
+        assertThat(list.pollLast()).isEqualTo(4);
+        assertThat(list.pop()).isEqualTo(-1);
+        assertThat(list).containsExactly(0, 1, 2, 3);
+    }
+
+    @Test
+    public void shouldEndWithShortPage() {
+        CountingLoader loader = new CountingLoader(25);
+        PagedDocumentList<Integer> list = new PagedDocumentList<>(25, 10, loader);
+        // documents removed after the list was counted
+        loader.elements.subList(15, 25).clear();
+
+        assertThat(list).containsExactlyElementsOf(loader.elements);
+        assertThat(list.size()).isEqualTo(15);
+        assertThat(loader.offsets).containsExactly(0, 10);
+    }
+
+    private static class CountingLoader implements PagedDocumentList.PageLoader<Integer> {
+        private final List<Integer> elements = new ArrayList<>();
+        private final List<Integer> offsets = new ArrayList<>();
+
+        CountingLoader(int size) {
+            for (int i = 0; i < size; i++) {
+                elements.add(i);
+            }
+        }
+
+        @Override
+        public List<Integer> load(int offset, int limit) {
+            offsets.add(offset);
+            return new ArrayList<>(elements.subList(offset, Math.min(offset + limit, elements.size())));
+        }
+    }
+}
@@ -15,6 +15,8 @@ import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
 import java.util.Calendar;
@@ -334,6 +336,19 @@ public class ParserTest {
         assertJSONExtracted(documentModel.get("jsondata"));
     }
 
+    @Test
+    public void parseFileWithWindowsLineEndingsAndUnterminatedLastLine() throws Exception {
+        File file = folder.newFile("crlf.html");
+        Files.write(file.toPath(), ("title=CRLF\r\nstatus=draft\r\ntype=post\r\n~~~~~~\r\n<p>first</p>\r\n<p>second</p>")
+            .getBytes(StandardCharsets.UTF_8));
+
+        DocumentModel documentModel = parser.processFile(file);
+
+        assertThat(documentModel).isNotNull();
+        assertThat(documentModel.getTitle()).isEqualTo("CRLF");
+        assertThat(documentModel.getBody()).isEqualTo("<p>first</p>\n<p>second</p>\n");
+    }
+
     private void assertJSONExtracted(Object jsonDataEntry) {
         assertThat(jsonDataEntry).isInstanceOf(JSONObject.class);
         JSONObject jsonData = (JSONObject) jsonDataEntry;
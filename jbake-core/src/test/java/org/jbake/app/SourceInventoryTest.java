@@ -0,0 +1,89 @@
+package org.jbake.app;
+
+import org.jbake.app.configuration.ConfigUtil;
+import org.jbake.app.configuration.DefaultJBakeConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SourceInventoryTest {
+
+    private File fixtureDir;
+    private SourceInventory sources;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        fixtureDir = new File(this.getClass().getResource("/fixture").getFile());
+        DefaultJBakeConfiguration config = (DefaultJBakeConfiguration) new ConfigUtil().loadConfig(fixtureDir);
+        sources = new SourceInventory(config);
+    }
+
+    @Test
+    public void shouldClassifyContentFolder() {
+        List<String> content = relativePaths("content", sources.getContentFiles());
+        List<String> assets = relativePaths("content", sources.getContentAssetFiles());
+
+        assertThat(content).contains("about.html", "blog/2012/first-post.html", "blog/2016/draft-post.html");
+        assertThat(content).doesNotContain(".ignorablefile.html", "blog/2012/sample.json");
+        assertThat(assets).contains("blog/2012/sample.json", "blog/2012/images/custom-image.png");
+        assertThat(assets).doesNotContain("about.html");
+    }
+
+    @Test
+    public void shouldListDataFiles() {
+        assertThat(relativePaths("data", sources.getDataFiles())).containsExactly("authors.yaml", "videos.yaml");
+    }
+
+    @Test
+    public void shouldSkipIgnoredAssetFolders() {
+        List<String> assets = relativePaths("assets", sources.getAssetFiles());
+
+        assertThat(assets).contains("css/bootstrap.min.css", "js/bootstrap.min.js", "fooignorablefolder/file_in_foo_ignored_folder.html");
+        assertThat(assets).doesNotContain("ignorablefolder/file_in_ignored_folder.html", "ignorablefolder/.jbakeignore");
+    }
+
+    @Test
+    public void shouldMatchIgnoreFileIgnoringCase(@TempDir File sourceFolder) throws Exception {
+        File ignored = new File(sourceFolder, "assets/ignored");
+        File kept = new File(sourceFolder, "assets/kept");
+        assertThat(ignored.mkdirs()).isTrue();
+        assertThat(kept.mkdirs()).isTrue();
+        assertThat(new File(ignored, ".JBakeIgnore").createNewFile()).isTrue();
+        assertThat(new File(ignored, "ignored.css").createNewFile()).isTrue();
+        assertThat(new File(kept, "kept.css").createNewFile()).isTrue();
+        DefaultJBakeConfiguration config = (DefaultJBakeConfiguration) new ConfigUtil().loadConfig(fixtureDir);
+        config.setAssetFolder(new File(sourceFolder, "assets"));
+
+        List<String> assets = relativePaths("assets", new SourceInventory(config).getAssetFiles(), sourceFolder);
+
+        assertThat(assets).containsExactly("kept/kept.css");
+    }
+
+    @Test
+    public void shouldListFilesInWalkOrder() {
+        List<String> content = relativePaths("content", sources.getContentFiles());
+
+        assertThat(content.indexOf("about.html")).isLessThan(content.indexOf("blog/2012/first-post.html"));
+        assertThat(content.indexOf("blog/2012/first-post.html")).isLessThan(content.indexOf("blog/2013/second-post.html"));
+        assertThat(content.indexOf("blog/2016/draft-post.html")).isLessThan(content.indexOf("blog/invalid_header.html"));
+        assertThat(sources.getContentFiles()).isSameAs(sources.getContentFiles());
+    }
+
+    private List<String> relativePaths(String folder, List<File> files) {
+        return relativePaths(folder, files, fixtureDir);
+    }
+
+    private List<String> relativePaths(String folder, List<File> files, File sourceFolder) {
+        List<String> paths = new ArrayList<>();
+        for (File file : files) {
+            paths.add(FileUtil.asPath(new File(sourceFolder, folder).toPath().relativize(file.toPath()).toString()));
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,89 @@
+package org.jbake.app;
+
+import org.jbake.model.DocumentModel;
+import org.jbake.model.ModelAttributes.Status;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TagIndexTest extends ContentStoreIntegrationTest {
+
+    @Test
+    public void shouldIndexPublishedDocumentsByTag() {
+        addDocument("post", "old-post.md", Status.PUBLISHED, 1, "java", "groovy");
+        addDocument("post", "new-post.md", Status.PUBLISHED, 2, "java");
+        addDocument("page", "page.md", Status.PUBLISHED, 3, "java");
+        addDocument("post", "draft.md", Status.DRAFT, 4, "java", "draft");
+
+        TagIndex index = db.getTagIndex();
+
+        assertThat(index.getTags()).containsExactly("groovy", "java");
+        assertThat(index.getPostCount("java")).isEqualTo(2);
+        assertThat(index.getDocumentCount("java")).isEqualTo(3);
+        assertThat(index.getPublishedPosts("java")).extracting("sourceuri").containsExactly("new-post.md", "old-post.md");
+        assertThat(index.getPublishedDocuments("java")).isEqualTo(db.getPublishedDocumentsByTag("java"));
+        assertThat(index.getPublishedPosts("unknown")).isEmpty();
+        assertThat(index.getPublishedPosts(null)).isEmpty();
+    }
+
+    @Test
+    public void shouldRebuildIndexWhenStoreIsModified() {
+        addDocument("post", "first.md", Status.PUBLISHED, 1, "java");
+        TagIndex index = db.getTagIndex();
+
+        assertThat(db.getTagIndex()).isSameAs(index);
+
+        addDocument("post", "second.md", Status.PUBLISHED, 2, "kotlin");
+
+        assertThat(db.getTagIndex()).isNotSameAs(index);
+        assertThat(db.getTagIndex().getTags()).containsExactly("java", "kotlin");
+    }
+
+    @Test
+    public void shouldFetchDocumentsOfTagWhenRead() {
+        final List<DocumentModel> posts = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            DocumentModel post = DocumentModel.createDefaultDocumentModel();
+            post.setType("post");
+            post.setSourceUri("post-" + i + ".md");
+            post.setTags(i % 2 == 0 ? new String[]{"java"} : new String[]{"groovy"});
+            posts.add(post);
+        }
+        final List<Integer> offsets = new ArrayList<>();
+        ContentStore store = mock(ContentStore.class);
+        when(store.getPublishedContent(anyString())).thenReturn(new DocumentList<DocumentModel>());
+        when(store.getPublishedContent("post")).thenReturn(new PagedDocumentList<>(posts.size(), 2, new PagedDocumentList.PageLoader<DocumentModel>() {
+            @Override
+            public List<DocumentModel> load(int offset, int limit) {
+                offsets.add(offset);
+                return new ArrayList<>(posts.subList(offset, Math.min(offset + limit, posts.size())));
+            }
+        }));
+
+        TagIndex index = TagIndex.build(store);
+        offsets.clear();
+        DocumentList<DocumentModel> tagged = index.getPublishedPosts("java");
+
+        assertThat(offsets).isEmpty();
+        assertThat(tagged).extracting("sourceuri").containsExactly("post-0.md", "post-2.md", "post-4.md", "post-6.md", "post-8.md");
+        // the index holds no documents, the first page was evicted from the query result while indexing
+        assertThat(offsets).contains(0);
+    }
+
+    private void addDocument(String type, String sourceUri, String status, long date, String... tags) {
+        DocumentModel document = DocumentModel.createDefaultDocumentModel();
+        document.setType(type);
+        document.setSourceUri(sourceUri);
+        document.setStatus(status);
+        document.setDate(new Date(date));
+        document.setTags(tags);
+        db.addDocument(document);
+    }
+}
@@ -0,0 +1,84 @@
+package org.jbake.app;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TemplateDependenciesTest {
+
+    @TempDir
+    Path templates;
+
+    @Test
+    public void shouldFindIncludedTemplates() throws Exception {
+        write("post.ftl", "<#include \"header.ftl\">${content.body}");
+        write("header.ftl", "<#include \"menu.ftl\"><div class=\"page-header\"></div>");
+        write("menu.ftl", "<ul></ul>");
+        write("page.tpl", "layout 'layout/main.tpl', bodyContents: contents { p(content.body) }");
+        write("layout/main.tpl", "html { body { bodyContents() } }");
+        write("post.jade", "extends layout\nblock content");
+        write("layout.jade", "html\n  body\n    block content");
+        write("page.thyme", "<div th:replace=\"footer :: footer\"></div>");
+        write("footer.thyme", "<div th:fragment=\"footer\"></div>");
+
+        TemplateDependencies dependencies = TemplateDependencies.scan(templates.toFile());
+
+        assertThat(dependencies.getDependencies("post.ftl")).containsExactly("header.ftl", "menu.ftl", "post.ftl");
+        assertThat(dependencies.getDependencies("page.tpl")).containsExactly("layout/main.tpl", "page.tpl");
+        assertThat(dependencies.getDependencies("post.jade")).containsExactly("layout.jade", "post.jade");
+        assertThat(dependencies.getDependencies("page.thyme")).containsExactly("footer.thyme", "page.thyme");
+        assertThat(dependencies.getDependencies("menu.ftl")).containsExactly("menu.ftl");
+    }
+
+    @Test
+    public void shouldReportTemplatesDependingOnChangedTemplate() throws Exception {
+        write("post.ftl", "<#include \"footer.ftl\">post");
+        write("page.ftl", "<#include \"footer.ftl\">page");
+        write("index.ftl", "index");
+        write("footer.ftl", "footer");
+        TemplateDependencies before = TemplateDependencies.scan(templates.toFile());
+
+        write("footer.ftl", "changed footer");
+        TemplateDependencies after = TemplateDependencies.scan(templates.toFile());
+
+        assertThat(after.getChangedTemplates(before)).containsExactly("footer.ftl", "page.ftl", "post.ftl");
+        assertThat(after.getChangedTemplates(TemplateDependencies.parse(after.getSignature()))).isEmpty();
+    }
+
+    @Test
+    public void shouldReportAddedAndRemovedTemplates() throws Exception {
+        write("post.ftl", "post");
+        write("old.ftl", "old");
+        TemplateDependencies before = TemplateDependencies.scan(templates.toFile());
+
+        assertThat(templates.resolve("old.ftl").toFile().delete()).isTrue();
+        write("new.ftl", "new");
+        TemplateDependencies after = TemplateDependencies.scan(templates.toFile());
+
+        assertThat(after.getChangedTemplates(before)).containsExactly("new.ftl", "old.ftl");
+    }
+
+    @Test
+    public void shouldTreatUnknownSignatureAsAllChanged() throws Exception {
+        write("post.ftl", "post");
+        write("page.ftl", "page");
+
+        TemplateDependencies current = TemplateDependencies.scan(templates.toFile());
+
+        assertThat(current.getChangedTemplates(TemplateDependencies.parse(null))).containsExactly("page.ftl", "post.ftl");
+        assertThat(current.getChangedTemplates(TemplateDependencies.parse("8aed1322e5450badb078e1fb60a817a1df25a2ca")))
+            .containsExactly("page.ftl", "post.ftl");
+    }
+
+    private void write(String path, String content) throws Exception {
+        File file = templates.resolve(path).toFile();
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -24,6 +24,7 @@
 package org.jbake.app.template;
 
 import org.apache.commons.io.FileUtils;
+import org.jbake.app.Renderer;
 import org.junit.Test;
 
 import java.io.File;
@@ -83,4 +84,36 @@ public class FreemarkerTemplateEngineRenderingTest extends AbstractTemplateEngin
 
     }
 
+    @Test
+    public void shouldSkipUnchangedFilesWhenRenderingAgain() throws Exception {
+        String databasePath = config.getDatabasePath();
+        config.setDatabasePath(folder.newFolder("manifest").getAbsolutePath());
+        config.setRenderSkipUnchanged(true);
+        try {
+            renderer.renderArchive("archive.html");
+            renderer.saveOutputManifest();
+            File outputFile = new File(destinationFolder, "archive.html");
+            assertTrue(outputFile.setLastModified(1000L));
+
+            Renderer nextBake = new Renderer(db, config);
+            nextBake.renderArchive("archive.html");
+            nextBake.renderIndex("index.html");
+
+            assertThat(renderer.getWrittenFileCount()).isEqualTo(1);
+            assertThat(nextBake.getSkippedFileCount()).isEqualTo(1);
+            assertThat(nextBake.getWrittenFileCount()).isEqualTo(1);
+            assertThat(outputFile.lastModified()).isEqualTo(1000L);
+            assertThat(new File(destinationFolder, "index.html")).exists();
+
+            // a watch mode bake counts its own files
+            nextBake.resetFileCounts();
+            nextBake.renderArchive("archive.html");
+            assertThat(nextBake.getSkippedFileCount()).isEqualTo(1);
+            assertThat(nextBake.getWrittenFileCount()).isZero();
+        } finally {
+            config.setRenderSkipUnchanged(false);
+            config.setDatabasePath(databasePath);
+        }
+    }
+
 }
@@ -106,6 +106,15 @@ public class LaunchOptionsTest {
         assertThat(res.isListConfig()).isTrue();
     }
 
+    @Test
+    public void cacheStats() throws Exception {
+        String[] args = {"--cache-stats"};
+        LaunchOptions res = parseArgs(args);
+
+        assertThat(res.isCacheStats()).isTrue();
+        assertThat(res.isHelpNeeded()).isFalse();
+    }
+
     @Test
     public void customPropertiesEncoding() throws Exception {
         String[] args = {"--prop-encoding", "utf-16"};
@@ -0,0 +1,115 @@
+package org.jbake.model;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyDocumentModelTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final LazyDocumentModel.PropertyLoader loader = new LazyDocumentModel.PropertyLoader() {
+        @Override
+        public Map<String, Object> load(DocumentModel document) {
+            loads.incrementAndGet();
+            return Collections.<String, Object>singletonMap(ModelAttributes.BODY, "body of " + document.getSourceuri());
+        }
+    };
+
+    @Test
+    public void shouldLoadBodyOnlyWhenAccessed() {
+        LazyDocumentModel document = new LazyDocumentModel(loader, ModelAttributes.BODY);
+        document.setSourceUri("post.md");
+        document.setTitle("Post");
+
+        assertThat(document.getTitle()).isEqualTo("Post");
+        assertThat(document.isLoaded()).isFalse();
+        assertThat(loads.get()).isZero();
+
+        assertThat(document.getBody()).isEqualTo("body of post.md");
+        assertThat(document.getBody()).isEqualTo("body of post.md");
+        assertThat(document.isLoaded()).isTrue();
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldLoadBodyWhenCopied() {
+        LazyDocumentModel document = new LazyDocumentModel(loader, ModelAttributes.BODY);
+        document.setSourceUri("page.md");
+
+        Map<String, Object> copy = new HashMap<>(document);
+
+        assertThat(copy).containsEntry(ModelAttributes.BODY, "body of page.md");
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotLoadBodyWhichWasReplaced() {
+        LazyDocumentModel document = new LazyDocumentModel(loader, ModelAttributes.BODY);
+        document.setBody("replaced");
+
+        assertThat(document.getBody()).isEqualTo("replaced");
+        assertThat(document.size()).isEqualTo(1);
+        assertThat(loads.get()).isZero();
+    }
+
+    @Test
+    public void shouldReturnBodyToAllThreadsWhileSlowLoaderRuns() throws Exception {
+        final CountDownLatch loading = new CountDownLatch(1);
+        final LazyDocumentModel document = new LazyDocumentModel(new LazyDocumentModel.PropertyLoader() {
+            @Override
+            public Map<String, Object> load(DocumentModel document) {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Collections.<String, Object>singletonMap(ModelAttributes.BODY, "slow body");
+            }
+        }, ModelAttributes.BODY);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Object>> bodies = new ArrayList<>();
+            bodies.add(executor.submit(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return document.get(ModelAttributes.BODY);
+                }
+            }));
+            // the other threads read while the first one is loading
+            loading.await();
+            for (int i = 1; i < threads; i++) {
+                bodies.add(executor.submit(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return document.get(ModelAttributes.BODY);
+                    }
+                }));
+            }
+
+            for (Future<Object> body : bodies) {
+                assertThat(body.get(10, TimeUnit.SECONDS)).isEqualTo("slow body");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+}
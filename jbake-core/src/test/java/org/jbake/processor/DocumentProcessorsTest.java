@@ -0,0 +1,112 @@
+package org.jbake.processor;
+
+import org.jbake.TestUtils;
+import org.jbake.app.configuration.ConfigUtil;
+import org.jbake.app.configuration.DefaultJBakeConfiguration;
+import org.jbake.app.configuration.JBakeConfiguration;
+import org.jbake.app.configuration.PropertyList;
+import org.jbake.model.DocumentModel;
+import org.jsoup.nodes.Element;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DocumentProcessorsTest {
+
+    private DefaultJBakeConfiguration config;
+    private DocumentModel document;
+
+    @Before
+    public void setUp() throws Exception {
+        config = (DefaultJBakeConfiguration) new ConfigUtil().loadConfig(TestUtils.getTestResourcesAsSourceFolder());
+        document = new DocumentModel();
+        document.setRootPath("../../../");
+        document.setUri("blog/2017/05/first_post.html");
+        document.setBody("<h2>Title</h2><p>Test <img src='./first.jpg'></p>");
+    }
+
+    @Test
+    public void shouldRunEnabledProcessorsInOrder() {
+        config.setProperty(PropertyList.IMG_PATH_UPDATE.getKey(), false);
+        DocumentProcessors processors = new DocumentProcessors(Arrays.asList(
+            new AttributeProcessor("h2", "id", "title", true),
+            new AttributeProcessor("img", "loading", "lazy", false),
+            new AttributeProcessor("h2", "id", "overwritten", true)));
+
+        processors.process(document, config);
+
+        assertThat(document.getBody())
+            .contains("<h2 id=\"overwritten\">Title</h2>")
+            .doesNotContain("loading")
+            .doesNotContain("<body>");
+    }
+
+    @Test
+    public void shouldUpdateImagePathsBeforeProcessors() {
+        config.setProperty(PropertyList.IMG_PATH_UPDATE.getKey(), true);
+        config.setImgPathPrependHost(false);
+        DocumentProcessors processors = new DocumentProcessors(Collections.<DocumentProcessor>singletonList(
+            new AttributeProcessor("img", "loading", "lazy", true)));
+
+        processors.process(document, config);
+
+        assertThat(document.getBody()).contains("src=\"blog/2017/05/first.jpg\"").contains("loading=\"lazy\"");
+    }
+
+    @Test
+    public void shouldKeepBodyIfNoProcessorIsEnabled() {
+        config.setProperty(PropertyList.IMG_PATH_UPDATE.getKey(), false);
+        String body = document.getBody();
+        DocumentProcessors processors = new DocumentProcessors(Collections.<DocumentProcessor>singletonList(
+            new AttributeProcessor("img", "loading", "lazy", false)));
+
+        processors.process(document, config);
+
+        assertThat(document.getBody()).isSameAs(body);
+    }
+
+    @Test
+    public void shouldSkipFailingProcessor() {
+        config.setProperty(PropertyList.IMG_PATH_UPDATE.getKey(), false);
+        DocumentProcessors processors = new DocumentProcessors(Arrays.asList(
+            new AttributeProcessor(null, null, null, true),
+            new AttributeProcessor("img", "loading", "lazy", true)));
+
+        processors.process(document, config);
+
+        assertThat(document.getBody()).contains("loading=\"lazy\"");
+    }
+
+    private static class AttributeProcessor implements DocumentProcessor {
+        private final String element;
+        private final String attribute;
+        private final String value;
+        private final boolean enabled;
+
+        AttributeProcessor(String element, String attribute, String value, boolean enabled) {
+            this.element = element;
+            this.attribute = attribute;
+            this.value = value;
+            this.enabled = enabled;
+        }
+
+        @Override
+        public boolean isEnabled(JBakeConfiguration config) {
+            return enabled;
+        }
+
+        @Override
+        public void process(DocumentModel document, Element body, JBakeConfiguration config) {
+            if (element == null) {
+                throw new IllegalStateException("failing processor");
+            }
+            for (Element selected : body.select(element)) {
+                selected.attr(attribute, value);
+            }
+        }
+    }
+}
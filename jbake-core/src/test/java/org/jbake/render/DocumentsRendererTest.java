@@ -17,14 +17,18 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.MockitoAnnotations;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -115,6 +119,59 @@ public class DocumentsRendererTest {
         );
     }
 
+    @Test
+    public void shouldCollectErrorsInDocumentOrderWhenRenderingConcurrently() throws Exception {
+        // given
+        DocumentTypes.addDocumentType("customType");
+        when(configuration.getRenderThreads()).thenReturn(4);
+
+        DocumentList<DocumentModel> templateModelList = new DocumentList<>();
+        for (int i = 0; i < 8; i++) {
+            DocumentModel document = emptyDocument();
+            document.setTitle("doc" + i);
+            templateModelList.add(document);
+        }
+        doAnswer(invocation -> {
+            DocumentModel document = invocation.getArgument(0);
+            if (!document.getTitle().equals("doc2")) {
+                throw new Exception("failed " + document.getTitle());
+            }
+            return null;
+        }).when(renderer).render(any(DocumentModel.class));
+        when(db.getUnrenderedContent()).thenReturn(templateModelList);
+        when(db.getAllContent(any())).thenReturn(templateModelList);
+
+        // when
+        RenderingException exception = Assertions.assertThrows(RenderingException.class,
+            () -> documentsRenderer.render(renderer, db, configuration));
+
+        // then
+        verify(renderer, times(8)).render(any(DocumentModel.class));
+        verify(db, times(1)).markDocumentsAsRendered(argThat(documents -> documents.size() == 1));
+        assertThat(exception.getMessage()).isEqualTo("Failed to render documents. Cause(s):"
+            + "\nfailed doc0\nfailed doc1\nfailed doc3\nfailed doc4\nfailed doc5\nfailed doc6\nfailed doc7");
+    }
+
+    @Test
+    public void shouldNotMarkDocumentsAsRenderedIfWritingFails() throws Exception {
+        // given
+        DocumentTypes.addDocumentType("customType");
+
+        DocumentList<DocumentModel> templateModelList = new DocumentList<>();
+        templateModelList.add(emptyDocument());
+        when(db.getUnrenderedContent()).thenReturn(templateModelList);
+        when(db.getAllContent(any())).thenReturn(templateModelList);
+        doThrow(new IOException("disk full")).when(renderer).flush();
+
+        // when
+        RenderingException exception = Assertions.assertThrows(RenderingException.class,
+            () -> documentsRenderer.render(renderer, db, configuration));
+
+        // then
+        verify(db, never()).markDocumentsAsRendered(any());
+        assertThat(exception.getMessage()).isEqualTo("Failed to render documents. Cause(s):\ndisk full");
+    }
+
     @Test
     public void shouldContainPostNavigation() throws Exception {
         // given
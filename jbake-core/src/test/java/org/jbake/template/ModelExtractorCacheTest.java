@@ -0,0 +1,172 @@
+package org.jbake.template;
+
+import org.jbake.app.ContentStore;
+import org.jbake.app.DocumentList;
+import org.jbake.model.DocumentModel;
+import org.jbake.model.LazyDocumentModel;
+import org.jbake.model.ModelAttributes;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ModelExtractorCacheTest {
+
+    private ModelExtractorCache cache;
+    private ContentStore db;
+    private CountingExtractor extractor;
+
+    @Before
+    public void setup() {
+        cache = new ModelExtractorCache();
+        db = mock(ContentStore.class);
+        extractor = new CountingExtractor();
+    }
+
+    @Test
+    public void shouldServeRepeatedExtractionsFromCache() {
+        Object first = cache.get(extractor, db, model("java"), "tag_posts");
+        Object second = cache.get(extractor, db, model("java"), "tag_posts");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(extractor.invocations.get()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldReturnACopyOfCachedDocumentLists() {
+        CacheableModelExtractor<DocumentList<String>> documents = new CacheableModelExtractor<DocumentList<String>>() {
+            @Override
+            public DocumentList<String> get(ContentStore db, Map model, String key) {
+                DocumentList<String> list = new DocumentList<>();
+                list.add("b");
+                list.add("a");
+                return list;
+            }
+
+            @Override
+            public Object getCacheParameters(ContentStore db, Map model, String key) {
+                return key;
+            }
+        };
+
+        DocumentList<String> first = cache.get(documents, db, model("java"), "published_posts");
+        Collections.sort(first);
+        first.remove("b");
+        DocumentList<String> second = cache.get(documents, db, model("java"), "published_posts");
+
+        assertThat(second).isNotSameAs(first).containsExactly("b", "a");
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldNotShareDocumentsOfCachedLists() {
+        final AtomicInteger bodyLoads = new AtomicInteger();
+        CacheableModelExtractor<DocumentList<DocumentModel>> documents = new CacheableModelExtractor<DocumentList<DocumentModel>>() {
+            @Override
+            public DocumentList<DocumentModel> get(ContentStore db, Map model, String key) {
+                DocumentModel post = new LazyDocumentModel(new LazyDocumentModel.PropertyLoader() {
+                    @Override
+                    public Map<String, Object> load(DocumentModel document) {
+                        bodyLoads.incrementAndGet();
+                        return Collections.<String, Object>singletonMap(ModelAttributes.BODY, "body");
+                    }
+                }, ModelAttributes.BODY);
+                post.setTitle("title");
+                DocumentList<DocumentModel> list = new DocumentList<>();
+                list.add(post);
+                return list;
+            }
+
+            @Override
+            public Object getCacheParameters(ContentStore db, Map model, String key) {
+                return key;
+            }
+        };
+
+        DocumentModel first = cache.get(documents, db, model("java"), "published_posts").get(0);
+        first.setTitle("changed");
+        first.setBody("changed");
+        DocumentModel second = cache.get(documents, db, model("java"), "published_posts").get(0);
+
+        assertThat(second.getTitle()).isEqualTo("title");
+        assertThat(bodyLoads.get()).isZero();
+        assertThat(second.getBody()).isEqualTo("body");
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldKeyResultsByParameters() {
+        cache.get(extractor, db, model("java"), "tag_posts");
+        cache.get(extractor, db, model("groovy"), "tag_posts");
+
+        assertThat(extractor.invocations.get()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldInvalidateWhenStoreIsModified() {
+        cache.get(extractor, db, model("java"), "tag_posts");
+        when(db.getModificationCount()).thenReturn(1L);
+        cache.get(extractor, db, model("java"), "tag_posts");
+
+        assertThat(extractor.invocations.get()).isEqualTo(2);
+        assertThat(cache.getHits()).isZero();
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedResults() {
+        cache.reset(2);
+
+        cache.get(extractor, db, model("a"), "tag_posts");
+        cache.get(extractor, db, model("b"), "tag_posts");
+        cache.get(extractor, db, model("a"), "tag_posts");
+        cache.get(extractor, db, model("c"), "tag_posts");
+        cache.get(extractor, db, model("a"), "tag_posts");
+        cache.get(extractor, db, model("b"), "tag_posts");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getHits()).isEqualTo(2);
+        assertThat(extractor.invocations.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void shouldNotCacheWhenDisabled() {
+        cache.reset(0);
+
+        cache.get(extractor, db, model("java"), "tag_posts");
+        cache.get(extractor, db, model("java"), "tag_posts");
+
+        assertThat(extractor.invocations.get()).isEqualTo(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    private Map<String, Object> model(String tag) {
+        Map<String, Object> model = new HashMap<>();
+        model.put("tag", tag);
+        return model;
+    }
+
+    private static class CountingExtractor implements CacheableModelExtractor<Object> {
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public Object get(ContentStore db, Map model, String key) {
+            invocations.incrementAndGet();
+            return Collections.singletonList(model.get("tag"));
+        }
+
+        @Override
+        public Object getCacheParameters(ContentStore db, Map model, String key) {
+            return model.get("tag");
+        }
+    }
+}
@@ -174,4 +174,75 @@ public class HtmlUtilTest {
 
         assertThat(body).contains("src=\"https://example.com/first.jpg\"");
     }
+
+    @Test
+    public void shouldKeepMarkupAroundImages() {
+        DocumentModel fileContent = new DocumentModel();
+        fileContent.setUri("blog/2017/05/first_post.html");
+        fileContent.setBody("<p class=note>Test<br>\n<!-- <img src='old.jpg'> --><img alt=first src='first.jpg'></p>");
+        config.setImgPathPrependHost(false);
+
+        HtmlUtil.fixImageSourceUrls(fileContent, config);
+
+        assertThat(fileContent.getBody())
+            .isEqualTo("<p class=note>Test<br>\n<!-- <img src='old.jpg'> --><img alt=first src=\"blog/2017/05/first.jpg\"></p>");
+    }
+
+    @Test
+    public void shouldUpdateSrcsetAndLinksIfConfigured() {
+        DocumentModel fileContent = new DocumentModel();
+        fileContent.setUri("blog/2017/05/first_post.html");
+        fileContent.setBody("<a href='first.jpg'><img src='small.jpg' srcset='small.jpg 1x, ./large.jpg 2x'></a>");
+        config.setImgPathPrependHost(false);
+
+        HtmlUtil.fixImageSourceUrls(fileContent, config);
+
+        assertThat(fileContent.getBody())
+            .contains("href='first.jpg'")
+            .contains("srcset='small.jpg 1x, ./large.jpg 2x'");
+
+        config.setImgPathUpdateAttributes("src", "srcset", "href");
+        HtmlUtil.fixImageSourceUrls(fileContent, config);
+
+        assertThat(fileContent.getBody())
+            .contains("href=\"blog/2017/05/first.jpg\"")
+            .contains("srcset=\"blog/2017/05/small.jpg 1x, blog/2017/05/large.jpg 2x\"");
+    }
+
+    @Test
+    public void shouldNotChangeFragments() {
+        DocumentModel fileContent = new DocumentModel();
+        fileContent.setUri("blog/2017/05/first_post.html");
+        fileContent.setBody("<a href='#top'>Top</a><img src='#frag'>");
+        config.setImgPathUpdateAttributes("src", "href");
+        config.setImgPathPrependHost(true);
+
+        HtmlUtil.fixImageSourceUrls(fileContent, config);
+
+        assertThat(fileContent.getBody())
+            .containsPattern("href=.#top.")
+            .containsPattern("src=.#frag.")
+            .doesNotContain("jbake.org")
+            .doesNotContain("blog/2017/05/");
+    }
+
+    @Test
+    public void shouldNotChangeSchemeAndProtocolRelativeUrls() {
+        DocumentModel fileContent = new DocumentModel();
+        fileContent.setUri("blog/2017/05/first_post.html");
+        fileContent.setBody("<a href='mailto:info@jbake.org'>Mail</a><a href='tel:+1234'>Call</a>"
+            + "<img src='data:image/png;base64,iVBORw0KGgo='><img src='//cdn.example.com/first.jpg'>");
+        config.setImgPathUpdateAttributes("src", "href");
+        config.setImgPathPrependHost(true);
+
+        HtmlUtil.fixImageSourceUrls(fileContent, config);
+
+        assertThat(fileContent.getBody())
+            .containsPattern("href=.mailto:info@jbake.org.")
+            .containsPattern("href=.tel:\\+1234.")
+            .containsPattern("src=.data:image/png;base64,iVBORw0KGgo=.")
+            .containsPattern("src=.//cdn.example.com/first.jpg.")
+            .doesNotContain("www.jbake.org")
+            .doesNotContain("blog/2017/05/");
+    }
 }